@@ -0,0 +1,31 @@
+package com.demo.benchmark;
+
+import com.demo.dto.DealRequest;
+import com.demo.entity.CurrencyCode;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+
+/**
+ * Sample payloads shared by the benchmarks.
+ */
+final class BenchmarkDeals {
+
+    static final byte[] DEAL_JSON = ("{\"uniqueId\":\"ABC123456\",\"fromCurrencyIsoCode\":\"USD\",\"toCurrencyIsoCode\":\"EUR\","
+            + "\"dealTimestamp\":\"2024-05-10T12:30:00\",\"dealAmount\":1000.0}").getBytes(StandardCharsets.UTF_8);
+
+    private BenchmarkDeals() {
+    }
+
+    static DealRequest request(String uniqueId) {
+        DealRequest request = new DealRequest();
+        request.setUniqueId(uniqueId);
+        request.setFromCurrencyIsoCode(CurrencyCode.USD);
+        request.setToCurrencyIsoCode(CurrencyCode.EUR);
+        request.setDealTimestamp(LocalDateTime.of(2024, 5, 10, 12, 30));
+        request.setDealAmount(new BigDecimal("1000.0"));
+        return request;
+    }
+}
@@ -0,0 +1,82 @@
+package com.demo.benchmark;
+
+import com.demo.controller.DealController;
+import com.demo.dto.DealBatchItem;
+import com.demo.dto.DealBatchItemStatus;
+import com.demo.dto.DealBatchResponse;
+import com.demo.dto.DealRequest;
+import com.demo.dto.DealResponse;
+import com.demo.entity.Deal;
+import com.demo.service.DealService;
+import com.demo.service.impl.DealAuditLogger;
+import com.demo.service.impl.DealMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Request-thread overhead of {@link DealController#createDeal} and {@link DealController#createDeals} with the service
+ * stubbed out, i.e. the audit logging around the call. The audit logger is wired as in {@code logback-spring.xml},
+ * except that the asynchronous appender feeds a no-op appender (see {@code logback-test.xml}). The {@code gc}
+ * profiler the benchmark profile runs with reports the bytes allocated per call as {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealControllerLoggingBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"1.0", "0.1", "0.0"})
+    private double sampleRate;
+
+    private DealController controller;
+    private DealRequest request;
+    private List<DealRequest> batch;
+
+    @Setup
+    public void setUp() {
+        request = BenchmarkDeals.request("ABC123456");
+        Deal deal = DealMapper.convertToEntity(request);
+        deal.setId(42L);
+        DealResponse saved = new DealResponse(0, null, "Successful", DealMapper.convertToDto(deal));
+        DealAuditLogger auditLogger = new DealAuditLogger(sampleRate, List.of());
+        batch = new ArrayList<>(BATCH_SIZE);
+        List<DealBatchItem> items = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(BenchmarkDeals.request("ABC" + i));
+            items.add(new DealBatchItem(i, "ABC" + i, DealBatchItemStatus.ACCEPTED, null));
+        }
+        DealBatchResponse savedBatch = new DealBatchResponse(0, null, "Successful", items);
+
+        DealService stub = new DealService() {
+            @Override
+            public DealResponse saveDeal(DealRequest dealRequest) {
+                return saved;
+            }
+
+            @Override
+            public DealBatchResponse saveDeals(List<DealRequest> dealRequests) {
+                return savedBatch;
+            }
+        };
+        controller = new DealController(stub, auditLogger);
+    }
+
+    @Benchmark
+    public ResponseEntity<DealResponse> createDeal() {
+        return controller.createDeal(request);
+    }
+
+    @Benchmark
+    public ResponseEntity<DealBatchResponse> createDeals() {
+        return controller.createDeals(batch);
+    }
+}
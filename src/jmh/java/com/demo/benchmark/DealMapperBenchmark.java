@@ -0,0 +1,42 @@
+package com.demo.benchmark;
+
+import com.demo.dto.DealDTO;
+import com.demo.dto.DealRequest;
+import com.demo.entity.Deal;
+import com.demo.service.impl.DealMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Cost of the request-to-entity and entity-to-DTO conversions done on every saved deal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealMapperBenchmark {
+
+    private DealRequest request;
+    private Deal deal;
+
+    @Setup
+    public void setUp() {
+        request = BenchmarkDeals.request("ABC123456");
+        deal = DealMapper.convertToEntity(request);
+        deal.setId(42L);
+    }
+
+    @Benchmark
+    public Deal convertToEntity() {
+        return DealMapper.convertToEntity(request);
+    }
+
+    @Benchmark
+    public DealDTO convertToDto() {
+        return DealMapper.convertToDto(deal);
+    }
+}
@@ -0,0 +1,64 @@
+package com.demo.benchmark;
+
+import com.demo.dto.DealRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Cost of turning a POST /v1/dealers/deals body into a validated {@link DealRequest}, with the object mapper
+ * configured the way Spring MVC configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealRequestBenchmark {
+
+    private ObjectReader reader;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private DealRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reader = objectMapper.readerFor(DealRequest.class);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        request = reader.readValue(BenchmarkDeals.DEAL_JSON);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public DealRequest deserialize() throws IOException {
+        return reader.readValue(BenchmarkDeals.DEAL_JSON);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<DealRequest>> validate() {
+        return validator.validate(request);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<DealRequest>> deserializeAndValidate() throws IOException {
+        DealRequest parsed = reader.readValue(BenchmarkDeals.DEAL_JSON);
+        return validator.validate(parsed);
+    }
+}
@@ -0,0 +1,56 @@
+package com.demo.benchmark;
+
+import com.demo.FxDealClusterApplication;
+import com.demo.dto.DealResponse;
+import com.demo.service.DealService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * {@code DealServiceImpl.saveDeal} end to end against an in-memory H2 database in MySQL mode, migrated by Flyway like
+ * the real schema (see {@code application-benchmark.properties}). Measures both a new deal and a duplicate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealServiceBenchmark {
+
+    private static final String DUPLICATE_ID = "BENCH-DUPLICATE";
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private DealService dealService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(FxDealClusterApplication.class)
+                .profiles("benchmark")
+                .run();
+        dealService = context.getBean(DealService.class);
+        dealService.saveDeal(BenchmarkDeals.request(DUPLICATE_ID));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DealResponse saveNewDeal() {
+        return dealService.saveDeal(BenchmarkDeals.request("BENCH-" + sequence.incrementAndGet()));
+    }
+
+    @Benchmark
+    public DealResponse saveDuplicateDeal() {
+        return dealService.saveDeal(BenchmarkDeals.request(DUPLICATE_ID));
+    }
+}
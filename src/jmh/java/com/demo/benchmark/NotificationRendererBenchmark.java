@@ -0,0 +1,46 @@
+package com.demo.benchmark;
+
+import com.demo.dto.DealDTO;
+import com.demo.entity.CurrencyCode;
+import com.demo.service.impl.NotificationRendererImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Notification emails rendered per second from the precompiled templates, across four threads sharing the buffer
+ * pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class NotificationRendererBenchmark {
+
+    private NotificationRendererImpl renderer;
+    private DealDTO deal;
+
+    @Setup
+    public void setUp() {
+        renderer = new NotificationRendererImpl(new SimpleMeterRegistry(), "support@oxygen.com", 64, 65536, 1048576);
+        deal = new DealDTO(42L, "ABC123456", CurrencyCode.USD, CurrencyCode.EUR,
+                LocalDateTime.of(2024, 5, 10, 12, 30), new BigDecimal("1000.0000"));
+    }
+
+    @Benchmark
+    public String renderDowntimeRestored() {
+        return renderer.renderDowntimeRestored("Jane Doe");
+    }
+
+    @Benchmark
+    public String renderDealConfirmation() {
+        return renderer.renderDealConfirmation("Jane Doe", deal);
+    }
+}
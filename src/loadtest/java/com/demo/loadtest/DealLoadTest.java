@@ -0,0 +1,234 @@
+package com.demo.loadtest;
+
+import com.demo.FxDealClusterApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Load generator for {@code POST /v1/dealers/deals}. Boots the application on a random port against in-memory H2 in
+ * MySQL mode ({@code application-loadtest.properties}), seeds a pool of deals, then drives a mix of new, duplicate and
+ * invalid deals from {@code concurrency} clients and reports throughput and latency percentiles.
+ * <p>
+ * Options are passed as {@code --name=value}: {@code duration} and {@code warmup} (seconds), {@code concurrency},
+ * {@code rate} (total requests/s, 0 for as fast as possible), {@code duplicate-rate}, {@code invalid-rate},
+ * {@code seed-count} and {@code histogram-file}. Any other argument is handed to the application, e.g.
+ * {@code --spring.profiles.active=loadtest,virtual-threads}.
+ * <p>
+ * With a fixed rate each client follows a schedule and latency is measured from the intended send time, so a
+ * stalled server is not hidden by clients that stop sending (coordinated omission).
+ */
+public class DealLoadTest {
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private enum Kind { NEW, DUPLICATE, INVALID }
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final URI uri;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final int concurrency;
+    private final double rate;
+    private final double duplicateRate;
+    private final double invalidRate;
+    private final int seedCount;
+
+    DealLoadTest(URI uri, int concurrency, double rate, double duplicateRate, double invalidRate, int seedCount) {
+        this.uri = uri;
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.duplicateRate = duplicateRate;
+        this.invalidRate = invalidRate;
+        this.seedCount = seedCount;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new TreeMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String name = arg.startsWith("--") && eq > 0 ? arg.substring(2, eq) : "";
+            if (name.matches("duration|warmup|concurrency|rate|duplicate-rate|invalid-rate|seed-count|histogram-file")) {
+                options.put(name, arg.substring(eq + 1));
+            } else {
+                appArgs.add(arg);
+            }
+        }
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+
+        // Devtools would restart the application by calling this main method again without the load-test options
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(FxDealClusterApplication.class)
+                .profiles("loadtest")
+                .properties("server.port=0")
+                .run(appArgs.toArray(new String[0]));
+        try {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            DealLoadTest loadTest = new DealLoadTest(
+                    URI.create("http://localhost:" + port + "/v1/dealers/deals"),
+                    Integer.parseInt(options.getOrDefault("concurrency", "32")),
+                    Double.parseDouble(options.getOrDefault("rate", "0")),
+                    Double.parseDouble(options.getOrDefault("duplicate-rate", "0.1")),
+                    Double.parseDouble(options.getOrDefault("invalid-rate", "0.05")),
+                    Integer.parseInt(options.getOrDefault("seed-count", "1000")));
+
+            loadTest.seed();
+            loadTest.run(warmup);
+            loadTest.outcomes.clear();
+            Histogram histogram = loadTest.run(duration);
+            loadTest.report(System.out, histogram, duration);
+
+            String histogramFile = options.get("histogram-file");
+            if (histogramFile != null) {
+                try (PrintStream out = new PrintStream(Files.newOutputStream(Path.of(histogramFile)))) {
+                    histogram.outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Inserts the deals that duplicates are drawn from.
+     */
+    void seed() throws IOException, InterruptedException {
+        for (int i = 0; i < seedCount; i++) {
+            send(body(seedId(i), "USD"));
+        }
+    }
+
+    /**
+     * Runs all clients for the given number of seconds and returns their merged latency histogram, in microseconds.
+     */
+    Histogram run(int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * concurrency / rate) : 0;
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Histogram>> results = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                results.add(clients.submit(() -> drive(deadline, intervalNanos)));
+            }
+            Histogram merged = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+            for (Future<Histogram> result : results) {
+                merged.add(result.get());
+            }
+            return merged;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private Histogram drive(long deadline, long intervalNanos) {
+        Histogram histogram = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Stagger the schedules so the clients do not fire in lockstep
+        long intended = System.nanoTime() + (intervalNanos > 0 ? random.nextLong(intervalNanos) : 0);
+
+        while (intended < deadline) {
+            if (intervalNanos > 0) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                intended = System.nanoTime();
+            }
+
+            Kind kind = pick(random.nextDouble());
+            String outcome;
+            try {
+                HttpResponse<String> response = send(body(kind, random));
+                outcome = kind + " " + response.statusCode();
+            } catch (IOException e) {
+                outcome = kind + " " + e.getClass().getSimpleName();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long end = System.nanoTime();
+            histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(end - intended), HIGHEST_LATENCY_MICROS));
+            outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+
+            intended = intervalNanos > 0 ? intended + intervalNanos : end;
+        }
+        return histogram;
+    }
+
+    private Kind pick(double draw) {
+        if (draw < invalidRate) {
+            return Kind.INVALID;
+        }
+        return draw < invalidRate + duplicateRate && seedCount > 0 ? Kind.DUPLICATE : Kind.NEW;
+    }
+
+    private String body(Kind kind, ThreadLocalRandom random) {
+        return switch (kind) {
+            case NEW -> body("load-" + runId + "-" + sequence.incrementAndGet(), "USD");
+            case DUPLICATE -> body(seedId(random.nextInt(seedCount)), "USD");
+            // Lower-case ISO code, rejected by bean validation
+            case INVALID -> body("load-" + runId + "-invalid", "usd");
+        };
+    }
+
+    private String seedId(int i) {
+        return "seed-" + runId + "-" + i;
+    }
+
+    private static String body(String uniqueId, String fromCurrency) {
+        return "{\"uniqueId\":\"" + uniqueId + "\",\"fromCurrencyIsoCode\":\"" + fromCurrency + "\","
+                + "\"toCurrencyIsoCode\":\"EUR\",\"dealTimestamp\":\"2024-05-10T12:30:00\",\"dealAmount\":1000.0}";
+    }
+
+    private HttpResponse<String> send(String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    void report(PrintStream out, Histogram histogram, int seconds) {
+        out.println();
+        out.printf("Load test: %d clients, %s, %.0f%% duplicate, %.0f%% invalid, %d s%n", concurrency,
+                rate > 0 ? String.format("%.0f req/s target", rate) : "closed loop",
+                duplicateRate * 100, invalidRate * 100, seconds);
+        out.printf("Requests:   %d (%.1f req/s)%n", histogram.getTotalCount(), (double) histogram.getTotalCount() / seconds);
+        out.printf("Latency ms: p50=%.2f p99=%.2f p999=%.2f max=%.2f%n",
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+        new TreeMap<>(outcomes).forEach((outcome, count) -> out.printf("  %-24s %d%n", outcome, count.sum()));
+    }
+}
@@ -2,9 +2,13 @@ package com.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication
+@EnableAsync
+@EnableScheduling
 public class FxDealClusterApplication {
 
 	public static void main(String[] args) {
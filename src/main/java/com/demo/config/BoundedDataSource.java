@@ -0,0 +1,167 @@
+package com.demo.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+
+/**
+ * Caps the number of callers that may hold or wait for a connection of the wrapped pool.
+ * <p>
+ * With virtual threads every request gets its own thread, so thousands of requests can reach the pool at the
+ * same time. A fair semaphore sized to the pool hands out connections in arrival order, and callers beyond
+ * {@code maxWaiting} fail immediately instead of queueing for the whole connection timeout.
+ * <p>
+ * The pool size is read again on every acquire, so the semaphore follows a pool that is resized at runtime: it gains
+ * the permits of a grown pool, and after a shrink the callers above the new size keep their connections but no
+ * new permit is handed out until they are back under it.
+ */
+public class BoundedDataSource extends DelegatingDataSource {
+
+    private final ResizableSemaphore permits;
+    private final IntSupplier maxConnections;
+    private final AtomicInteger size;
+    private final int maxWaiting;
+    private final long timeoutMillis;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    /**
+     * @param maxConnections the current size of the wrapped pool
+     */
+    public BoundedDataSource(DataSource target, IntSupplier maxConnections, int maxWaiting, long timeoutMillis) {
+        super(target);
+        int initial = maxConnections.getAsInt();
+        this.permits = new ResizableSemaphore(initial);
+        this.maxConnections = maxConnections;
+        this.size = new AtomicInteger(initial);
+        this.maxWaiting = maxWaiting;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getActiveConnections() {
+        return size.get() - permits.availablePermits();
+    }
+
+    public int getWaitingThreads() {
+        return waiting.get();
+    }
+
+    private void acquire() throws SQLException {
+        resize();
+        try {
+            // Unlike tryAcquire(), the timed form does not take a free permit ahead of the callers already queued
+            if (permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            throw interrupted(e);
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            throw new SQLTransientConnectionException("Too many threads waiting for a database connection");
+        }
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Timed out after " + timeoutMillis + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            throw interrupted(e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private static SQLTransientConnectionException interrupted(InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+    }
+
+    /**
+     * Adds or takes away the permits by which the pool size changed since the last acquire.
+     */
+    private void resize() {
+        int current = size.get();
+        int target = maxConnections.getAsInt();
+        if (target == current || !size.compareAndSet(current, target)) {
+            return;
+        }
+        if (target > current) {
+            permits.release(target - current);
+        } else {
+            permits.reducePermits(current - target);
+        }
+    }
+
+    /**
+     * Wraps the connection so that its first {@code close()} gives the permit back.
+     */
+    private Connection guard(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            permits.release();
+                        }
+                        return null;
+                    }
+                    if (method.getName().equals("close")) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    /**
+     * A fair semaphore whose permits can also be taken away, leaving fewer than zero available while they are held.
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+
+        ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.demo.config;
+
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Puts a {@link BoundedDataSource} in front of every connection pool. Behind the shard and replica routing data
+ * sources each pool gets a limiter of its own, sized to that pool: a single one in front of the routing would cap all
+ * pools together at the size of one, and the lazy connection of a transaction would hold a permit while the shard
+ * queries it starts wait for more.
+ */
+@Configuration
+@ConditionalOnProperty(name = "deal.datasource.limiter.enabled", havingValue = "true")
+public class ConnectionLimiterConfig {
+
+  @Bean
+  public static BeanPostProcessor boundedDataSourcePostProcessor(
+          @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxConnections,
+          @Value("${deal.datasource.limiter.max-waiting}") int maxWaiting,
+          @Value("${deal.datasource.limiter.timeout}") long timeoutMillis,
+          ObjectProvider<MeterRegistry> meterRegistry) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof BoundedDataSource) {
+          return bean;
+        }
+        AbstractRoutingDataSource routing = routing(dataSource);
+        if (routing != null) {
+          Map<Object, Object> bounded = new HashMap<>();
+          routing.getResolvedDataSources().forEach((key, pool) -> bounded.put(key, bound(pool, poolName(pool, beanName + "-" + key))));
+          routing.setTargetDataSources(bounded);
+          routing.afterPropertiesSet();
+          return bean;
+        }
+        return bound(dataSource, poolName(dataSource, beanName));
+      }
+
+      private BoundedDataSource bound(DataSource pool, String name) {
+        BoundedDataSource bounded = new BoundedDataSource(pool, poolSize(pool, maxConnections), maxWaiting, timeoutMillis);
+        meterRegistry.ifAvailable(registry -> {
+          Gauge.builder("deal.datasource.limiter.active", bounded, BoundedDataSource::getActiveConnections)
+                  .tag("pool", name)
+                  .description("Connections currently handed out through the limiter")
+                  .register(registry);
+          Gauge.builder("deal.datasource.limiter.waiting", bounded, BoundedDataSource::getWaitingThreads)
+                  .tag("pool", name)
+                  .description("Threads waiting for a connection permit")
+                  .register(registry);
+        });
+        return bounded;
+      }
+    };
+  }
+
+  /**
+   * @return the shard or replica routing behind the data source, or {@code null} when it is a single pool
+   */
+  private static AbstractRoutingDataSource routing(DataSource dataSource) {
+    try {
+      if (dataSource.isWrapperFor(AbstractRoutingDataSource.class)) {
+        return dataSource.unwrap(AbstractRoutingDataSource.class);
+      }
+    } catch (SQLException e) {
+      // Not a wrapper of a routing data source
+    }
+    return null;
+  }
+
+  /**
+   * The live maximum size of the Hikari pool behind the data source, which the adaptive pool sizer may change, or the
+   * configured size when there is no Hikari pool behind it. A pool that has not started yet reports -1 when no size
+   * is configured, as Hikari only applies its default on start, so the configured size stands in until then.
+   */
+  static IntSupplier poolSize(DataSource dataSource, int maxConnections) {
+    HikariDataSource pool = hikari(dataSource);
+    if (pool == null) {
+      return () -> maxConnections;
+    }
+    return () -> {
+      int size = pool.getMaximumPoolSize();
+      return size > 0 ? size : maxConnections;
+    };
+  }
+
+  private static String poolName(DataSource dataSource, String fallback) {
+    HikariDataSource pool = hikari(dataSource);
+    return pool == null || pool.getPoolName() == null ? fallback : pool.getPoolName();
+  }
+
+  private static HikariDataSource hikari(DataSource dataSource) {
+    try {
+      if (dataSource.isWrapperFor(HikariDataSource.class)) {
+        return dataSource.unwrap(HikariDataSource.class);
+      }
+    } catch (SQLException e) {
+      // Not a wrapper of a Hikari pool
+    }
+    return null;
+  }
+}
@@ -0,0 +1,29 @@
+package com.demo.config;
+
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Serves the reactive intake. WebFlux, R2DBC and the reactive intake itself (src/reactive) are only part of a build
+ * with the {@code reactive} Maven profile, so the Spring profile of the same name refuses to start without them.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+  public ReactiveConfig() {
+    if (!ClassUtils.isPresent("com.demo.service.impl.ReactiveDealServiceImpl", ReactiveConfig.class.getClassLoader())) {
+      throw new IllegalStateException("The reactive profile needs a build with the reactive Maven profile (mvn -Preactive package)");
+    }
+  }
+
+  // Tomcat is on the classpath for the servlet stack and would otherwise be picked to serve WebFlux as well
+  @Bean
+  public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+    return new NettyReactiveWebServerFactory();
+  }
+}
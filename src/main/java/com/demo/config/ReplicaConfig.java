@@ -0,0 +1,127 @@
+package com.demo.config;
+
+
+import com.demo.repository.DealReplicaRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas: the application data source is a lazy connection proxy over a {@link ReplicaRoutingDataSource}, which
+ * sends {@code @Transactional(readOnly = true)} work to the replicas. Writes, reads inside a read-write transaction
+ * such as the duplicate checks, and work outside any transaction stay on the primary. Flyway migrates the
+ * primary only; replicas get the schema through replication.
+ * <p>
+ * Replicas are read with the primary's credentials by default and must not be written to. Sharding already routes
+ * every connection by uniqueId, so it is refused together with replicas, as is the reactive profile.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "deal.replicas.enabled", havingValue = "true")
+public class ReplicaConfig implements DisposableBean {
+
+  private final HikariDataSource primary;
+  private final ReplicaRoutingDataSource routingDataSource;
+  private final String nodeId;
+
+  public ReplicaConfig(Environment environment,
+                       DealReplicaRouter router,
+                       ObjectProvider<MeterRegistry> meterRegistry,
+                       @Value("${spring.datasource.url}") String url,
+                       @Value("${spring.datasource.username}") String primaryUsername,
+                       @Value("${spring.datasource.password}") String primaryPassword,
+                       @Value("${spring.datasource.driver-class-name:}") String driverClassName,
+                       @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+                       @Value("${deal.replicas.urls}") List<String> replicaUrls,
+                       @Value("${deal.replicas.username}") String username,
+                       @Value("${deal.replicas.password}") String password,
+                       @Value("${deal.sharding.enabled}") boolean sharding,
+                       @Value("${deal.cluster.node-id}") String nodeId) {
+    if (environment.acceptsProfiles(Profiles.of("reactive"))) {
+      throw new IllegalStateException("deal.replicas.enabled is not supported with the reactive profile");
+    }
+    if (sharding) {
+      throw new IllegalStateException("deal.replicas.enabled is not supported together with deal.sharding.enabled");
+    }
+    if (replicaUrls.isEmpty()) {
+      throw new IllegalStateException("deal.replicas.enabled requires deal.replicas.urls");
+    }
+    Binder binder = Binder.get(environment);
+    this.primary = pool(binder, "deal-primary", url, primaryUsername, primaryPassword, driverClassName, maximumPoolSize,
+            meterRegistry);
+    List<HikariDataSource> replicas = new ArrayList<>(replicaUrls.size());
+    for (int replica = 0; replica < replicaUrls.size(); replica++) {
+      HikariDataSource dataSource = pool(binder, "deal-replica-" + replica, replicaUrls.get(replica), username, password,
+              driverClassName, maximumPoolSize, meterRegistry);
+      dataSource.setReadOnly(true);
+      replicas.add(dataSource);
+    }
+    this.routingDataSource = new ReplicaRoutingDataSource(router, primary, replicas);
+    this.nodeId = nodeId;
+    log.info("Deal reads over {} replicas", replicas.size());
+  }
+
+  private static HikariDataSource pool(Binder binder, String name, String url, String username, String password,
+                                       String driverClassName, int maximumPoolSize,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+    HikariDataSource dataSource = new HikariDataSource();
+    // Same pool settings as the spring.datasource pool it replaces
+    binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+    dataSource.setPoolName(name);
+    dataSource.setJdbcUrl(url);
+    dataSource.setUsername(username);
+    dataSource.setPassword(password);
+    if (!driverClassName.isBlank()) {
+      dataSource.setDriverClassName(driverClassName);
+    }
+    dataSource.setMaximumPoolSize(maximumPoolSize);
+    meterRegistry.ifAvailable(registry -> dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    return dataSource;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource() {
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+
+  // The open-in-view session of a request would otherwise hold on to the connection of its first transaction, and
+  // with it the database that transaction was routed to, for every later one. A new connection per transaction also
+  // means the routing sees each transaction's read-only flag
+  @Bean
+  public HibernatePropertiesCustomizer replicaConnectionHandlingCustomizer() {
+    return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+  }
+
+  @Bean
+  public ReplicaLagMonitor replicaLagMonitor(DealReplicaRouter router) {
+    return new ReplicaLagMonitor(router, nodeId, primary, routingDataSource.replicas());
+  }
+
+  @Override
+  public void destroy() {
+    routingDataSource.close();
+    primary.close();
+  }
+}
@@ -0,0 +1,75 @@
+package com.demo.config;
+
+import com.demo.repository.DealReplicaRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Measures how far each replica has caught up: every {@code deal.replicas.lag-check-interval} ms this instance's
+ * heartbeat row on the primary is stamped with {@link DealReplicaRouter#nextBeat}, and the stamp each replica has
+ * applied so far is read back from the same row. A replica that cannot be read counts as not caught up at all until it
+ * can again.
+ * <p>
+ * Only the row of this instance is read, so the clocks of other instances play no part. Rows left behind by instances
+ * that are gone are deleted once they are a day old.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+  private static final Duration STALE_AFTER = Duration.ofDays(1);
+
+  private final DealReplicaRouter router;
+  private final String nodeId;
+  private final JdbcTemplate primary;
+  private final List<JdbcTemplate> replicas = new ArrayList<>();
+  private final boolean[] reachable;
+
+  public ReplicaLagMonitor(DealReplicaRouter router, String nodeId, DataSource primary,
+                           List<? extends DataSource> replicas) {
+    this.router = router;
+    this.nodeId = nodeId;
+    this.primary = new JdbcTemplate(primary);
+    replicas.forEach(replica -> this.replicas.add(new JdbcTemplate(replica)));
+    this.reachable = new boolean[replicas.size()];
+    Arrays.fill(reachable, true);
+  }
+
+  @Scheduled(fixedDelayString = "${deal.replicas.lag-check-interval}")
+  public void check() {
+    try {
+      long beat = router.nextBeat();
+      primary.update("INSERT INTO deal_replica_heartbeat (node_id, beat_millis) VALUES (?, ?)"
+              + " ON DUPLICATE KEY UPDATE beat_millis = VALUES(beat_millis)", nodeId, beat);
+      primary.update("DELETE FROM deal_replica_heartbeat WHERE node_id <> ? AND beat_millis < ?", nodeId,
+              beat - STALE_AFTER.toMillis());
+    } catch (RuntimeException e) {
+      log.warn("Could not stamp the replica heartbeat on the primary", e);
+    }
+    for (int replica = 0; replica < replicas.size(); replica++) {
+      try {
+        // No row yet until the replica has applied the first stamp of this instance
+        List<Long> beat = replicas.get(replica).queryForList(
+                "SELECT beat_millis FROM deal_replica_heartbeat WHERE node_id = ?", Long.class, nodeId);
+        router.caughtUp(replica, beat.isEmpty() ? 0 : beat.get(0));
+        if (!reachable[replica]) {
+          log.info("Replica {} can be read again", replica);
+          reachable[replica] = true;
+        }
+      } catch (RuntimeException e) {
+        router.caughtUp(replica, 0);
+        if (reachable[replica]) {
+          log.warn("Replica {} cannot be read, its reads go to the other replicas or the primary", replica, e);
+          reachable[replica] = false;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package com.demo.config;
+
+import com.demo.repository.DealReplicaRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Hands out connections of the primary, except within read-only transactions, which get the replica chosen by
+ * {@link DealReplicaRouter#selectForRead} (or the primary when no replica has caught up far enough). Used behind a
+ * lazy connection proxy, so the choice is made at the first statement of a transaction, once it has started.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+  private final DealReplicaRouter router;
+  private final List<HikariDataSource> replicas;
+
+  public ReplicaRoutingDataSource(DealReplicaRouter router, HikariDataSource primary, List<HikariDataSource> replicas) {
+    this.router = router;
+    this.replicas = List.copyOf(replicas);
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(DealReplicaRouter.PRIMARY, primary);
+    for (int replica = 0; replica < replicas.size(); replica++) {
+      targets.put(replica, replicas.get(replica));
+    }
+    setTargetDataSources(targets);
+    setLenientFallback(false);
+    afterPropertiesSet();
+  }
+
+  public List<HikariDataSource> replicas() {
+    return replicas;
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            ? router.selectForRead()
+            : DealReplicaRouter.PRIMARY;
+  }
+
+  @Override
+  public void close() {
+    replicas.forEach(HikariDataSource::close);
+  }
+}
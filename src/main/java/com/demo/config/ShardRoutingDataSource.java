@@ -0,0 +1,46 @@
+package com.demo.config;
+
+import com.demo.repository.DealShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Hands out connections of the shard selected through {@link DealShardRouter#inShard} on the calling thread. Used
+ * behind a lazy connection proxy, so a transaction is bound to a shard by its first statement, not by its start.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+  private final List<HikariDataSource> shards;
+
+  public ShardRoutingDataSource(List<HikariDataSource> shards) {
+    this.shards = List.copyOf(shards);
+    Map<Object, Object> targets = new HashMap<>();
+    for (int shard = 0; shard < shards.size(); shard++) {
+      targets.put(shard, shards.get(shard));
+    }
+    setTargetDataSources(targets);
+    setLenientFallback(false);
+    afterPropertiesSet();
+  }
+
+  public List<? extends DataSource> shards() {
+    return shards;
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return DealShardRouter.currentShard();
+  }
+
+  @Override
+  public void close() {
+    shards.forEach(HikariDataSource::close);
+  }
+}
@@ -0,0 +1,141 @@
+package com.demo.config;
+
+
+import com.demo.repository.DealDedupMode;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharded persistence: one Hikari pool per shard, configured by {@code spring.datasource.hikari.*}, behind a
+ * {@link ShardRoutingDataSource} exposed as the application data source, and Flyway migrations applied to every shard.
+ * <p>
+ * Deal ids stay unique across shards by striding: shard k hands out ids k+1, k+1+stride, k+1+2*stride, ... On MySQL
+ * this is done per connection with {@code auto_increment_increment}/{@code auto_increment_offset}, on H2 by restarting
+ * the identity of {@code deal} after migrating. Sharding covers the JDBC write and read paths with uniqueness enforced
+ * by the unique index, so it is refused together with the reactive profile and with {@code deal.dedup.mode=table}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "deal.sharding.enabled", havingValue = "true")
+public class ShardingConfig implements DisposableBean {
+
+  private final ShardRoutingDataSource routingDataSource;
+  private final List<String> urls;
+  private final int idStride;
+
+  public ShardingConfig(Environment environment,
+                        ObjectProvider<MeterRegistry> meterRegistry,
+                        @Value("${spring.datasource.url}") String url,
+                        @Value("${spring.datasource.driver-class-name:}") String driverClassName,
+                        @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+                        @Value("${deal.sharding.urls}") List<String> shardUrls,
+                        @Value("${deal.sharding.username}") String username,
+                        @Value("${deal.sharding.password}") String password,
+                        @Value("${deal.sharding.id-stride}") int idStride,
+                        @Value("${deal.dedup.mode}") DealDedupMode dedupMode) {
+    if (environment.acceptsProfiles(Profiles.of("reactive"))) {
+      throw new IllegalStateException("deal.sharding.enabled is not supported with the reactive profile");
+    }
+    if (dedupMode != DealDedupMode.INDEX) {
+      throw new IllegalStateException("deal.sharding.enabled requires deal.dedup.mode=index");
+    }
+    this.urls = new ArrayList<>();
+    this.urls.add(url);
+    this.urls.addAll(shardUrls);
+    if (urls.size() > idStride) {
+      throw new IllegalStateException(urls.size() + " shards need deal.sharding.id-stride >= " + urls.size());
+    }
+    this.idStride = idStride;
+
+    List<HikariDataSource> shards = new ArrayList<>(urls.size());
+    for (int shard = 0; shard < urls.size(); shard++) {
+      HikariDataSource dataSource = new HikariDataSource();
+      // Same pool settings as the spring.datasource pool it replaces
+      Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+      dataSource.setPoolName("deal-shard-" + shard);
+      dataSource.setJdbcUrl(urls.get(shard));
+      dataSource.setUsername(username);
+      dataSource.setPassword(password);
+      if (!driverClassName.isBlank()) {
+        dataSource.setDriverClassName(driverClassName);
+      }
+      dataSource.setMaximumPoolSize(maximumPoolSize);
+      if (isMySql(urls.get(shard))) {
+        dataSource.setConnectionInitSql("SET SESSION auto_increment_increment = " + idStride
+                + ", auto_increment_offset = " + (shard + 1));
+      }
+      meterRegistry.ifAvailable(registry -> dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+      shards.add(dataSource);
+    }
+    this.routingDataSource = new ShardRoutingDataSource(shards);
+    log.info("Deal sharding over {} databases", urls.size());
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource() {
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+
+  // The open-in-view session of a request would otherwise hold on to the connection, and so the shard, of its first
+  // transaction for every later one
+  @Bean
+  public HibernatePropertiesCustomizer shardConnectionHandlingCustomizer() {
+    return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+  }
+
+  @Bean
+  public FlywayMigrationStrategy shardMigrationStrategy() {
+    return flyway -> {
+      List<? extends DataSource> shards = routingDataSource.shards();
+      for (int shard = 0; shard < shards.size(); shard++) {
+        Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shards.get(shard)).load().migrate();
+        if (urls.get(shard).startsWith("jdbc:h2:")) {
+          strideIds(new JdbcTemplate(shards.get(shard)), shard);
+        } else if (!isMySql(urls.get(shard))) {
+          log.warn("Deal ids of shard {} are not strided, ids may repeat across shards", shard);
+        }
+      }
+    };
+  }
+
+  private void strideIds(JdbcTemplate jdbcTemplate, int shard) {
+    long next = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM deal", Long.class);
+    next += Math.floorMod(shard + 1 - next, idStride);
+    jdbcTemplate.execute("ALTER TABLE deal ALTER COLUMN id RESTART WITH " + next + " SET INCREMENT BY " + idStride);
+  }
+
+  private static boolean isMySql(String url) {
+    return url.startsWith("jdbc:mysql:");
+  }
+
+  @Override
+  public void destroy() {
+    routingDataSource.close();
+  }
+}
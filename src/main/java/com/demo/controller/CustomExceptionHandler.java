@@ -1,12 +1,15 @@
 package com.demo.controller;
 
+import com.demo.service.impl.DealMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -16,21 +19,38 @@ import java.util.Map;
 @RestControllerAdvice
 public class CustomExceptionHandler {
 
+    private final DealMetrics dealMetrics;
+
+    public CustomExceptionHandler(DealMetrics dealMetrics) {
+        this.dealMetrics = dealMetrics;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex) {
+        return validationErrorResponse(ex.getBindingResult());
+    }
+
+    // WebFlux reports @Valid failures with its own exception type; answer them with the same body
+    @ExceptionHandler(WebExchangeBindException.class)
+    protected ResponseEntity<Object> handleWebExchangeBind(WebExchangeBindException ex) {
+        return validationErrorResponse(ex.getBindingResult());
+    }
+
+    private ResponseEntity<Object> validationErrorResponse(BindingResult bindingResult) {
         Map<String, Object> response = new HashMap<>();
         response.put("status", HttpStatus.BAD_REQUEST.value());
         response.put("error", HttpStatus.BAD_REQUEST.getReasonPhrase());
 
         // Create a map to store field errors
         Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach(error -> {
+        bindingResult.getAllErrors().forEach(error -> {
             String fieldName = ((FieldError) error).getField();
             String errorMessage = error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
-            log.info("Field error: {} " + errors);
+            dealMetrics.recordValidationFailure(fieldName);
             response.put("message", "Validation error. " + errorMessage);
         });
+        log.info("Field errors: {}", errors);
 
         response.put("data", null);
 
@@ -0,0 +1,70 @@
+package com.demo.controller;
+
+
+import com.demo.dto.DealAggregateResponse;
+import com.demo.service.DealAggregationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/v1/dealers/aggregates")
+public class DealAggregateController {
+
+    private final DealAggregationService dealAggregationService;
+
+    public DealAggregateController(DealAggregationService dealAggregationService) {
+        this.dealAggregationService = dealAggregationService;
+    }
+
+    @Operation(
+            summary = "Live fx deal aggregates",
+            description = "Deal count and notional per currency pair over the trailing window, by deal timestamp. Served from "
+                    + "the memory of the instance that answers: it counts the deals of the last day when it started "
+                    + "and, from then on, only the deals it saved itself."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "200",
+                    description = "OK"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "400",
+                    description = "Bad Request, unknown window or incomplete currency pair"
+            ),
+    })
+    @GetMapping
+    public ResponseEntity<DealAggregateResponse> getAggregates(
+            @RequestParam(required = false) String fromCurrency,
+            @RequestParam(required = false) String toCurrency,
+            @Parameter(description = "Trailing window: 1m, 5m, 1h or 1d")
+            @RequestParam(defaultValue = "1m") String window) {
+
+        try {
+            return ResponseEntity.ok(dealAggregationService.getAggregates(fromCurrency, toCurrency, window));
+        } catch (ResponseStatusException e) {
+            log.error("Exception ex: {}", e.getMessage());
+            HttpStatus status = HttpStatus.valueOf(e.getStatusCode().value());
+            DealAggregateResponse errorResponseDTO = new DealAggregateResponse(
+                    status.value(),
+                    e.getReason(),
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(status).body(errorResponseDTO);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.demo.controller;
+
+
+import com.demo.dto.DealAcceptedResponse;
+import com.demo.dto.DealRequest;
+import com.demo.service.DealAsyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+
+
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/v1/dealers/deals/async")
+@Validated
+@ConditionalOnProperty(name = "deal.journal.enabled", havingValue = "true")
+public class DealAsyncController {
+
+    private final DealAsyncService dealAsyncService;
+
+    public DealAsyncController(DealAsyncService dealAsyncService) {
+        this.dealAsyncService = dealAsyncService;
+    }
+
+    @Operation(
+            summary = "Accept fx deal asynchronously",
+            description = "Validate the deal, append it to the durable local journal and acknowledge it with a tracking id. The deal is written to the DB in the background."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "202",
+                    description = "Accepted"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "400",
+                    description = "Bad Request, invalid format of the request. See response message for more information"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "503",
+                    description = "Service Unavailable, the journal queue is full"
+            ),
+    })
+    @PostMapping
+    public CompletableFuture<ResponseEntity<DealAcceptedResponse>> acceptDeal(@Valid @RequestBody DealRequest dealRequest) {
+        try {
+            return dealAsyncService.acceptDeal(dealRequest)
+                    .thenApply(response -> ResponseEntity.status(HttpStatus.ACCEPTED).body(response))
+                    .exceptionally(e -> {
+                        log.error("Deal journal append failed for {}", dealRequest.getUniqueId(), e);
+                        return error(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while accepting the deal.Kindly contact the administrator ");
+                    });
+        } catch (ResponseStatusException e) {
+            return CompletableFuture.completedFuture(error(HttpStatus.valueOf(e.getStatusCode().value()), e.getReason()));
+        }
+    }
+
+    @Operation(
+            summary = "Get the status of an asynchronously accepted deal",
+            description = "Tell whether the deal behind a tracking id is still pending in the journal or has been processed."
+    )
+    @GetMapping("/{trackingId}")
+    public ResponseEntity<DealAcceptedResponse> getStatus(@PathVariable long trackingId) {
+        try {
+            return ResponseEntity.ok(dealAsyncService.getStatus(trackingId));
+        } catch (ResponseStatusException e) {
+            return error(HttpStatus.valueOf(e.getStatusCode().value()), e.getReason());
+        }
+    }
+
+    private static ResponseEntity<DealAcceptedResponse> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(new DealAcceptedResponse(status.value(), status.getReasonPhrase(), message, null));
+    }
+}
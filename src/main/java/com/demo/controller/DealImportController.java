@@ -0,0 +1,116 @@
+package com.demo.controller;
+
+
+import com.demo.dto.DealFileFormat;
+import com.demo.dto.DealImportResponse;
+import com.demo.service.DealImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.function.Supplier;
+
+
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/v1/dealers/deals/import")
+public class DealImportController {
+
+    private final DealImportService dealImportService;
+
+    public DealImportController(DealImportService dealImportService) {
+        this.dealImportService = dealImportService;
+    }
+
+    @Operation(
+            summary = "Import an uploaded deal file",
+            description = "Stream a CSV or NDJSON deal file into the DB in transactional chunks. Uploading the same file again after a failure resumes from the last committed chunk."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "200",
+                    description = "OK, see the import summary"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "400",
+                    description = "Bad Request, unknown file format"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "409",
+                    description = "Conflict, the same file is already being imported"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "500",
+                    description = "Internal Server Error"
+            ),
+    })
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<DealImportResponse> importUpload(@RequestPart("file") MultipartFile file,
+                                                           @RequestParam(required = false) DealFileFormat format) {
+        log.info("Deal import upload: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        return handle(() -> dealImportService.importUpload(file, format));
+    }
+
+    @Operation(
+            summary = "Import a deal file from the import directory",
+            description = "Stream a CSV or NDJSON deal file already present under deal.import.base-dir, resuming from its last checkpoint."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "200",
+                    description = "OK, see the import summary"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "400",
+                    description = "Bad Request, file not found or unknown file format"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "409",
+                    description = "Conflict, the same file is already being imported"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "500",
+                    description = "Internal Server Error"
+            ),
+    })
+    @PostMapping("/path")
+    public ResponseEntity<DealImportResponse> importPath(@RequestParam String path,
+                                                         @RequestParam(required = false) DealFileFormat format) {
+        log.info("Deal import of local file: {}", path);
+        return handle(() -> dealImportService.importFile(path, format));
+    }
+
+    private ResponseEntity<DealImportResponse> handle(Supplier<DealImportResponse> importer) {
+        try {
+            return ResponseEntity.ok(importer.get());
+        } catch (ResponseStatusException e) {
+            log.error("Exception ex: {}", e.getMessage());
+            HttpStatus status = HttpStatus.valueOf(e.getStatusCode().value());
+            DealImportResponse errorResponseDTO = new DealImportResponse(
+                    status.value(),
+                    e.getReason(),
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(status).body(errorResponseDTO);
+        }
+    }
+}
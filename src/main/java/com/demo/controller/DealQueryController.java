@@ -0,0 +1,201 @@
+package com.demo.controller;
+
+
+import com.demo.dto.DealFileFormat;
+import com.demo.dto.DealPageResponse;
+import com.demo.dto.DealResponse;
+import com.demo.service.DealExportService;
+import com.demo.service.DealQueryService;
+import com.demo.util.DealCursor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/v1/dealers/deals")
+public class DealQueryController {
+
+    private final DealQueryService dealQueryService;
+    private final DealExportService dealExportService;
+
+    public DealQueryController(DealQueryService dealQueryService, DealExportService dealExportService) {
+        this.dealQueryService = dealQueryService;
+        this.dealExportService = dealExportService;
+    }
+
+    @Operation(
+            summary = "List fx deals",
+            description = "Page through deals in deal timestamp order, optionally for one currency pair and a [from, to) timestamp range. Pass the nextCursor of a page as cursor to get the next one."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "200",
+                    description = "OK"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "400",
+                    description = "Bad Request, invalid filter, limit or cursor"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "500",
+                    description = "Internal Server Error"
+            ),
+    })
+    @GetMapping
+    public ResponseEntity<DealPageResponse> listDeals(
+            @RequestParam(required = false) String fromCurrency,
+            @RequestParam(required = false) String toCurrency,
+            @Parameter(description = "Inclusive lower bound of the deal timestamp")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Exclusive upper bound of the deal timestamp")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        try {
+            return ResponseEntity.ok(dealQueryService.findDeals(fromCurrency, toCurrency, from, to, cursor, limit));
+        } catch (ResponseStatusException e) {
+            log.error("Exception ex: {}", e.getMessage());
+            HttpStatus status = HttpStatus.valueOf(e.getStatusCode().value());
+            DealPageResponse errorResponseDTO = new DealPageResponse(
+                    status.value(),
+                    e.getReason(),
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(status).body(errorResponseDTO);
+        }
+    }
+
+    @Operation(
+            summary = "Get fx deal",
+            description = "Return the deal with the given unique ID. Recently submitted deals are served from an in-memory cache."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "200",
+                    description = "OK"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "404",
+                    description = "Not Found"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "500",
+                    description = "Internal Server Error"
+            ),
+    })
+    @GetMapping("/{uniqueId}")
+    public ResponseEntity<DealResponse> getDeal(@PathVariable String uniqueId) {
+
+        try {
+            return ResponseEntity.ok(dealQueryService.findDeal(uniqueId));
+        } catch (ResponseStatusException e) {
+            log.error("Exception ex: {}", e.getMessage());
+            HttpStatus status = HttpStatus.valueOf(e.getStatusCode().value());
+            DealResponse errorResponseDTO = new DealResponse(
+                    status.value(),
+                    e.getReason(),
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(status).body(errorResponseDTO);
+        }
+    }
+
+    @Operation(
+            summary = "Export fx deals",
+            description = "Stream every deal of a [from, to) timestamp window as NDJSON or CSV, in deal timestamp order. The body is gzip-compressed when the client accepts it. After a broken transfer, pass the id of the last deal received as afterId to continue from there."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")},
+                    responseCode = "200",
+                    description = "OK"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "400",
+                    description = "Bad Request, invalid window or unknown afterId"
+            ),
+            @ApiResponse(
+                    content = {@Content(mediaType = "application/json")},
+                    responseCode = "500",
+                    description = "Internal Server Error"
+            ),
+    })
+    @GetMapping("/export")
+    public void exportDeals(
+            @Parameter(description = "Inclusive lower bound of the deal timestamp")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Exclusive upper bound of the deal timestamp")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "NDJSON") DealFileFormat format,
+            @Parameter(description = "Id of the last deal already received, to resume a broken transfer")
+            @RequestParam(required = false) Long afterId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+
+        // An invalid window or afterId is answered by exportError before anything is written
+        DealCursor start = dealExportService.startPosition(from, to, afterId);
+
+        // Rows are written straight to the response; without a content length it goes out with chunked encoding
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        response.setContentType(format == DealFileFormat.CSV ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"deals." + format.name().toLowerCase() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        OutputStream body = gzip ? new GZIPOutputStream(response.getOutputStream(), 64 * 1024) : response.getOutputStream();
+        dealExportService.export(format, start, to, body);
+        if (gzip) {
+            ((GZIPOutputStream) body).finish();
+        }
+    }
+
+    // The export writes its rows to the response itself, so its errors are answered here. Once rows went out, an error
+    // body would be taken for more of them: the exception is rethrown so that the container aborts the transfer, and the
+    // client sees it broken rather than complete
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<DealPageResponse> exportError(ResponseStatusException e, HttpServletResponse response) {
+        log.error("Exception ex: {}", e.getMessage());
+        if (response.isCommitted()) {
+            throw e;
+        }
+        HttpStatus status = HttpStatus.valueOf(e.getStatusCode().value());
+        DealPageResponse errorResponseDTO = new DealPageResponse(
+                status.value(),
+                e.getReason(),
+                e.getMessage(),
+                null
+        );
+        return ResponseEntity.status(status).body(errorResponseDTO);
+    }
+}
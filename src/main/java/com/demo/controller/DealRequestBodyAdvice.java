@@ -0,0 +1,57 @@
+package com.demo.controller;
+
+import com.demo.service.impl.DealMetrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+
+/**
+ * Times the deserialization of deal request bodies into the {@code deserialize} stage of {@link DealMetrics}.
+ * Bodies that fail to parse are not timed.
+ */
+@ControllerAdvice(assignableTypes = {DealController.class, DealAsyncController.class})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class DealRequestBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private static final String SAMPLE_ATTRIBUTE = DealRequestBodyAdvice.class.getName() + ".sample";
+
+    private final DealMetrics dealMetrics;
+
+    public DealRequestBodyAdvice(DealMetrics dealMetrics) {
+        this.dealMetrics = dealMetrics;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(SAMPLE_ATTRIBUTE, dealMetrics.startStage(), RequestAttributes.SCOPE_REQUEST);
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        if (attributes.getAttribute(SAMPLE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Timer.Sample sample) {
+            dealMetrics.stopStage(sample, DealMetrics.Stage.DESERIALIZE);
+            attributes.removeAttribute(SAMPLE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,59 @@
+package com.demo.controller;
+
+import com.demo.service.impl.DealIngestionFence;
+import com.demo.service.impl.DealShardRebalancer;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+
+/**
+ * {@code /actuator/shards}: GET reports the deals held by each shard and whether ingestion is paused. POST with
+ * {@code {"action": "pause"}} or {@code "resume"} pauses or resumes ingestion on every instance (see
+ * {@link DealIngestionFence}); without an action it moves misplaced deals to their shard (see
+ * {@link DealShardRebalancer}) and reports how many left each shard, or answers 409 while ingestion is not paused.
+ */
+@Component
+@Endpoint(id = "shards")
+@ConditionalOnProperty(name = "deal.sharding.enabled", havingValue = "true")
+public class DealShardsEndpoint {
+
+    private final DealShardRebalancer dealShardRebalancer;
+    private final DealIngestionFence dealIngestionFence;
+
+    public DealShardsEndpoint(DealShardRebalancer dealShardRebalancer, DealIngestionFence dealIngestionFence) {
+        this.dealShardRebalancer = dealShardRebalancer;
+        this.dealIngestionFence = dealIngestionFence;
+    }
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        String ingestion = dealIngestionFence.isFenced() ? "paused" : dealIngestionFence.isPaused() ? "pausing" : "open";
+        return Map.of("deals", dealShardRebalancer.dealCounts(), "ingestion", ingestion);
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> rebalance(@Nullable String action) {
+        if ("pause".equals(action)) {
+            return new WebEndpointResponse<>(Map.of("pausedInMillis", dealIngestionFence.pause()));
+        }
+        if ("resume".equals(action)) {
+            dealIngestionFence.resume();
+            return new WebEndpointResponse<>(Map.of("ingestion", "open"));
+        }
+        if (action != null) {
+            return new WebEndpointResponse<>(Map.of("error", "Unknown action: " + action), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        try {
+            return new WebEndpointResponse<>(Map.of("moved", dealShardRebalancer.rebalance()));
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(Map.of("error", e.getMessage()), 409);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.demo.dto;
+
+import java.time.Duration;
+
+public enum AggregationWindow {
+
+    ONE_MINUTE("1m", Duration.ofMinutes(1)),
+    FIVE_MINUTES("5m", Duration.ofMinutes(5)),
+    ONE_HOUR("1h", Duration.ofHours(1)),
+    ONE_DAY("1d", Duration.ofDays(1));
+
+    private final String label;
+    private final Duration length;
+
+    AggregationWindow(String label, Duration length) {
+        this.label = label;
+        this.length = length;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    /**
+     * Finds a window by its label ({@code 1m}, {@code 5m}, {@code 1h}, {@code 1d}), or returns {@code null}.
+     */
+    public static AggregationWindow fromLabel(String label) {
+        for (AggregationWindow window : values()) {
+            if (window.label.equals(label)) {
+                return window;
+            }
+        }
+        return null;
+    }
+}
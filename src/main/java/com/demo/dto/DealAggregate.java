@@ -0,0 +1,20 @@
+package com.demo.dto;
+
+
+import com.demo.entity.CurrencyCode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class DealAggregate {
+
+    private CurrencyCode fromCurrencyIsoCode;
+    private CurrencyCode toCurrencyIsoCode;
+    private String window;
+    private long count;
+    private BigDecimal notional;
+
+}
@@ -0,0 +1,18 @@
+package com.demo.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class DealAggregateResponse {
+
+    private int status;
+    private String error;
+    private String message;
+    private List<DealAggregate> data;
+
+}
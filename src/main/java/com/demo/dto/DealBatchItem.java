@@ -0,0 +1,17 @@
+package com.demo.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DealBatchItem {
+
+    private int index;
+    private String uniqueId;
+    private DealBatchItemStatus status;
+    private String message;
+}
@@ -0,0 +1,10 @@
+package com.demo.dto;
+
+public enum DealBatchItemStatus {
+
+    ACCEPTED,
+    DUPLICATE,
+    INVALID,
+    // Not saved because writing its chunk failed; it can be sent again
+    FAILED
+}
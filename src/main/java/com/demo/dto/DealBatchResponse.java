@@ -0,0 +1,18 @@
+package com.demo.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class DealBatchResponse {
+
+    private int status;
+    private String error;
+    private String message;
+    private List<DealBatchItem> data;
+
+}
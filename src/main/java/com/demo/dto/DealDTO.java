@@ -1,10 +1,12 @@
 package com.demo.dto;
 
 
+import com.demo.entity.CurrencyCode;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -14,8 +16,8 @@ public class DealDTO {
 
     private Long id;
     private String uniqueId;
-    private String fromCurrencyIsoCode;
-    private String toCurrencyIsoCode;
+    private CurrencyCode fromCurrencyIsoCode;
+    private CurrencyCode toCurrencyIsoCode;
     private LocalDateTime dealTimestamp;
-    private Double dealAmount;
+    private BigDecimal dealAmount;
 }
@@ -0,0 +1,23 @@
+package com.demo.dto;
+
+import java.util.Locale;
+
+public enum DealFileFormat {
+
+    CSV,
+    NDJSON;
+
+    /**
+     * Guesses the format from the file extension, or returns {@code null} when it is not recognised.
+     */
+    public static DealFileFormat fromFileName(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")) {
+            return NDJSON;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.demo.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DealImportResponse {
+
+    private int status;
+    private String error;
+    private String message;
+    private DealImportSummary data;
+
+}
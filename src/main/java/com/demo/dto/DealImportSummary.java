@@ -0,0 +1,19 @@
+package com.demo.dto;
+
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class DealImportSummary {
+
+    private String file;
+    private DealFileFormat format;
+    private long startOffset;
+    private long endOffset;
+    private long rowsRead;
+    private long accepted;
+    private long duplicates;
+    private long invalid;
+}
@@ -0,0 +1,22 @@
+package com.demo.dto;
+
+import com.demo.entity.CurrencyCode;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+
+/**
+ * A persisted deal as published by the outbox relay. {@code id} is the outbox sequence number, increasing in commit
+ * order as far as concurrent transactions allow; {@code dealId} is null for deals written through a JDBC batch.
+ * {@code createdAt} is the UTC time the deal was written.
+ */
+public record DealOutboxEvent(long id,
+                              Long dealId,
+                              String uniqueId,
+                              CurrencyCode fromCurrencyIsoCode,
+                              CurrencyCode toCurrencyIsoCode,
+                              LocalDateTime dealTimestamp,
+                              BigDecimal dealAmount,
+                              LocalDateTime createdAt) {
+}
@@ -0,0 +1,17 @@
+package com.demo.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class DealPage {
+
+    private List<DealDTO> deals;
+    // Pass back as the cursor parameter to get the next page; null on the last page
+    private String nextCursor;
+
+}
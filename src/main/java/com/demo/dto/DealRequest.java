@@ -1,28 +1,33 @@
 package com.demo.dto;
 
+import com.demo.entity.CurrencyCode;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
+
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 public class DealRequest {
 
     @NotBlank(message = "Deal Unique Id cannot be blank")
+    @Size(max = 255, message = "Deal Unique Id must have at most 255 characters")
     private String uniqueId;
 
-    @NotBlank(message = "From Currency ISO Code cannot be blank")
-    @Pattern(regexp = "[A-Z]{3}", message = "From Currency ISO Code must be a 3-letter uppercase ISO code")
-    private String fromCurrencyIsoCode;
+    // unknown codes are read as null, see CurrencyCode.fromCode
+    @NotNull(message = "From Currency ISO Code must be a valid ISO 4217 code")
+    private CurrencyCode fromCurrencyIsoCode;
 
-    @NotBlank(message = "To Currency ISO Code cannot be blank")
-    @Pattern(regexp = "[A-Z]{3}", message = "To Currency ISO Code must be a 3-letter uppercase ISO code")
-    private String toCurrencyIsoCode;
+    @NotNull(message = "To Currency ISO Code must be a valid ISO 4217 code")
+    private CurrencyCode toCurrencyIsoCode;
 
     @NotNull(message = "Deal Timestamp cannot be null")
     private LocalDateTime dealTimestamp;
 
     @NotNull(message = "Deal Amount cannot be null")
-    private Double dealAmount;
+    @Digits(integer = 15, fraction = 4, message = "Deal Amount must have at most 15 integer and 4 fraction digits")
+    private BigDecimal dealAmount;
 }
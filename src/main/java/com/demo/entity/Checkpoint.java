@@ -0,0 +1,31 @@
+package com.demo.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * Last committed position of a resumable reader, e.g. the byte offset reached by a file import.
+ * It is written in the same transaction as the rows it covers.
+ */
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "deal_checkpoint")
+@AllArgsConstructor
+@NoArgsConstructor
+public class Checkpoint {
+
+    @Id
+    private String name;
+
+    private long position;
+
+    private LocalDateTime updatedAt;
+
+}
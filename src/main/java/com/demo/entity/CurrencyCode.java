@@ -0,0 +1,41 @@
+package com.demo.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * ISO 4217 currency codes (list one, funds and precious-metal codes included). A deal refers to one of these shared
+ * constants instead of holding its own strings, and {@link #ordinal()} is a compact numeric code for the currency.
+ */
+public enum CurrencyCode {
+
+    AED, AFN, ALL, AMD, ANG, AOA, ARS, AUD, AWG, AZN, BAM, BBD, BDT, BGN, BHD, BIF, BMD, BND, BOB, BOV, BRL, BSD,
+    BTN, BWP, BYN, BZD, CAD, CDF, CHE, CHF, CHW, CLF, CLP, CNY, COP, COU, CRC, CUP, CVE, CZK, DJF, DKK, DOP, DZD,
+    EGP, ERN, ETB, EUR, FJD, FKP, GBP, GEL, GHS, GIP, GMD, GNF, GTQ, GYD, HKD, HNL, HTG, HUF, IDR, ILS, INR, IQD,
+    IRR, ISK, JMD, JOD, JPY, KES, KGS, KHR, KMF, KPW, KRW, KWD, KYD, KZT, LAK, LBP, LKR, LRD, LSL, LYD, MAD, MDL,
+    MGA, MKD, MMK, MNT, MOP, MRU, MUR, MVR, MWK, MXN, MXV, MYR, MZN, NAD, NGN, NIO, NOK, NPR, NZD, OMR, PAB, PEN,
+    PGK, PHP, PKR, PLN, PYG, QAR, RON, RSD, RUB, RWF, SAR, SBD, SCR, SDG, SEK, SGD, SHP, SLE, SOS, SRD, SSP, STN,
+    SVC, SYP, SZL, THB, TJS, TMT, TND, TOP, TRY, TTD, TWD, TZS, UAH, UGX, USD, USN, UYI, UYU, UYW, UZS, VED, VES,
+    VND, VUV, WST, XAF, XAG, XAU, XBA, XBB, XBC, XBD, XCD, XCG, XDR, XOF, XPD, XPF, XPT, XSU, XUA, YER, ZAR, ZMW,
+    ZWG;
+
+    private static final Map<String, CurrencyCode> BY_CODE = new HashMap<>();
+
+    static {
+        for (CurrencyCode code : values()) {
+            BY_CODE.put(code.name(), code);
+        }
+    }
+
+    /**
+     * Looks a code up, as Jackson does when reading a request. Returns {@code null} for an unknown code, so that bean
+     * validation reports it against the field like any other invalid value.
+     */
+    @JsonCreator
+    public static CurrencyCode fromCode(String code) {
+        return code == null ? null : BY_CODE.get(code);
+    }
+}
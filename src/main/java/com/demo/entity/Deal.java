@@ -1,11 +1,13 @@
 package com.demo.entity;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 
@@ -13,29 +15,41 @@ import java.time.LocalDateTime;
 @Setter
 @ToString
 @Entity
+@Table(name = "deal", indexes = {
+        @Index(name = "ux_deal_unique_id", columnList = "uniqueId", unique = true),
+        @Index(name = "ix_deal_timestamp_id", columnList = "dealTimestamp, id"),
+        @Index(name = "ix_deal_pair_timestamp_id", columnList = "fromCurrencyIsoCode, toCurrencyIsoCode, dealTimestamp, id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 public class Deal {
 
+    // Taken from blocks reserved in deal_id_block, not generated by the insert
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AllocatedDealId
     private Long id;
 
     @NotBlank(message = "Deal Unique Id cannot be blank")
+    @Size(max = 255, message = "Deal Unique Id must have at most 255 characters")
+    @Column(length = 255)
     private String uniqueId;
 
-    @NotBlank(message = "From Currency ISO Code cannot be blank")
-    @Pattern(regexp = "[A-Z]{3}", message = "From Currency ISO Code must be a 3-letter uppercase ISO code")
-    private String fromCurrencyIsoCode;
+    @NotNull(message = "From Currency ISO Code must be a valid ISO 4217 code")
+    @Enumerated(EnumType.STRING)
+    @Column(columnDefinition = "CHAR(3)")
+    private CurrencyCode fromCurrencyIsoCode;
 
-    @NotBlank(message = "To Currency ISO Code cannot be blank")
-    @Pattern(regexp = "[A-Z]{3}", message = "To Currency ISO Code must be a 3-letter uppercase ISO code")
-    private String toCurrencyIsoCode;
+    @NotNull(message = "To Currency ISO Code must be a valid ISO 4217 code")
+    @Enumerated(EnumType.STRING)
+    @Column(columnDefinition = "CHAR(3)")
+    private CurrencyCode toCurrencyIsoCode;
 
     @NotNull(message = "Deal Timestamp cannot be null")
     private LocalDateTime dealTimestamp;
 
     @NotNull(message = "Deal Amount cannot be null")
-    private Double dealAmount;
+    @Digits(integer = 15, fraction = 4, message = "Deal Amount must have at most 15 integer and 4 fraction digits")
+    @Column(precision = 19, scale = 4)
+    private BigDecimal dealAmount;
 
 }
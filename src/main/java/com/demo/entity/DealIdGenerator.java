@@ -0,0 +1,18 @@
+package com.demo.entity;
+
+import com.demo.repository.DealIdAllocator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+
+/**
+ * Gives a new {@link Deal} its id from the {@link DealIdAllocator} before it is inserted, so Hibernate can batch the
+ * inserts instead of reading each generated key back.
+ */
+public class DealIdGenerator implements IdentifierGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return DealIdAllocator.instance().nextId();
+    }
+}
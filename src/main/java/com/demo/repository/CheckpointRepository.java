@@ -0,0 +1,20 @@
+package com.demo.repository;
+
+import com.demo.entity.Checkpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+
+@Repository
+public interface CheckpointRepository extends JpaRepository<Checkpoint, String> {
+
+    /**
+     * Reads a checkpoint with {@code SELECT ... FOR UPDATE}, so that one transaction at a time advances it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Checkpoint> findWithLockByName(String name);
+}
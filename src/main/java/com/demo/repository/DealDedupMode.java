@@ -0,0 +1,20 @@
+package com.demo.repository;
+
+
+/**
+ * Where the uniqueness of {@code uniqueId} is enforced, set with {@code deal.dedup.mode}.
+ */
+public enum DealDedupMode {
+
+    /**
+     * The unique index {@code ux_deal_unique_id} on the {@code deal} table.
+     */
+    INDEX,
+
+    /**
+     * The primary key of the slim {@code deal_unique_id} table, in which every uniqueId is claimed before its deal is
+     * inserted. Needed once {@code deal} is partitioned, since a partitioned table cannot carry a unique index
+     * that leaves out the partitioning column.
+     */
+    TABLE
+}
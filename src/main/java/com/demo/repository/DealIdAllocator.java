@@ -0,0 +1,208 @@
+package com.demo.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Hands out deal ids from blocks of {@code deal.id.block-size} reserved in {@code deal_id_block}, so that inserts carry
+ * their id instead of reading a generated key back and can be batched.
+ * <p>
+ * Taking ids is one atomic add on the current block. Each shard has its own block, numbered with the shard's id
+ * stride and offset, so ids stay unique across shards. Ids increase within an instance; instances take turns in
+ * blocks, so ids of deals written at the same time by different instances are not in insertion order, which keyset
+ * pagination does not need. Ids of a block that an instance had not used up when it stopped are skipped.
+ * <p>
+ * Ids are mostly taken inside the transaction that inserts them, which already holds a connection, while reserving a
+ * block needs one of its own: if every connection were held by a thread waiting for a block, the reservation would
+ * wait for the connection timeout. So the first block of each shard is reserved at startup, and whenever a block is
+ * put in use the next one is reserved in the background, while the connections keep turning over. A thread only
+ * waits for a reservation when a whole block was used up before the next one arrived, which a block size well above
+ * the number of concurrent writers rules out.
+ */
+@Slf4j
+@Component
+public class DealIdAllocator {
+
+    private static volatile DealIdAllocator instance;
+
+    private final DealIdBlockRepository dealIdBlockRepository;
+    private final DealShardRouter dealShardRouter;
+    private final int blockSize;
+    private final int stride;
+    private final AtomicReferenceArray<Block> blocks;
+    private final AtomicReferenceArray<CompletableFuture<Block>> upcoming;
+    private final ReentrantLock[] reserving;
+    private final ExecutorService prefetcher;
+    private final Counter reserved;
+
+    public DealIdAllocator(DealIdBlockRepository dealIdBlockRepository,
+                           DealShardRouter dealShardRouter,
+                           MeterRegistry meterRegistry,
+                           @Value("${deal.id.block-size}") int blockSize,
+                           @Value("${deal.sharding.enabled}") boolean sharding,
+                           @Value("${deal.sharding.id-stride}") int idStride) {
+        if (blockSize < 1) {
+            throw new IllegalStateException("deal.id.block-size must be > 0");
+        }
+        this.dealIdBlockRepository = dealIdBlockRepository;
+        this.dealShardRouter = dealShardRouter;
+        this.blockSize = blockSize;
+        this.stride = sharding ? idStride : 1;
+        this.blocks = new AtomicReferenceArray<>(dealShardRouter.count());
+        this.upcoming = new AtomicReferenceArray<>(dealShardRouter.count());
+        this.reserving = new ReentrantLock[dealShardRouter.count()];
+        for (int shard = 0; shard < reserving.length; shard++) {
+            reserving[shard] = new ReentrantLock();
+        }
+        this.prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deal-id-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.reserved = Counter.builder("deal.id.blocks.reserved")
+                .description("Blocks of deal ids reserved in deal_id_block")
+                .register(meterRegistry);
+        instance = this;
+    }
+
+    /**
+     * For the Hibernate id generator, which is not created by Spring.
+     */
+    public static DealIdAllocator instance() {
+        DealIdAllocator allocator = instance;
+        if (allocator == null) {
+            throw new IllegalStateException("DealIdAllocator is not initialized");
+        }
+        return allocator;
+    }
+
+    /**
+     * @return a new id for a deal of the shard selected on the current thread
+     */
+    public long nextId() {
+        return nextIds(1)[0];
+    }
+
+    /**
+     * @return {@code count} new ids for deals of the shard selected on the current thread, in increasing order
+     */
+    public long[] nextIds(int count) {
+        int shard = DealShardRouter.currentShard();
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            Block block = blocks.get(shard);
+            if (block != null) {
+                int wanted = count - filled;
+                filled += (int) Math.max(0, Math.min(wanted, blockSize - block.take(ids, filled)));
+            }
+            if (filled < count) {
+                replace(shard, block);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Reserves the first block of every shard before requests come in. Runs once Flyway has created the table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reserveFirstBlocks() {
+        for (int shard = 0; shard < blocks.length(); shard++) {
+            replace(shard, null);
+        }
+    }
+
+    private void prefetch(int shard) {
+        if (upcoming.get(shard) == null) {
+            CompletableFuture<Block> next = new CompletableFuture<>();
+            if (upcoming.compareAndSet(shard, null, next)) {
+                prefetcher.execute(() -> {
+                    try {
+                        next.complete(reserve(shard));
+                    } catch (RuntimeException e) {
+                        next.completeExceptionally(e);
+                    }
+                });
+            }
+        }
+    }
+
+    // A lock rather than synchronized: waiting for the reservation inside a monitor would pin a virtual thread
+    private void replace(int shard, Block usedUp) {
+        ReentrantLock lock = reserving[shard];
+        lock.lock();
+        try {
+            if (blocks.get(shard) != usedUp) {
+                return;
+            }
+            CompletableFuture<Block> next = upcoming.getAndSet(shard, null);
+            Block block = null;
+            if (next != null) {
+                try {
+                    block = next.join();
+                } catch (CompletionException e) {
+                    log.warn("Reserving the next block of deal ids in the background failed, reserving it now", e.getCause());
+                }
+            }
+            blocks.set(shard, block != null ? block : reserve(shard));
+            prefetch(shard);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Block reserve(int shard) {
+        long first = dealShardRouter.inShard(shard, () -> dealIdBlockRepository.reserve(blockSize, stride, shard + 1));
+        reserved.increment();
+        return new Block(first, blockSize, stride);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        prefetcher.shutdownNow();
+    }
+
+    private static final class Block {
+
+        private final long first;
+        private final int size;
+        private final int stride;
+        private final AtomicLong taken = new AtomicLong();
+
+        Block(long first, int size, int stride) {
+            this.first = first;
+            this.size = size;
+            this.stride = stride;
+        }
+
+        /**
+         * Fills {@code ids} from {@code from} with as many ids as the block has left.
+         *
+         * @return the number of ids of the block taken before this call
+         */
+        long take(long[] ids, int from) {
+            int wanted = ids.length - from;
+            long start = taken.getAndAdd(wanted);
+            for (long i = start; i < size && i - start < wanted; i++) {
+                ids[from + (int) (i - start)] = first + i * stride;
+            }
+            return start;
+        }
+    }
+}
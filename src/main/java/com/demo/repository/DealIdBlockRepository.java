@@ -0,0 +1,40 @@
+package com.demo.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+/**
+ * The {@code deal_id_block} table: the next deal id not yet handed out to any instance.
+ */
+@Repository
+public class DealIdBlockRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+
+    public DealIdBlockRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reserves the ids {@code first, first + stride, ..., first + (count - 1) * stride}, where {@code first} is the
+     * next id equal to {@code offset} modulo {@code stride}. Runs and commits in a transaction of its own, on a
+     * connection of its own, so the block stays reserved whatever becomes of the caller's transaction.
+     *
+     * @return the first id of the block
+     */
+    public long reserve(int count, int stride, int offset) {
+        return newTransaction.execute(status -> {
+            long next = jdbcTemplate.queryForObject("SELECT next_id FROM deal_id_block WHERE name = 'deal' FOR UPDATE", Long.class);
+            long first = next + Math.floorMod(offset - next, stride);
+            jdbcTemplate.update("UPDATE deal_id_block SET next_id = ? WHERE name = 'deal'", first + (long) count * stride);
+            return first;
+        });
+    }
+}
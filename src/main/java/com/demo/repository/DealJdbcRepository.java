@@ -0,0 +1,273 @@
+package com.demo.repository;
+
+import com.demo.entity.Deal;
+import com.demo.util.ConsistentHashRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Plain JDBC access to the {@code deal} table for the write paths that Hibernate cannot batch.
+ * <p>
+ * Deals are inserted with an id taken from {@link DealIdAllocator}, so nothing is read back after an insert. A batch
+ * of deals reaches the server as one multi-row insert: built here in {@code INDEX} mode, where the affected-row count
+ * must be exact, and rewritten by the driver from {@link JdbcTemplate#batchUpdate} (with
+ * {@code rewriteBatchedStatements=true} on the MySQL URL) in {@code TABLE} mode, where the claims already tell which
+ * deals are new.
+ * <p>
+ * Duplicates are rejected atomically, without a read beforehand, by whatever {@link DealDedupMode} is configured:
+ * in {@code INDEX} mode deals are inserted with {@code ON DUPLICATE KEY UPDATE id = id} and the unique index on
+ * {@code unique_id} turns a duplicate into an affected-row count of zero; in {@code TABLE} mode the uniqueIds are
+ * first claimed the same way in {@code deal_unique_id}, and only the deals whose claim succeeded are inserted. Unlike
+ * {@code INSERT IGNORE}, this leaves every other error, such as a value too long for its column, failing the
+ * statement. The counts are exact only with {@code useAffectedRows=true} on MySQL (set in application.properties):
+ * Connector/J otherwise counts a row left unchanged by the update as affected.
+ */
+@Repository
+public class DealJdbcRepository {
+
+    private static final String COLUMN_NAMES =
+            "id, unique_id, from_currency_iso_code, to_currency_iso_code, deal_timestamp, deal_amount, unique_id_hash";
+    private static final int COLUMN_COUNT = 7;
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?)";
+    private static final String DEAL_COLUMNS = "deal (" + COLUMN_NAMES + ") VALUES " + ROW_PLACEHOLDERS;
+    private static final String SKIP_DUPLICATE_DEAL = " ON DUPLICATE KEY UPDATE id = id";
+    private static final String SKIP_DUPLICATE_CLAIM = " ON DUPLICATE KEY UPDATE unique_id = unique_id";
+    private static final String INSERT_DEAL = "INSERT INTO " + DEAL_COLUMNS;
+    private static final String INSERT_NEW_DEAL = INSERT_DEAL + SKIP_DUPLICATE_DEAL;
+    private static final String CLAIM_UNIQUE_ID = "INSERT INTO deal_unique_id (unique_id, unique_id_hash) VALUES (?, ?)"
+            + SKIP_DUPLICATE_CLAIM;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DealIdAllocator dealIdAllocator;
+    private final DealDedupMode dedupMode;
+
+    public DealJdbcRepository(JdbcTemplate jdbcTemplate,
+                              DealIdAllocator dealIdAllocator,
+                              @Value("${deal.dedup.mode}") DealDedupMode dedupMode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dealIdAllocator = dealIdAllocator;
+        this.dedupMode = dedupMode;
+    }
+
+    public DealDedupMode getDedupMode() {
+        return dedupMode;
+    }
+
+    /**
+     * Inserts one deal, with a new id unless it already has one. Must be called inside a transaction in
+     * {@code TABLE} mode.
+     *
+     * @return {@code false} when a deal with the same uniqueId already exists; the deal is then left without an id
+     */
+    public boolean insertIgnore(Deal deal) {
+        if (deal.getId() == null) {
+            deal.setId(dealIdAllocator.nextId());
+        }
+        if (dedupMode == DealDedupMode.TABLE
+                && jdbcTemplate.update(CLAIM_UNIQUE_ID, deal.getUniqueId(), uniqueIdHash(deal.getUniqueId())) == 0) {
+            deal.setId(null);
+            return false;
+        }
+        String sql = dedupMode == DealDedupMode.TABLE ? INSERT_DEAL : INSERT_NEW_DEAL;
+        if (jdbcTemplate.update(sql, ps -> bind(ps, deal)) == 0
+                && !inserted(deal, findIdsByUniqueId(List.of(deal.getUniqueId())))) {
+            deal.setId(null);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Inserts all deals as a single JDBC batch, giving new ids to those without one. Must be called inside a
+     * transaction, with distinct uniqueIds.
+     *
+     * @return one flag per deal, {@code false} when the row was ignored as a duplicate
+     */
+    public boolean[] batchInsert(List<Deal> deals) {
+        boolean[] inserted = new boolean[deals.size()];
+        if (deals.isEmpty()) {
+            return inserted;
+        }
+        assignIds(deals);
+        if (dedupMode == DealDedupMode.TABLE) {
+            inserted = claimUniqueIds(deals);
+            List<Deal> claimed = new ArrayList<>(deals.size());
+            for (int i = 0; i < deals.size(); i++) {
+                if (inserted[i]) {
+                    claimed.add(deals.get(i));
+                }
+            }
+            if (!claimed.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_DEAL, claimed, claimed.size(), DealJdbcRepository::bind);
+            }
+            return inserted;
+        }
+        return insertIgnoreAll(deals);
+    }
+
+    /**
+     * Inserts the deals with one multi-row insert skipping duplicates, whose affected-row count is exact even when
+     * batches are rewritten (a rewritten JDBC batch only reports {@link Statement#SUCCESS_NO_INFO}). When some rows were
+     * ignored, the deals are read back by uniqueId: a deal was inserted when the row holding its uniqueId has its id.
+     */
+    private boolean[] insertIgnoreAll(List<Deal> deals) {
+        boolean[] inserted = new boolean[deals.size()];
+        String sql = "INSERT INTO deal (" + COLUMN_NAMES + ") VALUES "
+                + String.join(", ", Collections.nCopies(deals.size(), ROW_PLACEHOLDERS)) + SKIP_DUPLICATE_DEAL;
+        int count = jdbcTemplate.update(sql, ps -> {
+            for (int i = 0; i < deals.size(); i++) {
+                bind(ps, deals.get(i), i * COLUMN_COUNT);
+            }
+        });
+        if (count == deals.size()) {
+            Arrays.fill(inserted, true);
+            return inserted;
+        }
+        Map<String, Long> ids = findIdsByUniqueId(deals.stream().map(Deal::getUniqueId).toList());
+        for (int i = 0; i < deals.size(); i++) {
+            inserted[i] = inserted(deals.get(i), ids);
+        }
+        return inserted;
+    }
+
+    /**
+     * The insert also skips a row whose id is taken, which would silently lose the deal; only a row whose uniqueId is
+     * taken is a duplicate.
+     *
+     * @param ids the ids of the rows holding the uniqueIds, read after the insert
+     * @throws DuplicateKeyException when the deal was skipped because its id is taken
+     */
+    private static boolean inserted(Deal deal, Map<String, Long> ids) {
+        Long id = ids.get(deal.getUniqueId());
+        if (id == null) {
+            throw new DuplicateKeyException("Deal id " + deal.getId() + " is already taken, deal "
+                    + deal.getUniqueId() + " was not inserted");
+        }
+        return id.equals(deal.getId());
+    }
+
+    private Map<String, Long> findIdsByUniqueId(List<String> uniqueIds) {
+        String sql = "SELECT unique_id, id FROM deal WHERE unique_id IN ("
+                + String.join(", ", Collections.nCopies(uniqueIds.size(), "?")) + ")";
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> ids.put(rs.getString(1), rs.getLong(2)), uniqueIds.toArray());
+        return ids;
+    }
+
+    /**
+     * @return the uniqueIds among {@code uniqueIds} that are already taken
+     */
+    public Set<String> findExistingUniqueIds(Collection<String> uniqueIds) {
+        if (uniqueIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        String table = dedupMode == DealDedupMode.TABLE ? "deal_unique_id" : "deal";
+        String sql = "SELECT unique_id FROM " + table + " WHERE unique_id IN ("
+                + String.join(", ", Collections.nCopies(uniqueIds.size(), "?")) + ")";
+        return new HashSet<>(jdbcTemplate.queryForList(sql, String.class, uniqueIds.toArray()));
+    }
+
+    /**
+     * @return the day the deal with this uniqueId was archived under, or {@code null} when it was not archived, which
+     * is always the case outside {@code TABLE} mode
+     */
+    public LocalDate findArchivedDay(String uniqueId) {
+        if (dedupMode != DealDedupMode.TABLE) {
+            return null;
+        }
+        List<LocalDate> days = jdbcTemplate.queryForList("SELECT archived_on FROM deal_unique_id"
+                + " WHERE unique_id = ? AND archived_on IS NOT NULL", LocalDate.class, uniqueId);
+        return days.isEmpty() ? null : days.get(0);
+    }
+
+    /**
+     * Claims the uniqueIds with one multi-row insert skipping duplicates, whose affected-row count is exact even when
+     * batches are rewritten. In the rare case that some uniqueId was taken concurrently, the statement is rolled
+     * back to a savepoint and the uniqueIds are claimed one by one to find out which.
+     */
+    private boolean[] claimUniqueIds(List<Deal> deals) {
+        return jdbcTemplate.execute((ConnectionCallback<boolean[]>) connection -> {
+            boolean[] claimed = new boolean[deals.size()];
+            Savepoint savepoint = connection.setSavepoint();
+            String sql = "INSERT INTO deal_unique_id (unique_id, unique_id_hash) VALUES "
+                    + String.join(", ", Collections.nCopies(deals.size(), "(?, ?)")) + SKIP_DUPLICATE_CLAIM;
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (int i = 0; i < deals.size(); i++) {
+                    ps.setString(2 * i + 1, deals.get(i).getUniqueId());
+                    ps.setLong(2 * i + 2, uniqueIdHash(deals.get(i).getUniqueId()));
+                }
+                if (ps.executeUpdate() == deals.size()) {
+                    connection.releaseSavepoint(savepoint);
+                    Arrays.fill(claimed, true);
+                    return claimed;
+                }
+            }
+            connection.rollback(savepoint);
+            try (PreparedStatement ps = connection.prepareStatement(CLAIM_UNIQUE_ID)) {
+                for (int i = 0; i < deals.size(); i++) {
+                    ps.setString(1, deals.get(i).getUniqueId());
+                    ps.setLong(2, uniqueIdHash(deals.get(i).getUniqueId()));
+                    claimed[i] = ps.executeUpdate() != 0;
+                }
+            }
+            return claimed;
+        });
+    }
+
+    private void assignIds(List<Deal> deals) {
+        int missing = (int) deals.stream().filter(deal -> deal.getId() == null).count();
+        if (missing == 0) {
+            return;
+        }
+        long[] ids = dealIdAllocator.nextIds(missing);
+        int next = 0;
+        for (Deal deal : deals) {
+            if (deal.getId() == null) {
+                deal.setId(ids[next++]);
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Deal deal) throws SQLException {
+        bind(ps, deal, 0);
+    }
+
+    private static void bind(PreparedStatement ps, Deal deal, int offset) throws SQLException {
+        ps.setLong(offset + 1, deal.getId());
+        ps.setString(offset + 2, deal.getUniqueId());
+        ps.setString(offset + 3, deal.getFromCurrencyIsoCode().name());
+        ps.setString(offset + 4, deal.getToCurrencyIsoCode().name());
+        ps.setTimestamp(offset + 5, Timestamp.valueOf(deal.getDealTimestamp()));
+        ps.setBigDecimal(offset + 6, deal.getDealAmount());
+        ps.setLong(offset + 7, uniqueIdHash(deal.getUniqueId()));
+    }
+
+    /**
+     * The {@code unique_id_hash} stored with every uniqueId: the upper 32 bits of its {@link ConsistentHashRing#hash},
+     * unsigned, from which the uniqueId ranges of cluster dedup are cut.
+     */
+    public static long uniqueIdHash(String uniqueId) {
+        return ConsistentHashRing.hash(uniqueId) >>> 32;
+    }
+}
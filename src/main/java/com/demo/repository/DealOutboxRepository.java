@@ -0,0 +1,89 @@
+package com.demo.repository;
+
+import com.demo.dto.DealDTO;
+import com.demo.dto.DealOutboxEvent;
+import com.demo.entity.CurrencyCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * The {@code deal_outbox} table. Rows are appended in the transaction that persists their deals, so a deal is
+ * published if and only if it was committed; nothing is appended while {@code deal.outbox.enabled} is off.
+ */
+@Repository
+public class DealOutboxRepository {
+
+    static final String INSERT_EVENT = "INSERT INTO deal_outbox (deal_id, unique_id, from_currency_iso_code,"
+            + " to_currency_iso_code, deal_timestamp, deal_amount, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public DealOutboxRepository(JdbcTemplate jdbcTemplate,
+                                @Value("${deal.outbox.enabled}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Appends one event per deal, as a single JDBC batch. Must be called in the transaction that wrote the deals.
+     */
+    public void append(List<DealDTO> deals) {
+        if (!enabled || deals.isEmpty()) {
+            return;
+        }
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC));
+        jdbcTemplate.batchUpdate(INSERT_EVENT, deals, deals.size(), (ps, deal) -> {
+            ps.setObject(1, deal.getId());
+            ps.setString(2, deal.getUniqueId());
+            ps.setString(3, deal.getFromCurrencyIsoCode().name());
+            ps.setString(4, deal.getToCurrencyIsoCode().name());
+            ps.setTimestamp(5, Timestamp.valueOf(deal.getDealTimestamp()));
+            ps.setBigDecimal(6, deal.getDealAmount());
+            ps.setTimestamp(7, createdAt);
+        });
+    }
+
+    /**
+     * @return the oldest {@code limit} events still in the outbox, in id order
+     */
+    public List<DealOutboxEvent> findNext(int limit) {
+        return jdbcTemplate.query("SELECT id, deal_id, unique_id, from_currency_iso_code, to_currency_iso_code,"
+                        + " deal_timestamp, deal_amount, created_at FROM deal_outbox ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new DealOutboxEvent(
+                        rs.getLong(1),
+                        rs.getObject(2, Long.class),
+                        rs.getString(3),
+                        CurrencyCode.fromCode(rs.getString(4)),
+                        CurrencyCode.fromCode(rs.getString(5)),
+                        rs.getTimestamp(6).toLocalDateTime(),
+                        rs.getBigDecimal(7),
+                        rs.getTimestamp(8).toLocalDateTime()),
+                limit);
+    }
+
+    /**
+     * Deletes published events by id. A range delete could remove an event committed late with an id inside the
+     * range, before it was ever read.
+     */
+    public int delete(List<DealOutboxEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(
+                "DELETE FROM deal_outbox WHERE id IN (" + String.join(", ", Collections.nCopies(events.size(), "?")) + ")",
+                events.stream().map(DealOutboxEvent::id).toArray());
+    }
+}
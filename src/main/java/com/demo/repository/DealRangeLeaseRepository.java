@@ -0,0 +1,117 @@
+package com.demo.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+
+/**
+ * The {@code deal_cluster_node} and {@code deal_range_lease} tables. Every time is taken from the database clock,
+ * so instances with skewed clocks still agree on which leases have expired. Each statement commits on its own.
+ */
+@Repository
+public class DealRangeLeaseRepository {
+
+    private static final String NOW = "NOW(6)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DealRangeLeaseRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates the lease rows of ranges {@code 0..ranges-1} that do not exist yet.
+     */
+    public void createRanges(int ranges) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deal_range_lease WHERE range_id < ?",
+                Integer.class, ranges);
+        if (existing != null && existing == ranges) {
+            return;
+        }
+        List<Integer> rangeIds = IntStream.range(0, ranges).boxed().toList();
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO deal_range_lease (range_id, epoch) VALUES (?, 0)", rangeIds,
+                rangeIds.size(), (ps, rangeId) -> ps.setInt(1, rangeId));
+    }
+
+    public void heartbeat(String nodeId) {
+        if (jdbcTemplate.update("UPDATE deal_cluster_node SET heartbeat_at = " + NOW + " WHERE node_id = ?", nodeId) == 0) {
+            jdbcTemplate.update("INSERT IGNORE INTO deal_cluster_node (node_id, heartbeat_at) VALUES (?, " + NOW + ")", nodeId);
+        }
+    }
+
+    /**
+     * @return the number of nodes that sent a heartbeat within {@code ttl}, at least 1
+     */
+    public int countLiveNodes(Duration ttl) {
+        Integer live = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deal_cluster_node"
+                + " WHERE heartbeat_at > TIMESTAMPADD(MICROSECOND, ?, " + NOW + ")", Integer.class, -micros(ttl));
+        return live == null ? 1 : Math.max(1, live);
+    }
+
+    public void deleteNodesSilentFor(Duration age) {
+        jdbcTemplate.update("DELETE FROM deal_cluster_node WHERE heartbeat_at < TIMESTAMPADD(MICROSECOND, ?, " + NOW + ")",
+                -micros(age));
+    }
+
+    /**
+     * Extends the leases the node still holds by {@code ttl}. Leases that have already expired are not renewed,
+     * since another node may have claimed them.
+     *
+     * @return the ranges the node holds
+     */
+    public List<Integer> renew(String nodeId, Duration ttl, int ranges) {
+        jdbcTemplate.update("UPDATE deal_range_lease SET lease_until = TIMESTAMPADD(MICROSECOND, ?, " + NOW + ")"
+                + " WHERE owner = ? AND lease_until > " + NOW, micros(ttl), nodeId);
+        return jdbcTemplate.queryForList("SELECT range_id FROM deal_range_lease"
+                + " WHERE owner = ? AND lease_until > " + NOW + " AND range_id < ? ORDER BY range_id", Integer.class, nodeId, ranges);
+    }
+
+    /**
+     * @return the ranges that are free or whose lease has expired
+     */
+    public List<Integer> findClaimable(int ranges) {
+        return jdbcTemplate.queryForList("SELECT range_id FROM deal_range_lease"
+                + " WHERE (owner IS NULL OR lease_until <= " + NOW + ") AND range_id < ? ORDER BY range_id", Integer.class, ranges);
+    }
+
+    /**
+     * Takes the lease of a free or expired range. Of several nodes claiming the same range, exactly one succeeds.
+     */
+    public boolean claim(int rangeId, String nodeId, Duration ttl) {
+        return jdbcTemplate.update("UPDATE deal_range_lease SET owner = ?,"
+                + " lease_until = TIMESTAMPADD(MICROSECOND, ?, " + NOW + "), epoch = epoch + 1"
+                + " WHERE range_id = ? AND (owner IS NULL OR lease_until <= " + NOW + ")", nodeId, micros(ttl), rangeId) == 1;
+    }
+
+    public void release(String nodeId, Collection<Integer> rangeIds) {
+        if (rangeIds.isEmpty()) {
+            return;
+        }
+        Object[] args = new Object[rangeIds.size() + 1];
+        args[0] = nodeId;
+        int i = 1;
+        for (Integer rangeId : rangeIds) {
+            args[i++] = rangeId;
+        }
+        jdbcTemplate.update("UPDATE deal_range_lease SET owner = NULL, lease_until = NULL WHERE owner = ? AND range_id IN ("
+                + String.join(", ", Collections.nCopies(rangeIds.size(), "?")) + ")", args);
+    }
+
+    /**
+     * Releases every lease of the node and removes its heartbeat, so that the others take over without waiting.
+     */
+    public void leave(String nodeId) {
+        jdbcTemplate.update("UPDATE deal_range_lease SET owner = NULL, lease_until = NULL WHERE owner = ?", nodeId);
+        jdbcTemplate.update("DELETE FROM deal_cluster_node WHERE node_id = ?", nodeId);
+    }
+
+    private static long micros(Duration duration) {
+        return duration.toNanos() / 1_000;
+    }
+}
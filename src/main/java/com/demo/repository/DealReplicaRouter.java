@@ -0,0 +1,152 @@
+package com.demo.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+
+/**
+ * Picks the database that read-only work goes to: a replica that has caught up far enough, or else the primary.
+ * <p>
+ * A replica has caught up to the stamp of this instance's heartbeat row last read back from it (see
+ * {@code deal_replica_heartbeat}). Stamps come from {@link #nextBeat}, so they are only ever compared with this
+ * instance's own clock. Reads go to a replica whose stamp is within {@code deal.replicas.max-lag} of now, round robin,
+ * and to the primary when none is. Deals written through this instance are remembered for {@code max-lag} with the
+ * last stamp handed out before their commit, and a read of one of them through {@link #readYourWrites} only goes to a
+ * replica that has applied a later stamp. That stamp was written after the deal was committed, so a client reading
+ * back its own write always finds it.
+ * <p>
+ * Without {@code deal.replicas.enabled} there are no replicas and every read goes to the primary.
+ */
+@Component
+public class DealReplicaRouter {
+
+    /**
+     * Lookup key of the primary, next to the replica numbers {@code 0..n-1}.
+     */
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Long> REQUIRED = new ThreadLocal<>();
+
+    private final AtomicLongArray caughtUpTo;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong lastBeat = new AtomicLong();
+    private final long maxLagMillis;
+    private final Cache<String, Long> recentWrites;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public DealReplicaRouter(MeterRegistry meterRegistry,
+                             @Value("${deal.replicas.enabled}") boolean enabled,
+                             @Value("${deal.replicas.urls}") List<String> urls,
+                             @Value("${deal.replicas.max-lag}") Duration maxLag,
+                             @Value("${deal.replicas.recent-writes-size}") long recentWritesSize) {
+        this.caughtUpTo = new AtomicLongArray(enabled ? urls.size() : 0);
+        this.maxLagMillis = maxLag.toMillis();
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(enabled ? recentWritesSize : 0)
+                .expireAfterWrite(maxLag)
+                .build();
+        this.replicaReads = Counter.builder("deal.replica.reads").tag("target", "replica")
+                .description("Read-only connections handed out, by the database they went to")
+                .register(meterRegistry);
+        this.primaryReads = Counter.builder("deal.replica.reads").tag("target", "primary")
+                .description("Read-only connections handed out, by the database they went to")
+                .register(meterRegistry);
+        for (int replica = 0; replica < caughtUpTo.length(); replica++) {
+            int current = replica;
+            TimeGauge.builder("deal.replica.lag", () -> lagMillis(current), TimeUnit.MILLISECONDS)
+                    .tag("replica", String.valueOf(replica))
+                    .description("Age of the newest heartbeat stamp read back from the replica")
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean hasReplicas() {
+        return caughtUpTo.length() > 0;
+    }
+
+    /**
+     * @return the replica to read from, or {@link #PRIMARY}
+     */
+    public Object selectForRead() {
+        int replicas = caughtUpTo.length();
+        if (replicas > 0) {
+            Long required = REQUIRED.get();
+            long floor = System.currentTimeMillis() - maxLagMillis;
+            int start = next.getAndIncrement();
+            for (int i = 0; i < replicas; i++) {
+                int replica = Math.floorMod(start + i, replicas);
+                long beat = caughtUpTo.get(replica);
+                if (beat >= floor && (required == null || beat > required)) {
+                    replicaReads.increment();
+                    return replica;
+                }
+            }
+        }
+        primaryReads.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * Runs a read of the deal with this uniqueId so that it sees a write of that deal made through this instance.
+     */
+    public <T> T readYourWrites(String uniqueId, Supplier<T> work) {
+        Long writtenAt = uniqueId == null ? null : recentWrites.getIfPresent(uniqueId);
+        if (writtenAt == null) {
+            return work.get();
+        }
+        Long previous = REQUIRED.get();
+        REQUIRED.set(previous == null ? writtenAt : Math.max(previous, writtenAt));
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                REQUIRED.remove();
+            } else {
+                REQUIRED.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Remembers that the deal with this uniqueId has been committed, along with the last stamp handed out so far.
+     */
+    public void written(String uniqueId) {
+        if (hasReplicas()) {
+            recentWrites.put(uniqueId, lastBeat.get());
+        }
+    }
+
+    /**
+     * @return the stamp of this instance's next heartbeat: the current time, or just past the previous stamp when the
+     * clock has not moved on or went back
+     */
+    public long nextBeat() {
+        return lastBeat.updateAndGet(last -> Math.max(last + 1, System.currentTimeMillis()));
+    }
+
+    /**
+     * Records the heartbeat stamp read back from a replica, or {@code 0} when it could not be read.
+     */
+    public void caughtUp(int replica, long beatMillis) {
+        caughtUpTo.set(replica, beatMillis);
+    }
+
+    private double lagMillis(int replica) {
+        long beat = caughtUpTo.get(replica);
+        return beat == 0 ? Double.NaN : Math.max(0, System.currentTimeMillis() - beat);
+    }
+}
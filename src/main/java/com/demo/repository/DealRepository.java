@@ -1,11 +1,54 @@
 package com.demo.repository;
 
+import com.demo.dto.DealDTO;
+import com.demo.entity.CurrencyCode;
 import com.demo.entity.Deal;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 
 @Repository
-public interface DealRepository extends JpaRepository<Deal, Long> {
+public interface DealRepository extends JpaRepository<Deal, Long>, DealRepositoryCustom {
     boolean existsByUniqueId(String uniqueId);
+
+    @Query("select new com.demo.dto.DealDTO(d.id, d.uniqueId, d.fromCurrencyIsoCode, d.toCurrencyIsoCode, d.dealTimestamp, d.dealAmount)"
+            + " from Deal d where d.uniqueId = :uniqueId")
+    Optional<DealDTO> findDtoByUniqueId(@Param("uniqueId") String uniqueId);
+
+    /**
+     * Deals after the {@code (afterTimestamp, afterId)} position and before {@code until}, in
+     * {@code (dealTimestamp, id)} order. Served by the {@code ix_deal_timestamp_id} index.
+     */
+    @Query("select new com.demo.dto.DealDTO(d.id, d.uniqueId, d.fromCurrencyIsoCode, d.toCurrencyIsoCode, d.dealTimestamp, d.dealAmount)"
+            + " from Deal d"
+            + " where (d.dealTimestamp > :afterTimestamp or (d.dealTimestamp = :afterTimestamp and d.id > :afterId))"
+            + " and d.dealTimestamp < :until"
+            + " order by d.dealTimestamp, d.id")
+    List<DealDTO> findPage(@Param("afterTimestamp") LocalDateTime afterTimestamp,
+                           @Param("afterId") long afterId,
+                           @Param("until") LocalDateTime until,
+                           Limit limit);
+
+    /**
+     * Same as {@link #findPage} within one currency pair. Served by the {@code ix_deal_pair_timestamp_id} index.
+     */
+    @Query("select new com.demo.dto.DealDTO(d.id, d.uniqueId, d.fromCurrencyIsoCode, d.toCurrencyIsoCode, d.dealTimestamp, d.dealAmount)"
+            + " from Deal d"
+            + " where d.fromCurrencyIsoCode = :fromCurrency and d.toCurrencyIsoCode = :toCurrency"
+            + " and (d.dealTimestamp > :afterTimestamp or (d.dealTimestamp = :afterTimestamp and d.id > :afterId))"
+            + " and d.dealTimestamp < :until"
+            + " order by d.dealTimestamp, d.id")
+    List<DealDTO> findPageByCurrencyPair(@Param("fromCurrency") CurrencyCode fromCurrency,
+                                         @Param("toCurrency") CurrencyCode toCurrency,
+                                         @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                         @Param("afterId") long afterId,
+                                         @Param("until") LocalDateTime until,
+                                         Limit limit);
 }
@@ -0,0 +1,18 @@
+package com.demo.repository;
+
+import com.demo.dto.DealDTO;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+
+public interface DealRepositoryCustom {
+
+    /**
+     * Streams the deals after the {@code (afterTimestamp, afterId)} position and before {@code until}, in
+     * {@code (dealTimestamp, id)} order, over a forward-only cursor. Rows are read {@code deal.jdbc.stream-fetch-size}
+     * at a time and projected straight into DTOs, so neither the heap nor the persistence context ever holds the
+     * whole range. Must be consumed and closed inside a transaction.
+     */
+    Stream<DealDTO> streamRange(LocalDateTime afterTimestamp, long afterId, LocalDateTime until);
+}
@@ -0,0 +1,38 @@
+package com.demo.repository;
+
+import com.demo.dto.DealDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+
+public class DealRepositoryImpl implements DealRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int fetchSize;
+
+    public DealRepositoryImpl(@Value("${deal.jdbc.stream-fetch-size}") int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Stream<DealDTO> streamRange(LocalDateTime afterTimestamp, long afterId, LocalDateTime until) {
+        return entityManager.createQuery("select new com.demo.dto.DealDTO(d.id, d.uniqueId, d.fromCurrencyIsoCode,"
+                        + " d.toCurrencyIsoCode, d.dealTimestamp, d.dealAmount)"
+                        + " from Deal d"
+                        + " where (d.dealTimestamp > :afterTimestamp or (d.dealTimestamp = :afterTimestamp and d.id > :afterId))"
+                        + " and d.dealTimestamp < :until"
+                        + " order by d.dealTimestamp, d.id", DealDTO.class)
+                .setParameter("afterTimestamp", afterTimestamp)
+                .setParameter("afterId", afterId)
+                .setParameter("until", until)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+}
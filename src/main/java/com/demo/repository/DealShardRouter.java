@@ -0,0 +1,168 @@
+package com.demo.repository;
+
+import com.demo.dto.DealDTO;
+import com.demo.util.ConsistentHashRing;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+
+/**
+ * Places deals on shards by a consistent hash of their uniqueId, so a uniqueId and its duplicates always meet on the
+ * same database, and selects the shard that database work on the current thread goes to.
+ * <p>
+ * Without {@code deal.sharding.enabled} there is a single shard and every method runs its work inline. With it, shard
+ * 0 is {@code spring.datasource.url} and shards 1..n are {@code deal.sharding.urls}, in order. The routing data source
+ * binds a transaction to the shard selected when the transaction runs its first statement, and work outside any
+ * {@link #inShard} call goes to shard 0.
+ */
+@Component
+public class DealShardRouter {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+    private static final Comparator<DealDTO> POSITION =
+            Comparator.comparing(DealDTO::getDealTimestamp).thenComparing(DealDTO::getId);
+
+    private final ConsistentHashRing ring;
+    private final ExecutorService executor;
+
+    public DealShardRouter(@Value("${deal.sharding.enabled}") boolean enabled,
+                           @Value("${deal.sharding.urls}") List<String> urls,
+                           @Value("${deal.sharding.virtual-nodes}") int virtualNodes,
+                           @Value("${deal.sharding.query-threads}") int queryThreads) {
+        this.ring = new ConsistentHashRing(enabled ? 1 + urls.size() : 1, virtualNodes);
+        if (ring.shards() > 1) {
+            AtomicInteger threads = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(queryThreads, runnable -> {
+                Thread thread = new Thread(runnable, "deal-shard-query-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * @return the shard selected on the current thread, 0 when none is
+     */
+    public static int currentShard() {
+        Integer shard = CURRENT.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public int count() {
+        return ring.shards();
+    }
+
+    public int shardFor(String uniqueId) {
+        return uniqueId == null ? 0 : ring.shardFor(uniqueId);
+    }
+
+    /**
+     * Runs work against one shard. A transaction must be started inside the work, not around it, to land on that shard.
+     */
+    public <T> T inShard(int shard, Supplier<T> work) {
+        if (ring.shards() == 1) {
+            return work.get();
+        }
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < ring.shards(); shard++) {
+            int current = shard;
+            inShard(shard, () -> {
+                work.accept(current);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Runs work against every shard, in parallel on {@code deal.sharding.query-threads} threads when there are several.
+     * The work runs outside the caller's transaction.
+     *
+     * @return the result of each shard, in shard order
+     */
+    public <T> List<T> scatter(IntFunction<T> work) {
+        List<T> results = new ArrayList<>(ring.shards());
+        if (ring.shards() == 1) {
+            results.add(work.apply(0));
+            return results;
+        }
+        List<Future<T>> futures = new ArrayList<>(ring.shards());
+        for (int shard = 0; shard < ring.shards(); shard++) {
+            int current = shard;
+            futures.add(executor.submit(() -> inShard(current, () -> work.apply(current))));
+        }
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying the deal shards", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Deal shard query failed", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Merges pages of deals that are each in {@code (dealTimestamp, id)} order into one page in that order, keeping
+     * the first {@code limit}. Ids are unique across shards; a deal seen in two pages, which happens while the archiver
+     * moves it out of the table, is kept once.
+     */
+    public static List<DealDTO> mergeByPosition(List<List<DealDTO>> pages, int limit) {
+        List<List<DealDTO>> nonEmpty = pages.stream().filter(page -> !page.isEmpty()).toList();
+        List<DealDTO> merged;
+        if (nonEmpty.size() == 1) {
+            merged = nonEmpty.get(0);
+        } else {
+            merged = new ArrayList<>();
+            nonEmpty.forEach(merged::addAll);
+            merged.sort(POSITION);
+            for (int i = merged.size() - 1; i > 0; i--) {
+                if (merged.get(i).getId().equals(merged.get(i - 1).getId())) {
+                    merged.remove(i);
+                }
+            }
+        }
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.demo.service;
+
+import com.demo.dto.DealAggregateResponse;
+
+public interface DealAggregationService {
+
+    /**
+     * Returns the deal count and notional per currency pair over the trailing window ({@code 1m}, {@code 5m},
+     * {@code 1h} or {@code 1d}), for every pair or only the given one, as seen by this instance.
+     */
+    DealAggregateResponse getAggregates(String fromCurrency, String toCurrency, String window);
+}
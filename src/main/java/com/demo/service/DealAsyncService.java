@@ -0,0 +1,16 @@
+package com.demo.service;
+
+import com.demo.dto.DealAcceptedResponse;
+import com.demo.dto.DealRequest;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface DealAsyncService {
+
+    /**
+     * Appends the deal to the local journal; the returned response carries the tracking id once it is durable.
+     */
+    CompletableFuture<DealAcceptedResponse> acceptDeal(DealRequest dealRequest);
+
+    DealAcceptedResponse getStatus(long trackingId);
+}
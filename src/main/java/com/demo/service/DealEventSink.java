@@ -0,0 +1,30 @@
+package com.demo.service;
+
+import com.demo.dto.DealOutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+
+/**
+ * Destination of the events drained from the deal outbox, chosen with {@code deal.outbox.sink}. A batch that
+ * fails is published again, whole, by the next relay run, so delivery is at least once.
+ */
+public interface DealEventSink {
+
+    /**
+     * Gets the sink ready to take a batch. Called by the relay before it opens the transaction that locks its
+     * checkpoint, so a sink that has to wait, e.g. for the reader of a pipe, does not hold up relays on other
+     * instances.
+     *
+     * @return {@code false} when the sink cannot take events yet; the relay tries again on its next run
+     */
+    default boolean ready() throws IOException {
+        return true;
+    }
+
+    /**
+     * Publishes a batch of events in id order, returning only once the sink holds them.
+     */
+    void publish(List<DealOutboxEvent> events) throws IOException;
+}
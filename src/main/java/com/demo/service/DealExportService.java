@@ -0,0 +1,23 @@
+package com.demo.service;
+
+import com.demo.dto.DealFileFormat;
+import com.demo.util.DealCursor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface DealExportService {
+
+    /**
+     * Checks the export window and returns the position the export starts after: the beginning of the window, or
+     * the deal {@code afterId} when resuming a broken transfer.
+     */
+    DealCursor startPosition(LocalDateTime from, LocalDateTime to, Long afterId);
+
+    /**
+     * Writes the deals after {@code start} and before {@code to} to {@code out}, in {@code (dealTimestamp, id)}
+     * order, and returns the number of deals written.
+     */
+    long export(DealFileFormat format, DealCursor start, LocalDateTime to, OutputStream out) throws IOException;
+}
@@ -0,0 +1,18 @@
+package com.demo.service;
+
+import com.demo.dto.DealFileFormat;
+import com.demo.dto.DealImportResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface DealImportService {
+
+    /**
+     * Imports a file located under the configured import directory, resuming from its last checkpoint.
+     */
+    DealImportResponse importFile(String path, DealFileFormat format);
+
+    /**
+     * Spools an uploaded file to the import directory and imports it like {@link #importFile}.
+     */
+    DealImportResponse importUpload(MultipartFile file, DealFileFormat format);
+}
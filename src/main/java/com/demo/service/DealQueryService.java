@@ -0,0 +1,24 @@
+package com.demo.service;
+
+import com.demo.dto.DealPageResponse;
+import com.demo.dto.DealResponse;
+
+import java.time.LocalDateTime;
+
+public interface DealQueryService {
+
+    /**
+     * Returns one page of deals in {@code (dealTimestamp, id)} order, optionally restricted to a currency pair and to
+     * the {@code [from, to)} timestamp range. The first page is requested without a cursor, the following ones with
+     * the {@code nextCursor} of the previous page.
+     */
+    DealPageResponse findDeals(String fromCurrency, String toCurrency, LocalDateTime from, LocalDateTime to,
+                               String cursor, Integer limit);
+
+    /**
+     * Looks a deal up by its uniqueId.
+     *
+     * @throws org.springframework.web.server.ResponseStatusException with 404 when there is no such deal
+     */
+    DealResponse findDeal(String uniqueId);
+}
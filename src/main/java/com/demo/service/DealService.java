@@ -1,9 +1,14 @@
 package com.demo.service;
 
+import com.demo.dto.DealBatchResponse;
 import com.demo.dto.DealRequest;
 import com.demo.dto.DealResponse;
 
+import java.util.List;
+
 public interface DealService {
 
     DealResponse saveDeal(DealRequest dealRequest);
+
+    DealBatchResponse saveDeals(List<DealRequest> dealRequests);
 }
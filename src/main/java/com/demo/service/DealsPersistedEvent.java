@@ -0,0 +1,13 @@
+package com.demo.service;
+
+import com.demo.dto.DealDTO;
+
+import java.util.List;
+
+
+/**
+ * Published inside the transaction that wrote the deals; listeners that must only see committed deals use
+ * {@code @TransactionalEventListener}.
+ */
+public record DealsPersistedEvent(List<DealDTO> deals) {
+}
@@ -0,0 +1,24 @@
+package com.demo.service;
+
+import com.demo.dto.DealDTO;
+
+import java.io.Writer;
+import java.util.Map;
+
+public interface NotificationRenderer {
+
+    /**
+     * Renders the email telling a customer that the platform is available again after a downtime.
+     */
+    String renderDowntimeRestored(String recipientName);
+
+    /**
+     * Renders the email confirming a persisted deal to a customer.
+     */
+    String renderDealConfirmation(String recipientName, DealDTO deal);
+
+    /**
+     * Renders a notification straight into {@code out}, for callers that stream the body.
+     */
+    void render(NotificationTemplate template, Map<String, Object> variables, Writer out);
+}
@@ -0,0 +1,22 @@
+package com.demo.service;
+
+/**
+ * Notification emails, each backed by a template under {@code resources/templates/notification}.
+ */
+public enum NotificationTemplate {
+
+    /** Variables: {@code recipientName}, {@code supportContact} */
+    DOWNTIME_RESTORED("downtime-restored"),
+    /** Variables: {@code recipientName}, {@code deal} (a {@link com.demo.dto.DealDTO}) */
+    DEAL_CONFIRMATION("deal-confirmation");
+
+    private final String templateName;
+
+    NotificationTemplate(String templateName) {
+        this.templateName = templateName;
+    }
+
+    public String getTemplateName() {
+        return templateName;
+    }
+}
@@ -0,0 +1,267 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealDTO;
+import com.demo.repository.DealDedupMode;
+import com.demo.repository.DealJdbcRepository;
+import com.demo.repository.DealRangeLeaseRepository;
+import com.demo.repository.DealShardRouter;
+import com.demo.service.DealsPersistedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Cluster dedup mode: the uniqueId hash space is cut into {@code deal.cluster.ranges} ranges, each leased by one
+ * application instance at a time, and an instance keeps the recent uniqueIds of the ranges it owns in memory. A
+ * uniqueId found there is a duplicate without a database round trip; any other uniqueId of an owned range skips the
+ * existence query and goes straight to the insert, which stays the final word on duplicates. UniqueIds of ranges
+ * owned elsewhere are answered from the database as before.
+ * <p>
+ * There is no leader. Every {@code deal.cluster.heartbeat-interval} ms each instance records a heartbeat, renews its
+ * leases for {@code deal.cluster.lease-ttl}, and then evens out the ranges: it releases ranges above its share of
+ * ranges / live instances and claims free or expired ones up to it. When an instance dies its leases expire after
+ * the TTL and the survivors claim them; an instance that shuts down releases them at once. A newly owned range is
+ * served once its newest uniqueIds have been loaded in the background, by a range seek on {@code unique_id_hash}.
+ * <p>
+ * The index holds at most {@code deal.cluster.index.max-size} uniqueIds over all owned ranges and evicts the least
+ * recently used ones, so a uniqueId missing from it is only probably new. The in-memory index only ever says "taken"
+ * for uniqueIds that are committed, and uniqueIds are never freed, so an instance that loses a lease without noticing
+ * still answers correctly, and the uniqueIds of a released range are left to eviction.
+ */
+@Slf4j
+@Component
+public class ClusterDedupIndex {
+
+    private final DealRangeLeaseRepository leaseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DealShardRouter dealShardRouter;
+    private final boolean enabled;
+    private final String nodeId;
+    private final int ranges;
+    private final Duration leaseTtl;
+    private final String sourceTable;
+    private final int fetchSize;
+    private final long maxSize;
+    private final Cache<String, Boolean> uniqueIds;
+    private final Set<Integer> owned = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> loading = ConcurrentHashMap.newKeySet();
+    private final ExecutorService loader;
+    private final Counter localDuplicates;
+    private volatile long leasesValidUntil;
+
+    public ClusterDedupIndex(DealRangeLeaseRepository leaseRepository,
+                             JdbcTemplate jdbcTemplate,
+                             DealShardRouter dealShardRouter,
+                             MeterRegistry meterRegistry,
+                             @Value("${deal.dedup.mode}") DealDedupMode dedupMode,
+                             @Value("${deal.cluster.enabled}") boolean enabled,
+                             @Value("${deal.cluster.node-id}") String nodeId,
+                             @Value("${deal.cluster.ranges}") int ranges,
+                             @Value("${deal.cluster.lease-ttl}") Duration leaseTtl,
+                             @Value("${deal.cluster.index.max-size}") long maxSize,
+                             @Value("${deal.jdbc.stream-fetch-size}") int fetchSize) {
+        this.leaseRepository = leaseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dealShardRouter = dealShardRouter;
+        this.enabled = enabled;
+        this.nodeId = nodeId;
+        this.ranges = ranges;
+        this.leaseTtl = leaseTtl;
+        this.sourceTable = dedupMode == DealDedupMode.TABLE ? "deal_unique_id" : "deal";
+        this.fetchSize = fetchSize;
+        this.maxSize = maxSize;
+        this.uniqueIds = Caffeine.newBuilder()
+                .maximumSize(enabled ? maxSize : 0)
+                .build();
+        this.loader = enabled ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deal-cluster-loader");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        this.localDuplicates = Counter.builder("deal.cluster.local.duplicates")
+                .description("Duplicate uniqueIds answered from the in-memory index of owned ranges")
+                .register(meterRegistry);
+        Gauge.builder("deal.cluster.owned.ranges", owned, Set::size)
+                .description("uniqueId hash ranges owned and served by this instance")
+                .register(meterRegistry);
+        Gauge.builder("deal.cluster.index.size", uniqueIds, Cache::estimatedSize)
+                .description("uniqueIds held in memory for the owned ranges")
+                .register(meterRegistry);
+        if (enabled) {
+            leaseRepository.createRanges(ranges);
+            log.info("Cluster dedup node {} over {} uniqueId ranges", nodeId, ranges);
+        }
+    }
+
+    /**
+     * @return whether this instance owns the range of the uniqueId and has its uniqueIds loaded
+     */
+    public boolean owns(String uniqueId) {
+        return enabled && System.nanoTime() - leasesValidUntil < 0 && owned.contains(rangeOf(uniqueId));
+    }
+
+    /**
+     * @return {@code true} only if the uniqueId is in an owned range and known to be taken
+     */
+    public boolean isTaken(String uniqueId) {
+        if (!owns(uniqueId)) {
+            return false;
+        }
+        if (uniqueIds.getIfPresent(uniqueId) != null) {
+            localDuplicates.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a uniqueId that is committed, by this instance or, as the insert reported a duplicate, by another one.
+     */
+    public void record(String uniqueId) {
+        if (!enabled) {
+            return;
+        }
+        int range = rangeOf(uniqueId);
+        if (owned.contains(range) || loading.contains(range)) {
+            uniqueIds.put(uniqueId, Boolean.TRUE);
+        }
+    }
+
+    // Only committed deals are recorded, so that a rolled back insert does not turn a retry into a duplicate
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsPersisted(DealsPersistedEvent event) {
+        for (DealDTO deal : event.deals()) {
+            record(deal.getUniqueId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${deal.cluster.heartbeat-interval}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            leaseRepository.heartbeat(nodeId);
+            Set<Integer> held = new HashSet<>(leaseRepository.renew(nodeId, leaseTtl, ranges));
+            leasesValidUntil = started + leaseTtl.toNanos();
+            dropAllBut(held);
+
+            int liveNodes = leaseRepository.countLiveNodes(leaseTtl);
+            int share = (ranges + liveNodes - 1) / liveNodes;
+            if (held.size() > share) {
+                List<Integer> surplus = held.stream().sorted(Comparator.reverseOrder()).limit(held.size() - share).toList();
+                leaseRepository.release(nodeId, surplus);
+                surplus.forEach(held::remove);
+                dropAllBut(held);
+                log.info("Released uniqueId ranges {} to other nodes", surplus);
+            } else if (held.size() < share) {
+                for (Integer range : leaseRepository.findClaimable(ranges)) {
+                    if (held.size() >= share) {
+                        break;
+                    }
+                    if (leaseRepository.claim(range, nodeId, leaseTtl)) {
+                        held.add(range);
+                    }
+                }
+            }
+
+            Set<Integer> acquired = new HashSet<>(held);
+            acquired.removeAll(owned);
+            acquired.removeAll(loading);
+            if (!acquired.isEmpty()) {
+                loading.addAll(acquired);
+                // The newest uniqueIds of each range, so that the ranges held share the index
+                long perRange = Math.max(1, maxSize / held.size());
+                loader.execute(() -> load(acquired, perRange));
+            }
+            leaseRepository.deleteNodesSilentFor(leaseTtl.multipliedBy(10));
+        } catch (RuntimeException e) {
+            log.error("Cluster dedup heartbeat failed, retrying on the next one", e);
+        }
+    }
+
+    private void load(Set<Integer> acquired, long perRange) {
+        try {
+            long started = System.nanoTime();
+            LongAdder loaded = new LongAdder();
+            JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+            streaming.setFetchSize(fetchSize);
+            String sql = "SELECT unique_id FROM " + sourceTable + " WHERE unique_id_hash >= ? AND unique_id_hash < ?"
+                    + (sourceTable.equals("deal") ? " ORDER BY id DESC" : "") + " LIMIT ?";
+            List<Integer> ready = new ArrayList<>();
+            for (Integer range : acquired.stream().sorted().toList()) {
+                dealShardRouter.scatter(shard -> {
+                    streaming.query(sql, rs -> {
+                        uniqueIds.put(rs.getString(1), Boolean.TRUE);
+                        loaded.increment();
+                    }, firstHash(range), firstHash(range + 1), perRange);
+                    return null;
+                });
+                // Gone when the lease was lost or released while loading
+                if (loading.remove(range)) {
+                    owned.add(range);
+                    ready.add(range);
+                }
+            }
+            log.info("Took over uniqueId ranges {} with {} uniqueIds in {} ms", ready, loaded.sum(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            loading.removeAll(acquired);
+            log.error("Loading uniqueId ranges {} failed, they are loaded again on the next heartbeat", acquired, e);
+        }
+    }
+
+    private void dropAllBut(Set<Integer> held) {
+        owned.retainAll(held);
+        loading.retainAll(held);
+    }
+
+    @PreDestroy
+    void leave() {
+        if (!enabled) {
+            return;
+        }
+        loader.shutdownNow();
+        try {
+            leaseRepository.leave(nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Could not release the uniqueId ranges of node {}, they expire in {}", nodeId, leaseTtl, e);
+        }
+    }
+
+    /**
+     * Splits the 32-bit {@link DealJdbcRepository#uniqueIdHash} space into {@code ranges} contiguous ranges.
+     */
+    private int rangeOf(String uniqueId) {
+        return (int) ((DealJdbcRepository.uniqueIdHash(uniqueId) * ranges) >>> 32);
+    }
+
+    /**
+     * @return the lowest {@code unique_id_hash} of the range, or the end of the hash space for {@code ranges}
+     */
+    private long firstHash(int range) {
+        return (((long) range << 32) + ranges - 1) / ranges;
+    }
+}
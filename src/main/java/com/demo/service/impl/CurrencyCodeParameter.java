@@ -0,0 +1,27 @@
+package com.demo.service.impl;
+
+import com.demo.entity.CurrencyCode;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+
+/**
+ * Reads an optional currency code request parameter of the query and aggregate endpoints.
+ */
+final class CurrencyCodeParameter {
+
+    private CurrencyCodeParameter() {
+    }
+
+    /**
+     * @return the code, or {@code null} when the parameter was not given
+     * @throws ResponseStatusException 400 when the parameter is not an ISO 4217 code
+     */
+    static CurrencyCode parse(String name, String value) {
+        CurrencyCode code = CurrencyCode.fromCode(value);
+        if (value != null && code == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be a valid ISO 4217 code");
+        }
+        return code;
+    }
+}
@@ -0,0 +1,238 @@
+package com.demo.service.impl;
+
+import com.demo.dto.AggregationWindow;
+import com.demo.dto.DealAggregate;
+import com.demo.dto.DealAggregateResponse;
+import com.demo.dto.DealDTO;
+import com.demo.entity.CurrencyCode;
+import com.demo.repository.DealShardRouter;
+import com.demo.service.DealAggregationService;
+import com.demo.service.DealsPersistedEvent;
+import com.demo.util.CurrencyPairCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Live deal count and notional per currency pair over trailing windows, kept in memory so that dashboards do not
+ * aggregate the deal table.
+ * <p>
+ * Every pair, keyed by its {@link CurrencyPairCode}, has a ring of one-second buckets covering five minutes and a
+ * ring of one-minute buckets covering a day. Deals are bucketed by their deal timestamp (UTC) once their
+ * transaction commits; deals older than a day or dated in the future are not counted. A bucket is a pair of
+ * {@link LongAdder}s, so concurrent writers do not contend. A bucket is never reset: a slot reused for a new period
+ * gets a new bucket by compare-and-set, so an add that still holds the old bucket can only land in a period that has
+ * left the ring. Notional is summed exactly in units of 10^-4, split into high and low 32-bit halves that have an
+ * adder each: an amount of {@code DECIMAL(19,4)} alone may exceed a {@code long} in those units, while either half
+ * only overflows after some two billion deals in one bucket.
+ * <p>
+ * Before the application starts serving requests, the rings are rebuilt from the deals of the last day. After that
+ * only the deals saved by this instance are added, so with several instances each one reports its own share of the
+ * deals since it started.
+ */
+@Slf4j
+@Service
+public class DealAggregationServiceImpl implements DealAggregationService, SmartInitializingSingleton {
+
+    private static final int NOTIONAL_SCALE = 4;
+    private static final int SECOND_BUCKETS = 300;
+    private static final int MINUTE_BUCKETS = 1440;
+    private static final long LOW_MASK = 0xFFFF_FFFFL;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DealShardRouter dealShardRouter;
+    private final int fetchSize;
+    private final Clock clock;
+    private final Map<Integer, PairWindows> pairs = new ConcurrentHashMap<>();
+
+    public DealAggregationServiceImpl(JdbcTemplate jdbcTemplate,
+                                      DealShardRouter dealShardRouter,
+                                      @Value("${deal.jdbc.stream-fetch-size}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dealShardRouter = dealShardRouter;
+        this.fetchSize = fetchSize;
+        this.clock = Clock.systemUTC();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.nanoTime();
+        long now = clock.instant().getEpochSecond();
+        LocalDateTime since = LocalDateTime.ofEpochSecond(now - MINUTE_BUCKETS * 60L, 0, ZoneOffset.UTC);
+
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        long[] rows = new long[1];
+        dealShardRouter.forEachShard(shard -> streaming.query(
+                "SELECT from_currency_iso_code, to_currency_iso_code, deal_timestamp, deal_amount FROM deal"
+                        + " WHERE deal_timestamp >= ?",
+                rs -> {
+                    add(CurrencyCode.fromCode(rs.getString(1)), CurrencyCode.fromCode(rs.getString(2)),
+                            rs.getTimestamp(3).toLocalDateTime(), rs.getBigDecimal(4), now);
+                    rows[0]++;
+                }, since));
+        log.info("Rebuilt deal aggregates from {} deals since {} in {} ms", rows[0], since, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsPersisted(DealsPersistedEvent event) {
+        long now = clock.instant().getEpochSecond();
+        for (DealDTO deal : event.deals()) {
+            add(deal.getFromCurrencyIsoCode(), deal.getToCurrencyIsoCode(), deal.getDealTimestamp(), deal.getDealAmount(), now);
+        }
+    }
+
+    @Override
+    public DealAggregateResponse getAggregates(String fromCurrency, String toCurrency, String window) {
+        AggregationWindow aggregationWindow = AggregationWindow.fromLabel(window);
+        if (aggregationWindow == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "window must be one of 1m, 5m, 1h, 1d");
+        }
+        if ((fromCurrency == null) != (toCurrency == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fromCurrency and toCurrency must be given together");
+        }
+        CurrencyCode from = CurrencyCodeParameter.parse("fromCurrency", fromCurrency);
+        CurrencyCode to = CurrencyCodeParameter.parse("toCurrency", toCurrency);
+
+        long now = clock.instant().getEpochSecond();
+        List<DealAggregate> aggregates = new ArrayList<>();
+        if (from != null) {
+            PairWindows windows = pairs.get(CurrencyPairCode.pack(from, to));
+            aggregates.add(windows == null
+                    ? new DealAggregate(from, to, window, 0, BigDecimal.ZERO.setScale(NOTIONAL_SCALE))
+                    : windows.aggregate(aggregationWindow, now));
+        } else {
+            for (PairWindows windows : pairs.values()) {
+                aggregates.add(windows.aggregate(aggregationWindow, now));
+            }
+        }
+        return new DealAggregateResponse(0, null, "Successful", aggregates);
+    }
+
+    private void add(CurrencyCode fromCurrency, CurrencyCode toCurrency, LocalDateTime dealTimestamp, BigDecimal amount,
+                     long now) {
+        int pair = CurrencyPairCode.pack(fromCurrency, toCurrency);
+        if (pair == CurrencyPairCode.INVALID || dealTimestamp == null || amount == null) {
+            return;
+        }
+        long second = dealTimestamp.toEpochSecond(ZoneOffset.UTC);
+        if (second > now) {
+            return;
+        }
+        BigInteger notional = amount.movePointRight(NOTIONAL_SCALE).toBigIntegerExact();
+        pairs.computeIfAbsent(pair, PairWindows::new).add(second, now, notional.shiftRight(32).longValueExact(),
+                notional.longValue() & LOW_MASK);
+    }
+
+    private static final class PairWindows {
+
+        private final int pair;
+        private final Ring seconds = new Ring(1, SECOND_BUCKETS);
+        private final Ring minutes = new Ring(60, MINUTE_BUCKETS);
+
+        PairWindows(int pair) {
+            this.pair = pair;
+        }
+
+        void add(long second, long now, long notionalHigh, long notionalLow) {
+            seconds.add(second, now, notionalHigh, notionalLow);
+            minutes.add(second, now, notionalHigh, notionalLow);
+        }
+
+        DealAggregate aggregate(AggregationWindow window, long now) {
+            long seconds = window.getLength().toSeconds();
+            Totals totals = seconds <= SECOND_BUCKETS ? this.seconds.sum(seconds, now) : minutes.sum(seconds, now);
+            return new DealAggregate(CurrencyPairCode.fromCurrency(pair), CurrencyPairCode.toCurrency(pair),
+                    window.getLabel(), totals.count, new BigDecimal(totals.notional, NOTIONAL_SCALE));
+        }
+    }
+
+    /**
+     * Fixed number of buckets of {@code bucketSeconds} each; the bucket of period {@code p} lives in slot
+     * {@code p % size} until period {@code p + size} reuses it.
+     */
+    private static final class Ring {
+
+        private final long bucketSeconds;
+        private final AtomicReferenceArray<Bucket> buckets;
+
+        Ring(long bucketSeconds, int size) {
+            this.bucketSeconds = bucketSeconds;
+            this.buckets = new AtomicReferenceArray<>(size);
+        }
+
+        void add(long second, long now, long notionalHigh, long notionalLow) {
+            long period = second / bucketSeconds;
+            if (period <= now / bucketSeconds - buckets.length()) {
+                return;
+            }
+            int slot = (int) (period % buckets.length());
+            Bucket bucket = buckets.get(slot);
+            while (bucket == null || bucket.period < period) {
+                Bucket next = new Bucket(period);
+                bucket = buckets.compareAndSet(slot, bucket, next) ? next : buckets.get(slot);
+            }
+            if (bucket.period != period) {
+                return;
+            }
+            bucket.count.increment();
+            bucket.notionalHigh.add(notionalHigh);
+            bucket.notionalLow.add(notionalLow);
+        }
+
+        /**
+         * @return count and notional of the buckets in the trailing {@code windowSeconds}, the current one included
+         */
+        Totals sum(long windowSeconds, long now) {
+            long current = now / bucketSeconds;
+            long oldest = current - windowSeconds / bucketSeconds;
+            Totals totals = new Totals();
+            for (int slot = 0; slot < buckets.length(); slot++) {
+                Bucket bucket = buckets.get(slot);
+                if (bucket != null && bucket.period > oldest && bucket.period <= current) {
+                    totals.count += bucket.count.sum();
+                    totals.notional = totals.notional
+                            .add(BigInteger.valueOf(bucket.notionalHigh.sum()).shiftLeft(32))
+                            .add(BigInteger.valueOf(bucket.notionalLow.sum()));
+                }
+            }
+            return totals;
+        }
+    }
+
+    private static final class Totals {
+
+        private long count;
+        private BigInteger notional = BigInteger.ZERO;
+    }
+
+    private static final class Bucket {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder notionalHigh = new LongAdder();
+        private final LongAdder notionalLow = new LongAdder();
+        private final long period;
+
+        Bucket(long period) {
+            this.period = period;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealDTO;
+import com.demo.entity.CurrencyCode;
+import com.demo.util.DealColumnFile;
+import com.demo.util.FileSync;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+
+/**
+ * Cold tier of the deal table: deals moved out of the database by {@link DealArchiver}, stored as
+ * {@link DealColumnFile}s under {@code deal.archive.dir}.
+ * <p>
+ * The directory tree is the index: one directory per UTC day ({@code yyyy/MM/dd}) holding one or more segment files
+ * per currency pair, named after the id of their first deal ({@code USD-EUR.1234.dcol}). The archiver writes a day in
+ * bounded pages, one segment each, and deals that reach an already archived day later get a further segment. Reads
+ * list the day directories on every call, so an instance sharing the directory sees days archived by another one.
+ */
+@Slf4j
+@Component
+public class DealArchive {
+
+    private static final String SUFFIX = ".dcol";
+    private static final DateTimeFormatter DAY_DIR = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+    private static final Pattern DAY_NAME = Pattern.compile("\\d{4}/\\d{2}/\\d{2}");
+    private static final Comparator<DealDTO> POSITION =
+            Comparator.comparing(DealDTO::getDealTimestamp).thenComparing(DealDTO::getId);
+
+    private final Path dir;
+
+    public DealArchive(@Value("${deal.archive.dir}") String dir) throws IOException {
+        this.dir = Paths.get(dir);
+        Files.createDirectories(this.dir);
+        log.info("Deal archive at {} holds {} days", this.dir, days(LocalDate.MIN).size());
+    }
+
+    /**
+     * Archived deals after the {@code (afterTimestamp, afterId)} position and before {@code until}, optionally of one
+     * currency pair, in {@code (dealTimestamp, id)} order.
+     *
+     * @param limit the number of deals wanted; whole days are read, so more may be returned
+     */
+    public List<DealDTO> findPage(CurrencyCode fromCurrency, CurrencyCode toCurrency, LocalDateTime afterTimestamp,
+                                  long afterId, LocalDateTime until, int limit) {
+        List<DealDTO> deals = new ArrayList<>();
+        for (LocalDate day : days(afterTimestamp.toLocalDate())) {
+            if (deals.size() >= limit || !day.atStartOfDay().isBefore(until)) {
+                break;
+            }
+            List<DealDTO> dayDeals = new ArrayList<>();
+            for (Path segment : segments(day, fromCurrency, toCurrency)) {
+                for (DealDTO deal : read(segment)) {
+                    int compared = deal.getDealTimestamp().compareTo(afterTimestamp);
+                    if ((compared > 0 || compared == 0 && deal.getId() > afterId) && deal.getDealTimestamp().isBefore(until)) {
+                        dayDeals.add(deal);
+                    }
+                }
+            }
+            dayDeals.sort(POSITION);
+            deals.addAll(dayDeals);
+        }
+        return deals;
+    }
+
+    /**
+     * Finds an archived deal by id among the days from {@code from} until {@code until}. Every segment of those days
+     * is read, so this is meant for the odd lookup only.
+     *
+     * @return the deal, or {@code null} if it is not archived in those days
+     */
+    public DealDTO findById(long id, LocalDateTime from, LocalDateTime until) {
+        for (LocalDate day : days(from.toLocalDate())) {
+            if (!day.atStartOfDay().isBefore(until)) {
+                break;
+            }
+            DealDTO deal = findInDay(day, candidate -> candidate.getId() == id);
+            if (deal != null) {
+                return deal;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the deal of the day with this uniqueId, or {@code null} if it is not archived in that day
+     */
+    public DealDTO findByUniqueId(LocalDate day, String uniqueId) {
+        return findInDay(day, candidate -> uniqueId.equals(candidate.getUniqueId()));
+    }
+
+    /**
+     * @return the ids of the deals of a day and currency pair that are already archived
+     */
+    public Set<Long> archivedIds(LocalDate day, CurrencyCode fromCurrency, CurrencyCode toCurrency) {
+        Set<Long> ids = new HashSet<>();
+        for (Path segment : segments(day, fromCurrency, toCurrency)) {
+            for (DealDTO deal : read(segment)) {
+                ids.add(deal.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Writes the deals of a day and currency pair, sorted by {@code (dealTimestamp, id)}, as a new segment. The
+     * segment and its directory entry are durable and visible to readers once this returns.
+     *
+     * @param deals deals none of which is archived yet, so that the id of the first one names a new segment
+     */
+    public void write(LocalDate day, CurrencyCode fromCurrency, CurrencyCode toCurrency, List<DealDTO> deals)
+            throws IOException {
+        Path dayDir = dir.resolve(day.format(DAY_DIR));
+        boolean created = !Files.isDirectory(dayDir);
+        if (created) {
+            Files.createDirectories(dayDir);
+        }
+        String pair = fromCurrency.name() + '-' + toCurrency.name();
+        Path segment = dayDir.resolve(pair + '.' + deals.get(0).getId() + SUFFIX);
+        Path temp = dayDir.resolve(segment.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            DealColumnFile.write(out, fromCurrency, toCurrency, deals);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, segment, StandardCopyOption.ATOMIC_MOVE);
+        if (created) {
+            FileSync.forceDirectories(dir, dayDir);
+        } else {
+            FileSync.forceDirectory(dayDir);
+        }
+    }
+
+    /**
+     * @return the archived days from {@code from} on, in order, as found on disk
+     */
+    private List<LocalDate> days(LocalDate from) {
+        try (Stream<Path> dayDirs = Files.find(dir, 3, (path, attributes) -> attributes.isDirectory()
+                && dir.relativize(path).getNameCount() == 3)) {
+            List<LocalDate> days = new ArrayList<>();
+            dayDirs.forEach(dayDir -> {
+                String name = dir.relativize(dayDir).toString().replace(dayDir.getFileSystem().getSeparator(), "/");
+                if (DAY_NAME.matcher(name).matches()) {
+                    LocalDate day = LocalDate.parse(name, DAY_DIR);
+                    if (!day.isBefore(from)) {
+                        days.add(day);
+                    }
+                }
+            });
+            Collections.sort(days);
+            return days;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Path> segments(LocalDate day, CurrencyCode fromCurrency, CurrencyCode toCurrency) {
+        Path dayDir = dir.resolve(day.format(DAY_DIR));
+        if (!Files.isDirectory(dayDir)) {
+            return List.of();
+        }
+        String prefix = fromCurrency == null ? "" : fromCurrency.name() + '-' + toCurrency.name() + '.';
+        try (Stream<Path> files = Files.list(dayDir)) {
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(SUFFIX);
+            }).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private DealDTO findInDay(LocalDate day, Predicate<DealDTO> wanted) {
+        for (Path segment : segments(day, null, null)) {
+            for (DealDTO deal : read(segment)) {
+                if (wanted.test(deal)) {
+                    return deal;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<DealDTO> read(Path segment) {
+        try {
+            return DealColumnFile.read(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archived deals from " + segment, e);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealDTO;
+import com.demo.entity.CurrencyCode;
+import com.demo.repository.DealDedupMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * Moves deals older than {@code deal.archive.max-age} out of the {@code deal} table into the {@link DealArchive},
+ * one UTC day at a time, oldest first, so that the table only holds recent deals.
+ * <p>
+ * For every currency pair of a day, the deals are read in {@code (dealTimestamp, id)} order, {@code page-size} at a
+ * time, and every page is written to a segment, forced to disk along with its directory, and only then deleted from
+ * the table by id, {@code delete-chunk-size} ids per transaction. If a run stops in between, the next run finds the
+ * deals of the segment still in the table and deletes them without archiving them twice. Deals that arrive later for
+ * an archived day end up in a further segment.
+ * <p>
+ * Archived uniqueIds stay in {@code deal_unique_id}, so archiving requires {@link DealDedupMode#TABLE}, and are marked
+ * there with the day they were archived under ({@code archived_on}), in the transaction that deletes their deals. On MySQL a run
+ * holds a {@code GET_LOCK} so that only one instance archives at a time, and {@code deal.archive.dir} is shared with
+ * every instance that serves reads. Other databases are only supported with a single instance.
+ */
+@Slf4j
+@Component
+public class DealArchiver {
+
+    private static final String LOCK_NAME = "deal_archive";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DealArchive dealArchive;
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final int pageSize;
+    private final int deleteChunkSize;
+    private final Counter archived;
+    private Boolean mysql;
+
+    public DealArchiver(JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        DealArchive dealArchive,
+                        MeterRegistry meterRegistry,
+                        @Value("${deal.dedup.mode}") DealDedupMode dedupMode,
+                        @Value("${deal.archive.enabled}") boolean enabled,
+                        @Value("${deal.archive.max-age}") Duration maxAge,
+                        @Value("${deal.archive.page-size}") int pageSize,
+                        @Value("${deal.archive.delete-chunk-size}") int deleteChunkSize) {
+        if (enabled && dedupMode != DealDedupMode.TABLE) {
+            throw new IllegalStateException("deal.archive.enabled requires deal.dedup.mode=table");
+        }
+        if (pageSize < 1 || deleteChunkSize < 1) {
+            throw new IllegalStateException("deal.archive.page-size and deal.archive.delete-chunk-size must be > 0");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.dealArchive = dealArchive;
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+        this.pageSize = pageSize;
+        this.deleteChunkSize = deleteChunkSize;
+        this.archived = Counter.builder("deal.archive.deals")
+                .description("Deals moved from the deal table to the archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${deal.archive.cron}", zone = "UTC")
+    public void scheduledArchive() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    /**
+     * Archives every day that ended more than {@code max-age} ago, unless another instance is archiving.
+     *
+     * @return the number of deals moved
+     */
+    public synchronized long archive() {
+        if (mysql == null) {
+            mysql = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+        }
+        if (!mysql) {
+            return archiveDays();
+        }
+        Long moved = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            JdbcTemplate locked = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            Integer acquired = locked.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, LOCK_NAME);
+            if (acquired == null || acquired != 1) {
+                log.info("Deal archiving is running on another instance");
+                return 0L;
+            }
+            try {
+                return archiveDays();
+            } finally {
+                locked.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+            }
+        });
+        return moved == null ? 0 : moved;
+    }
+
+    private long archiveDays() {
+        long started = System.nanoTime();
+        LocalDateTime cutoff = LocalDate.now(ZoneOffset.UTC).minusDays(maxAge.toDays()).atStartOfDay();
+        long moved = 0;
+        LocalDate previous = null;
+        while (true) {
+            LocalDateTime oldest = jdbcTemplate.queryForObject(
+                    "SELECT MIN(deal_timestamp) FROM deal WHERE deal_timestamp < ?", LocalDateTime.class, cutoff);
+            if (oldest == null) {
+                break;
+            }
+            LocalDate day = oldest.toLocalDate();
+            if (day.equals(previous)) {
+                log.error("Deals of {} are still in the deal table after being archived, stopping", day);
+                break;
+            }
+            moved += archiveDay(day);
+            previous = day;
+        }
+        if (moved > 0) {
+            log.info("Archived {} deals older than {} in {} ms", moved, cutoff, (System.nanoTime() - started) / 1_000_000);
+        }
+        return moved;
+    }
+
+    private long archiveDay(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        List<CurrencyCode[]> pairs = jdbcTemplate.query("SELECT DISTINCT from_currency_iso_code, to_currency_iso_code"
+                        + " FROM deal WHERE deal_timestamp >= ? AND deal_timestamp < ?",
+                (rs, rowNum) -> new CurrencyCode[]{CurrencyCode.fromCode(rs.getString(1)), CurrencyCode.fromCode(rs.getString(2))},
+                start, end);
+
+        long moved = 0;
+        for (CurrencyCode[] pair : pairs) {
+            // Deals left behind by an interrupted run are already in a segment
+            Set<Long> alreadyArchived = dealArchive.archivedIds(day, pair[0], pair[1]);
+            LocalDateTime afterTimestamp = start;
+            long afterId = Long.MIN_VALUE;
+            while (true) {
+                List<DealDTO> deals = jdbcTemplate.query("SELECT id, unique_id, deal_timestamp, deal_amount FROM deal"
+                                + " WHERE from_currency_iso_code = ? AND to_currency_iso_code = ?"
+                                + " AND (deal_timestamp > ? OR deal_timestamp = ? AND id > ?) AND deal_timestamp < ?"
+                                + " ORDER BY deal_timestamp, id LIMIT ?",
+                        (rs, rowNum) -> new DealDTO(rs.getLong(1), rs.getString(2), pair[0], pair[1],
+                                rs.getTimestamp(3).toLocalDateTime(), rs.getBigDecimal(4)),
+                        pair[0].name(), pair[1].name(), afterTimestamp, afterTimestamp, afterId, end, pageSize);
+                if (deals.isEmpty()) {
+                    break;
+                }
+                moved += archivePage(day, pair, deals, alreadyArchived);
+                DealDTO last = deals.get(deals.size() - 1);
+                afterTimestamp = last.getDealTimestamp();
+                afterId = last.getId();
+            }
+        }
+        log.info("Archived {} deals of {} in {} currency pairs", moved, day, pairs.size());
+        return moved;
+    }
+
+    private long archivePage(LocalDate day, CurrencyCode[] pair, List<DealDTO> deals, Set<Long> alreadyArchived) {
+        List<DealDTO> fresh = new ArrayList<>(deals.size());
+        for (DealDTO deal : deals) {
+            if (!alreadyArchived.contains(deal.getId())) {
+                fresh.add(deal);
+            }
+        }
+        if (!fresh.isEmpty()) {
+            try {
+                dealArchive.write(day, pair[0], pair[1], fresh);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot archive deals of " + day, e);
+            }
+        }
+
+        for (int from = 0; from < deals.size(); from += deleteChunkSize) {
+            List<DealDTO> chunk = deals.subList(from, Math.min(from + deleteChunkSize, deals.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            Object[] dayAndUniqueIds = new Object[chunk.size() + 1];
+            dayAndUniqueIds[0] = day;
+            for (int i = 0; i < chunk.size(); i++) {
+                dayAndUniqueIds[i + 1] = chunk.get(i).getUniqueId();
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("UPDATE deal_unique_id SET archived_on = ? WHERE unique_id IN (" + placeholders + ")",
+                        dayAndUniqueIds);
+                jdbcTemplate.update("DELETE FROM deal WHERE id IN (" + placeholders + ")",
+                        chunk.stream().map(DealDTO::getId).toArray());
+            });
+        }
+        archived.increment(fresh.size());
+        return fresh.size();
+    }
+}
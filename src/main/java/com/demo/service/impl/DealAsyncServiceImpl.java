@@ -0,0 +1,61 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealAcceptedResponse;
+import com.demo.dto.DealRequest;
+import com.demo.service.DealAsyncService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "deal.journal.enabled", havingValue = "true")
+public class DealAsyncServiceImpl implements DealAsyncService {
+
+    private final DealJournal dealJournal;
+    private final DealJournalDrainer dealJournalDrainer;
+    private final ObjectMapper mapper;
+
+    public DealAsyncServiceImpl(DealJournal dealJournal, DealJournalDrainer dealJournalDrainer, ObjectMapper mapper) {
+        this.dealJournal = dealJournal;
+        this.dealJournalDrainer = dealJournalDrainer;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public CompletableFuture<DealAcceptedResponse> acceptDeal(DealRequest dealRequest) {
+        byte[] payload;
+        try {
+            payload = mapper.writeValueAsBytes(dealRequest);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Deal cannot be serialized");
+        }
+
+        try {
+            return dealJournal.append(payload)
+                    .thenApply(offset -> new DealAcceptedResponse(0, null, "Accepted", offset));
+        } catch (RejectedExecutionException e) {
+            log.warn("Deal journal rejected deal {}: {}", dealRequest.getUniqueId(), e.getMessage());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "The deal intake is overloaded, kindly retry later");
+        }
+    }
+
+    @Override
+    public DealAcceptedResponse getStatus(long trackingId) {
+        if (trackingId < 0 || trackingId >= dealJournal.durableOffset()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown tracking id: " + trackingId);
+        }
+        if (trackingId < dealJournalDrainer.committedOffset()) {
+            return new DealAcceptedResponse(0, null, "Processed", trackingId);
+        }
+        return new DealAcceptedResponse(0, null, "Pending", trackingId);
+    }
+}
@@ -0,0 +1,98 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealRequest;
+import com.demo.dto.DealResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+
+/**
+ * Audit trail of deal requests and responses, written to the {@code DEAL_AUDIT} logger.
+ * <p>
+ * Whether a call is sampled is decided once, by {@link #logRequest}, and passed on to {@link #logResponse}, so that
+ * a sampled request is always followed by its response. Nothing is formatted unless the logger is enabled and the
+ * call is sampled. A sampled call still formats its message
+ * on the calling thread, where Logback's asynchronous appender in {@code logback-spring.xml} prepares the event before
+ * queueing it; encoding and writing happen on the appender thread.
+ * <p>
+ * Fields listed in {@code deal.audit.masked-fields} are masked: {@code uniqueId} keeps its last four characters
+ * ({@code ****3456}), and {@code currencyIsoCode}, {@code dealTimestamp} and {@code dealAmount} are replaced by
+ * {@code ****}.
+ */
+@Component
+public class DealAuditLogger {
+
+    private static final Logger AUDIT = LoggerFactory.getLogger("DEAL_AUDIT");
+    private static final int VISIBLE_CHARS = 4;
+
+    private final double sampleRate;
+    private final boolean maskUniqueId;
+    private final boolean maskCurrencies;
+    private final boolean maskTimestamp;
+    private final boolean maskAmount;
+
+    public DealAuditLogger(@Value("${deal.audit.sample-rate}") double sampleRate,
+                           @Value("${deal.audit.masked-fields}") List<String> maskedFields) {
+        this.sampleRate = sampleRate;
+        this.maskUniqueId = maskedFields.contains("uniqueId");
+        this.maskCurrencies = maskedFields.contains("currencyIsoCode");
+        this.maskTimestamp = maskedFields.contains("dealTimestamp");
+        this.maskAmount = maskedFields.contains("dealAmount");
+    }
+
+    /**
+     * @return whether the call is sampled, to be passed on to {@link #logResponse}
+     */
+    public boolean logRequest(DealRequest dealRequest) {
+        if (!sampled()) {
+            return false;
+        }
+        AUDIT.info("Deal request: uniqueId={} from={} to={} timestamp={} amount={}",
+                mask(dealRequest.getUniqueId(), maskUniqueId),
+                maskCurrencies ? "****" : dealRequest.getFromCurrencyIsoCode(),
+                maskCurrencies ? "****" : dealRequest.getToCurrencyIsoCode(),
+                maskTimestamp ? "****" : dealRequest.getDealTimestamp(),
+                maskAmount ? "****" : dealRequest.getDealAmount());
+        return true;
+    }
+
+    /**
+     * @param sampled what {@link #logRequest} returned for the request of this response
+     */
+    public void logResponse(DealResponse response, boolean sampled) {
+        if (!sampled) {
+            return;
+        }
+        if (response.getData() == null) {
+            AUDIT.info("Deal response: status={} message={}", response.getStatus(), response.getMessage());
+        } else {
+            AUDIT.info("Deal response: status={} id={} uniqueId={}", response.getStatus(), response.getData().getId(),
+                    mask(response.getData().getUniqueId(), maskUniqueId));
+        }
+    }
+
+    public void logBatch(int rows) {
+        if (sampled()) {
+            AUDIT.info("Deal batch request: rows={}", rows);
+        }
+    }
+
+    private boolean sampled() {
+        return AUDIT.isInfoEnabled() && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private static Object mask(String value, boolean masked) {
+        if (!masked || value == null) {
+            return value;
+        }
+        if (value.length() <= VISIBLE_CHARS) {
+            return "****";
+        }
+        return "****" + value.substring(value.length() - VISIBLE_CHARS);
+    }
+}
@@ -0,0 +1,242 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealBatchItem;
+import com.demo.dto.DealBatchItemStatus;
+import com.demo.dto.DealDTO;
+import com.demo.dto.DealRequest;
+import com.demo.entity.Deal;
+import com.demo.repository.DealJdbcRepository;
+import com.demo.repository.DealOutboxRepository;
+import com.demo.repository.DealShardRouter;
+import com.demo.service.DealsPersistedEvent;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+
+/**
+ * Writes one chunk of deal requests: validates every row, drops rows whose uniqueId repeats inside the chunk
+ * or already exists in the database, and inserts the rest as a single JDBC batch. UniqueIds of ranges this node owns
+ * are checked against the {@link ClusterDedupIndex}; of the others, only those that the {@link UniqueIdFilter}
+ * reports as probably present are looked up, in one query per chunk.
+ * <p>
+ * Chunks are expected to be written one after the other, each in its own transaction, so rows committed by an
+ * earlier chunk are seen by the existence query of the next one. With sharding, a chunk is split by the shard of
+ * each uniqueId and written in one transaction per shard ({@link #writeAcrossShards}).
+ */
+@Component
+public class DealBatchWriter {
+
+    private final DealJdbcRepository dealJdbcRepository;
+    private final DealOutboxRepository dealOutboxRepository;
+    private final UniqueIdFilter uniqueIdFilter;
+    private final ClusterDedupIndex clusterDedupIndex;
+    private final Validator validator;
+    private final DealMetrics dealMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DealShardRouter dealShardRouter;
+    private final DealIngestionFence dealIngestionFence;
+    private final TransactionTemplate transactionTemplate;
+
+    public DealBatchWriter(DealJdbcRepository dealJdbcRepository,
+                           DealOutboxRepository dealOutboxRepository,
+                           UniqueIdFilter uniqueIdFilter,
+                           ClusterDedupIndex clusterDedupIndex,
+                           Validator validator,
+                           DealMetrics dealMetrics,
+                           ApplicationEventPublisher eventPublisher,
+                           DealShardRouter dealShardRouter,
+                           DealIngestionFence dealIngestionFence,
+                           TransactionTemplate transactionTemplate) {
+        this.dealJdbcRepository = dealJdbcRepository;
+        this.dealOutboxRepository = dealOutboxRepository;
+        this.uniqueIdFilter = uniqueIdFilter;
+        this.clusterDedupIndex = clusterDedupIndex;
+        this.validator = validator;
+        this.dealMetrics = dealMetrics;
+        this.eventPublisher = eventPublisher;
+        this.dealShardRouter = dealShardRouter;
+        this.dealIngestionFence = dealIngestionFence;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Writes a chunk in its own transaction, or in one transaction per shard when sharding is enabled. Must be called
+     * outside a transaction. If a shard fails, the shards before it stay committed and are reported by the
+     * {@link PartialWriteException}.
+     *
+     * @return one result per row, in input order
+     */
+    public List<DealBatchItem> writeAcrossShards(List<DealRequest> chunk, int firstIndex) {
+        if (dealShardRouter.count() == 1) {
+            return transactionTemplate.execute(status -> writeChunk(chunk, firstIndex));
+        }
+        // A row without a uniqueId is invalid wherever it goes and is reported from shard 0
+        Map<Integer, List<Integer>> positionsByShard = new TreeMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            DealRequest dealRequest = chunk.get(i);
+            int shard = dealShardRouter.shardFor(dealRequest == null ? null : dealRequest.getUniqueId());
+            positionsByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(i);
+        }
+        DealBatchItem[] results = new DealBatchItem[chunk.size()];
+        for (Map.Entry<Integer, List<Integer>> shardPositions : positionsByShard.entrySet()) {
+            List<Integer> positions = shardPositions.getValue();
+            List<DealRequest> rows = positions.stream().map(chunk::get).toList();
+            List<DealBatchItem> written;
+            try {
+                written = dealShardRouter.inShard(shardPositions.getKey(),
+                        () -> transactionTemplate.execute(status -> writeChunk(rows, 0)));
+            } catch (RuntimeException e) {
+                throw new PartialWriteException(Arrays.stream(results).filter(Objects::nonNull).toList(), e);
+            }
+            for (DealBatchItem item : written) {
+                int position = positions.get(item.getIndex());
+                item.setIndex(firstIndex + position);
+                results[position] = item;
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * @param chunk       the rows to write
+     * @param firstIndex  position of the first row of the chunk in the whole batch, used for the result indexes
+     * @return one result per row, in input order
+     */
+    public List<DealBatchItem> writeChunk(List<DealRequest> chunk, int firstIndex) {
+        dealIngestionFence.checkOpen();
+        List<DealBatchItem> results = new ArrayList<>(chunk.size());
+        List<DealRequest> candidates = new ArrayList<>(chunk.size());
+        Set<String> seen = new HashSet<>();
+        dealMetrics.timeCommit();
+
+        Timer.Sample validation = dealMetrics.startStage();
+        for (int i = 0; i < chunk.size(); i++) {
+            DealRequest dealRequest = chunk.get(i);
+            String violation = validate(dealRequest);
+            String uniqueId = dealRequest == null ? null : dealRequest.getUniqueId();
+            if (violation != null) {
+                results.add(new DealBatchItem(firstIndex + i, uniqueId, DealBatchItemStatus.INVALID, violation));
+            } else if (!seen.add(uniqueId)) {
+                results.add(new DealBatchItem(firstIndex + i, uniqueId, DealBatchItemStatus.DUPLICATE,
+                        "Deal with the same unique ID appears earlier in the batch: " + uniqueId));
+            } else {
+                results.add(new DealBatchItem(firstIndex + i, uniqueId, DealBatchItemStatus.ACCEPTED, null));
+                candidates.add(dealRequest);
+            }
+        }
+
+        dealMetrics.stopStage(validation, DealMetrics.Stage.VALIDATE);
+
+        if (candidates.isEmpty()) {
+            recordOutcomes(chunk, results);
+            return results;
+        }
+
+        // Rows already in the table are filtered out up front; the insert itself catches anything inserted meanwhile
+        Timer.Sample dedupCheck = dealMetrics.startStage();
+        Set<String> probable = new HashSet<>();
+        Set<String> taken = new HashSet<>();
+        for (String uniqueId : seen) {
+            if (clusterDedupIndex.owns(uniqueId)) {
+                if (clusterDedupIndex.isTaken(uniqueId)) {
+                    taken.add(uniqueId);
+                }
+            } else if (uniqueIdFilter.mightContain(uniqueId)) {
+                probable.add(uniqueId);
+            }
+        }
+        Set<String> existing = dealJdbcRepository.findExistingUniqueIds(probable);
+        existing.addAll(taken);
+        List<Deal> deals = new ArrayList<>(candidates.size());
+        for (DealRequest candidate : candidates) {
+            if (!existing.contains(candidate.getUniqueId())) {
+                deals.add(DealMapper.convertToEntity(candidate));
+            }
+        }
+        dealMetrics.stopStage(dedupCheck, DealMetrics.Stage.DEDUP_CHECK);
+
+        Timer.Sample insert = dealMetrics.startStage();
+        boolean[] inserted = dealJdbcRepository.batchInsert(deals);
+        dealMetrics.stopStage(insert, DealMetrics.Stage.INSERT);
+        List<DealDTO> persisted = new ArrayList<>(deals.size());
+        for (int i = 0; i < deals.size(); i++) {
+            uniqueIdFilter.put(deals.get(i).getUniqueId());
+            if (inserted[i]) {
+                persisted.add(DealMapper.convertToDto(deals.get(i)));
+            } else {
+                existing.add(deals.get(i).getUniqueId());
+                clusterDedupIndex.record(deals.get(i).getUniqueId());
+            }
+        }
+        dealOutboxRepository.append(persisted);
+        eventPublisher.publishEvent(new DealsPersistedEvent(persisted));
+
+        if (!existing.isEmpty()) {
+            for (DealBatchItem item : results) {
+                if (item.getStatus() == DealBatchItemStatus.ACCEPTED && existing.contains(item.getUniqueId())) {
+                    item.setStatus(DealBatchItemStatus.DUPLICATE);
+                    item.setMessage("Deal with the same unique ID already exists: " + item.getUniqueId());
+                }
+            }
+        }
+        recordOutcomes(chunk, results);
+        return results;
+    }
+
+    private void recordOutcomes(List<DealRequest> chunk, List<DealBatchItem> results) {
+        for (int i = 0; i < chunk.size(); i++) {
+            DealRequest dealRequest = chunk.get(i);
+            // Accepted rows are counted by DealMetrics once the transaction commits
+            switch (results.get(i).getStatus()) {
+                case DUPLICATE -> dealMetrics.recordOutcome(DealMetrics.Outcome.DUPLICATE,
+                        dealRequest.getFromCurrencyIsoCode(), dealRequest.getToCurrencyIsoCode());
+                // The currency codes of an invalid row are not trusted as tag values
+                case INVALID -> dealMetrics.recordOutcome(DealMetrics.Outcome.INVALID, null, null);
+            }
+        }
+    }
+
+    private String validate(DealRequest dealRequest) {
+        if (dealRequest == null) {
+            return "Validation error. Deal cannot be null";
+        }
+        Set<ConstraintViolation<DealRequest>> violations = validator.validate(dealRequest);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return "Validation error. " + violations.iterator().next().getMessage();
+    }
+
+    /**
+     * A chunk that failed after some of its shards were committed.
+     */
+    public static class PartialWriteException extends RuntimeException {
+
+        private final List<DealBatchItem> written;
+
+        PartialWriteException(List<DealBatchItem> written, RuntimeException cause) {
+            super("Writing a chunk failed after " + written.size() + " of its rows were committed", cause);
+            this.written = written;
+        }
+
+        /**
+         * @return the results of the rows committed before the failure, with their batch indexes
+         */
+        public List<DealBatchItem> written() {
+            return written;
+        }
+    }
+}
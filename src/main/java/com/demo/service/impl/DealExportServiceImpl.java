@@ -0,0 +1,231 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealDTO;
+import com.demo.dto.DealFileFormat;
+import com.demo.entity.Deal;
+import com.demo.repository.DealRepository;
+import com.demo.repository.DealShardRouter;
+import com.demo.service.DealExportService;
+import com.demo.util.DealCursor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Streams a window of deals as NDJSON or CSV. Rows go from the database cursor to the output one at a time, so an
+ * export of any size runs in constant memory. The CSV columns are the ones the file import reads, plus the id.
+ * <p>
+ * With sharding, the window is read in keyset pages of {@code deal.jdbc.stream-fetch-size} deals (1000 when that is
+ * not positive), each page read from every shard in parallel and merged by {@code (dealTimestamp, id)}. Deals moved to
+ * the {@link DealArchive} are read a day at a time and merged into the rows of the table the same way, so an export
+ * and its {@code afterId} span both tiers.
+ */
+@Slf4j
+@Service
+public class DealExportServiceImpl implements DealExportService {
+
+    private static final String CSV_HEADER = "id,uniqueId,fromCurrencyIsoCode,toCurrencyIsoCode,dealTimestamp,dealAmount\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Comparator<DealDTO> POSITION =
+            Comparator.comparing(DealDTO::getDealTimestamp).thenComparing(DealDTO::getId);
+
+    private final DealRepository dealRepository;
+    private final DealShardRouter dealShardRouter;
+    private final DealArchive dealArchive;
+    private final ObjectMapper mapper;
+    private final int shardPageSize;
+
+    public DealExportServiceImpl(DealRepository dealRepository,
+                                 DealShardRouter dealShardRouter,
+                                 DealArchive dealArchive,
+                                 ObjectMapper mapper,
+                                 @Value("${deal.jdbc.stream-fetch-size}") int fetchSize) {
+        this.dealRepository = dealRepository;
+        this.dealShardRouter = dealShardRouter;
+        this.dealArchive = dealArchive;
+        this.mapper = mapper;
+        this.shardPageSize = fetchSize > 0 ? fetchSize : 1000;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DealCursor startPosition(LocalDateTime from, LocalDateTime to, Long afterId) {
+        if (!from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        if (afterId == null) {
+            return new DealCursor(from, 0);
+        }
+        // An archived deal is only looked for in the days of the window, where a previous export of it found it
+        LocalDateTime last = dealShardRouter.scatter(shard -> dealRepository.findById(afterId)).stream()
+                .flatMap(Optional::stream)
+                .findFirst()
+                .map(Deal::getDealTimestamp)
+                .or(() -> Optional.ofNullable(dealArchive.findById(afterId, from, to)).map(DealDTO::getDealTimestamp))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown afterId: " + afterId));
+        return last.isBefore(from)
+                ? new DealCursor(from, 0)
+                : new DealCursor(last, afterId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long export(DealFileFormat format, DealCursor start, LocalDateTime to, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        try (Stream<DealDTO> deals = merge(dealShardRouter.count() == 1
+                ? dealRepository.streamRange(start.timestamp(), start.id(), to)
+                : pagesAcrossShards(start, to), archivedDays(start, to))) {
+            Iterator<DealDTO> rows = deals.iterator();
+            if (format == DealFileFormat.CSV) {
+                writer.write(CSV_HEADER);
+                while (rows.hasNext()) {
+                    writeCsv(writer, rows.next());
+                    count++;
+                }
+            } else {
+                JsonGenerator generator = mapper.getFactory().createGenerator(writer)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .setRootValueSeparator(null);
+                while (rows.hasNext()) {
+                    generator.writeObject(rows.next());
+                    generator.writeRaw('\n');
+                    count++;
+                }
+                generator.close();
+            }
+            writer.flush();
+        }
+
+        log.info("Exported {} deals after {} until {} in {} ms", count, start, to, System.currentTimeMillis() - started);
+        return count;
+    }
+
+    private Stream<DealDTO> pagesAcrossShards(DealCursor start, LocalDateTime to) {
+        return Stream.iterate(pageAcrossShards(start, to),
+                        page -> !page.isEmpty(),
+                        page -> {
+                            if (page.size() < shardPageSize) {
+                                return List.of();
+                            }
+                            DealDTO last = page.get(page.size() - 1);
+                            return pageAcrossShards(new DealCursor(last.getDealTimestamp(), last.getId()), to);
+                        })
+                .flatMap(List::stream);
+    }
+
+    private List<DealDTO> pageAcrossShards(DealCursor after, LocalDateTime to) {
+        Limit limit = Limit.of(shardPageSize);
+        return DealShardRouter.mergeByPosition(dealShardRouter.scatter(
+                shard -> dealRepository.findPage(after.timestamp(), after.id(), to, limit)), shardPageSize);
+    }
+
+    /**
+     * The archived deals of the window, one archived day at a time: {@link DealArchive#findPage} reads whole days, so
+     * asking for one deal returns the rest of the next day that has any.
+     */
+    private Stream<DealDTO> archivedDays(DealCursor start, LocalDateTime to) {
+        return Stream.iterate(dealArchive.findPage(null, null, start.timestamp(), start.id(), to, 1),
+                        page -> !page.isEmpty(),
+                        page -> {
+                            DealDTO last = page.get(page.size() - 1);
+                            return dealArchive.findPage(null, null, last.getDealTimestamp(), last.getId(), to, 1);
+                        })
+                .flatMap(List::stream);
+    }
+
+    /**
+     * Merges two streams ordered by {@code (dealTimestamp, id)}. A deal in both, which happens while the archiver
+     * moves it out of the table, is kept once.
+     */
+    private static Stream<DealDTO> merge(Stream<DealDTO> table, Stream<DealDTO> archived) {
+        Iterator<DealDTO> tableRows = table.iterator();
+        Iterator<DealDTO> archivedRows = archived.iterator();
+        Iterator<DealDTO> merged = new Iterator<>() {
+            private DealDTO nextTable;
+            private DealDTO nextArchived;
+
+            @Override
+            public boolean hasNext() {
+                if (nextTable == null && tableRows.hasNext()) {
+                    nextTable = tableRows.next();
+                }
+                if (nextArchived == null && archivedRows.hasNext()) {
+                    nextArchived = archivedRows.next();
+                }
+                return nextTable != null || nextArchived != null;
+            }
+
+            @Override
+            public DealDTO next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int compared = nextTable == null ? 1 : nextArchived == null ? -1 : POSITION.compare(nextTable, nextArchived);
+                DealDTO deal = compared <= 0 ? nextTable : nextArchived;
+                if (compared <= 0) {
+                    nextTable = null;
+                }
+                if (compared >= 0) {
+                    nextArchived = null;
+                }
+                return deal;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(table::close)
+                .onClose(archived::close);
+    }
+
+    private static void writeCsv(Writer writer, DealDTO deal) throws IOException {
+        writer.write(String.valueOf(deal.getId()));
+        writer.write(',');
+        writer.write(csvField(deal.getUniqueId()));
+        writer.write(',');
+        writer.write(deal.getFromCurrencyIsoCode().name());
+        writer.write(',');
+        writer.write(deal.getToCurrencyIsoCode().name());
+        writer.write(',');
+        writer.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(deal.getDealTimestamp()));
+        writer.write(',');
+        writer.write(deal.getDealAmount().toPlainString());
+        writer.write('\n');
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
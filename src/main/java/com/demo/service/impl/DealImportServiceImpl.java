@@ -0,0 +1,297 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealBatchItem;
+import com.demo.dto.DealFileFormat;
+import com.demo.dto.DealImportResponse;
+import com.demo.dto.DealImportSummary;
+import com.demo.dto.DealRequest;
+import com.demo.entity.Checkpoint;
+import com.demo.entity.CurrencyCode;
+import com.demo.repository.CheckpointRepository;
+import com.demo.repository.DealShardRouter;
+import com.demo.service.DealImportService;
+import com.demo.util.CsvLineParser;
+import com.demo.util.OffsetLineReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+
+/**
+ * Streams CSV or NDJSON deal files row by row and writes them through {@link DealBatchWriter} in fixed-size
+ * chunks. The byte offset reached is saved in the same transaction as each chunk, so an interrupted import
+ * resumes right after the last committed chunk and never reads or inserts a row twice. With sharding the chunk and the
+ * offset are on different databases, so the offset is saved right after the chunk: a chunk interrupted in between is
+ * read again and its rows already written come back as duplicates.
+ */
+@Slf4j
+@Service
+public class DealImportServiceImpl implements DealImportService {
+
+    private static final String[] CSV_COLUMNS =
+            {"uniqueId", "fromCurrencyIsoCode", "toCurrencyIsoCode", "dealTimestamp", "dealAmount"};
+    private static final int FINGERPRINT_BYTES = 64 * 1024;
+
+    private final DealBatchWriter dealBatchWriter;
+    private final CheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DealShardRouter dealShardRouter;
+    private final ObjectMapper mapper;
+    private final Path baseDir;
+    private final Path spoolDir;
+    private final int chunkSize;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public DealImportServiceImpl(DealBatchWriter dealBatchWriter,
+                                 CheckpointRepository checkpointRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 DealShardRouter dealShardRouter,
+                                 ObjectMapper mapper,
+                                 @Value("${deal.import.base-dir}") String baseDir,
+                                 @Value("${deal.import.chunk-size}") int chunkSize) {
+        this.dealBatchWriter = dealBatchWriter;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.dealShardRouter = dealShardRouter;
+        this.mapper = mapper;
+        this.baseDir = Paths.get(baseDir).toAbsolutePath().normalize();
+        this.spoolDir = this.baseDir.resolve("uploads");
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public DealImportResponse importFile(String path, DealFileFormat format) {
+        Path file = baseDir.resolve(path).normalize();
+        if (!file.startsWith(baseDir) || !Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File not found in the import directory: " + path);
+        }
+        return importPath(file, format);
+    }
+
+    @Override
+    public DealImportResponse importUpload(MultipartFile upload, DealFileFormat format) {
+        String fileName = Paths.get(String.valueOf(upload.getOriginalFilename())).getFileName().toString();
+        try {
+            Files.createDirectories(spoolDir);
+            Path spooled = spoolDir.resolve(fileName);
+            Path tmp = Files.createTempFile(spoolDir, fileName, ".part");
+            upload.transferTo(tmp);
+            Files.move(tmp, spooled, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return importPath(spooled, format);
+        } catch (IOException e) {
+            log.error("Deal import upload error: {}", fileName, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while storing the uploaded file.Kindly contact the administrator ");
+        }
+    }
+
+    private DealImportResponse importPath(Path file, DealFileFormat format) {
+        String fileName = file.getFileName().toString();
+        if (format == null) {
+            format = DealFileFormat.fromFileName(fileName);
+        }
+        if (format == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot tell the file format from its name, expected .csv or .ndjson: " + fileName);
+        }
+
+        String checkpointName;
+        try {
+            checkpointName = checkpointName(file);
+        } catch (IOException e) {
+            log.error("Deal import error: {}", file, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while reading the file.Kindly contact the administrator ");
+        }
+        if (!running.add(checkpointName)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Import of this file is already running: " + fileName);
+        }
+
+        try {
+            DealImportSummary summary = runImport(file, format, checkpointName);
+            log.info("Deal import finished: {}", summary);
+            return new DealImportResponse(0, null, "Successful", summary);
+        } catch (IOException e) {
+            log.error("Deal import error: {}", file, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while reading the file.Kindly contact the administrator ");
+        } finally {
+            running.remove(checkpointName);
+        }
+    }
+
+    private DealImportSummary runImport(Path file, DealFileFormat format, String checkpointName) throws IOException {
+        Checkpoint checkpoint = checkpointRepository.findById(checkpointName)
+                .orElseGet(() -> new Checkpoint(checkpointName, 0L, null));
+
+        DealImportSummary summary = new DealImportSummary();
+        summary.setFile(file.getFileName().toString());
+        summary.setFormat(format);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int[] columns = null;
+            long startOffset = checkpoint.getPosition();
+            if (format == DealFileFormat.CSV) {
+                OffsetLineReader headerReader = new OffsetLineReader(Channels.newInputStream(channel.position(0)), 0, 8 * 1024);
+                String header = headerReader.readLine();
+                columns = csvColumns(header);
+                if (startOffset == 0 && columns != null) {
+                    startOffset = headerReader.offset();
+                }
+                if (columns == null) {
+                    columns = new int[]{0, 1, 2, 3, 4};
+                }
+            }
+            summary.setStartOffset(startOffset);
+
+            channel.position(startOffset);
+            OffsetLineReader reader = new OffsetLineReader(Channels.newInputStream(channel), startOffset);
+            List<DealRequest> chunk = new ArrayList<>(chunkSize);
+            long unparsable = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                summary.setRowsRead(summary.getRowsRead() + 1);
+                DealRequest dealRequest = format == DealFileFormat.CSV ? parseCsv(line, columns) : parseJson(line);
+                if (dealRequest == null) {
+                    unparsable++;
+                    log.debug("Unparsable row before offset {} in {}", reader.offset(), file);
+                } else {
+                    chunk.add(dealRequest);
+                }
+                if (chunk.size() == chunkSize) {
+                    commitChunk(chunk, checkpoint, reader.offset(), summary);
+                    chunk.clear();
+                }
+            }
+            commitChunk(chunk, checkpoint, reader.offset(), summary);
+            summary.setInvalid(summary.getInvalid() + unparsable);
+            summary.setEndOffset(reader.offset());
+        }
+        return summary;
+    }
+
+    private void commitChunk(List<DealRequest> chunk, Checkpoint checkpoint, long offset, DealImportSummary summary) {
+        List<DealBatchItem> results;
+        if (dealShardRouter.count() == 1) {
+            results = transactionTemplate.execute(status -> {
+                List<DealBatchItem> written = dealBatchWriter.writeChunk(chunk, 0);
+                saveCheckpoint(checkpoint, offset);
+                return written;
+            });
+        } else {
+            results = dealBatchWriter.writeAcrossShards(chunk, 0);
+            transactionTemplate.executeWithoutResult(status -> saveCheckpoint(checkpoint, offset));
+        }
+        for (DealBatchItem item : results) {
+            switch (item.getStatus()) {
+                case ACCEPTED -> summary.setAccepted(summary.getAccepted() + 1);
+                case DUPLICATE -> summary.setDuplicates(summary.getDuplicates() + 1);
+                case INVALID -> summary.setInvalid(summary.getInvalid() + 1);
+            }
+        }
+    }
+
+    private void saveCheckpoint(Checkpoint checkpoint, long offset) {
+        checkpoint.setPosition(offset);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Maps the header names to the positions of {@link #CSV_COLUMNS}, or returns {@code null} when the first
+     * line is not a header.
+     */
+    private int[] csvColumns(String header) {
+        if (header == null) {
+            return null;
+        }
+        List<String> names = CsvLineParser.parse(header);
+        int[] columns = new int[CSV_COLUMNS.length];
+        for (int i = 0; i < CSV_COLUMNS.length; i++) {
+            columns[i] = -1;
+            for (int j = 0; j < names.size(); j++) {
+                if (names.get(j).equalsIgnoreCase(CSV_COLUMNS[i])) {
+                    columns[i] = j;
+                }
+            }
+        }
+        return columns[0] < 0 ? null : columns;
+    }
+
+    private DealRequest parseCsv(String line, int[] columns) {
+        List<String> fields = CsvLineParser.parse(line);
+        try {
+            DealRequest dealRequest = new DealRequest();
+            dealRequest.setUniqueId(field(fields, columns[0]));
+            dealRequest.setFromCurrencyIsoCode(CurrencyCode.fromCode(field(fields, columns[1])));
+            dealRequest.setToCurrencyIsoCode(CurrencyCode.fromCode(field(fields, columns[2])));
+            String timestamp = field(fields, columns[3]);
+            dealRequest.setDealTimestamp(timestamp == null ? null : LocalDateTime.parse(timestamp));
+            String amount = field(fields, columns[4]);
+            dealRequest.setDealAmount(amount == null ? null : new BigDecimal(amount));
+            return dealRequest;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private DealRequest parseJson(String line) {
+        try {
+            return mapper.readValue(line, DealRequest.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size() || fields.get(column).isEmpty()) {
+            return null;
+        }
+        return fields.get(column);
+    }
+
+    /**
+     * Identifies a file by its name, size and a checksum of its head, so re-uploading the same content after a
+     * crash resumes the earlier import while a new file that reuses the name starts from zero.
+     */
+    private static String checkpointName(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        long size;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = channel.size();
+            ByteBuffer head = ByteBuffer.allocate((int) Math.min(size, FINGERPRINT_BYTES));
+            while (head.hasRemaining() && channel.read(head) > 0) {
+                // fill the buffer
+            }
+            head.flip();
+            crc.update(head);
+        }
+        String fileName = file.getFileName().toString();
+        if (fileName.length() > 160) {
+            fileName = fileName.substring(0, 160);
+        }
+        return String.format(Locale.ROOT, "import:%s:%d:%08x", fileName, size, crc.getValue());
+    }
+}
@@ -0,0 +1,102 @@
+package com.demo.service.impl;
+
+import com.demo.repository.DealShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+
+/**
+ * Pauses deal ingestion on every instance, for maintenance that must not race with writes.
+ * <p>
+ * The pause is the {@code deal_ingestion_pause} row on shard 0, re-read by each instance every
+ * {@code deal.ingestion.fence-check-interval} ms. While it is set, the write paths reject new deals with 503 and the
+ * journal is not drained. Writes that had already passed the check may still commit, so the pause only counts as
+ * {@linkplain #isFenced() in force} once every instance has had two intervals to see it and
+ * {@code deal.ingestion.drain-time} has passed for the writes in flight to end.
+ */
+@Slf4j
+@Component
+public class DealIngestionFence {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DealShardRouter dealShardRouter;
+    private final long checkIntervalMillis;
+    private final long drainTimeMillis;
+    private volatile boolean loaded;
+    private volatile long pausedAt;
+
+    public DealIngestionFence(JdbcTemplate jdbcTemplate,
+                              DealShardRouter dealShardRouter,
+                              @Value("${deal.ingestion.fence-check-interval}") long checkIntervalMillis,
+                              @Value("${deal.ingestion.drain-time}") Duration drainTime) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dealShardRouter = dealShardRouter;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.drainTimeMillis = drainTime.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${deal.ingestion.fence-check-interval}")
+    public void refresh() {
+        long current = read();
+        boolean wasPaused = loaded && pausedAt != 0;
+        pausedAt = current;
+        loaded = true;
+        if (current != 0 && !wasPaused) {
+            log.warn("Deal ingestion is paused, deals are rejected until it is resumed");
+        } else if (current == 0 && wasPaused) {
+            log.info("Deal ingestion resumed");
+        }
+    }
+
+    public boolean isPaused() {
+        if (!loaded) {
+            refresh();
+        }
+        return pausedAt != 0;
+    }
+
+    /**
+     * @throws ResponseStatusException 503 while ingestion is paused
+     */
+    public void checkOpen() {
+        if (isPaused()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Deal ingestion is paused for maintenance, kindly retry later");
+        }
+    }
+
+    /**
+     * @return whether ingestion has been paused long enough that no instance writes deals any more
+     */
+    public boolean isFenced() {
+        long at = read();
+        return at != 0 && System.currentTimeMillis() - at >= 2 * checkIntervalMillis + drainTimeMillis;
+    }
+
+    /**
+     * @return the time left, in ms, before the pause is {@linkplain #isFenced() in force}
+     */
+    public long pause() {
+        dealShardRouter.inShard(0, () -> jdbcTemplate.update(
+                "UPDATE deal_ingestion_pause SET paused_at = ? WHERE id = 1 AND paused_at = 0", System.currentTimeMillis()));
+        refresh();
+        return Math.max(0, pausedAt + 2 * checkIntervalMillis + drainTimeMillis - System.currentTimeMillis());
+    }
+
+    public void resume() {
+        dealShardRouter.inShard(0, () -> jdbcTemplate.update("UPDATE deal_ingestion_pause SET paused_at = 0 WHERE id = 1"));
+        refresh();
+    }
+
+    private long read() {
+        Long at = dealShardRouter.inShard(0, () -> jdbcTemplate.queryForObject(
+                "SELECT paused_at FROM deal_ingestion_pause WHERE id = 1", Long.class));
+        return at == null ? 0 : at;
+    }
+}
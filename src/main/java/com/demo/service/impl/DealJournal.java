@@ -0,0 +1,201 @@
+package com.demo.service.impl;
+
+import com.demo.util.FileSync;
+import com.demo.util.SegmentedJournal;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Durable local journal behind the asynchronous deal intake.
+ * <p>
+ * Appends are queued to a single writer thread that writes everything waiting in one go and then issues one
+ * fsync for the whole group, so the cost of a sync is shared by all requests that arrived while the previous
+ * one was running. The future returned by {@link #append} completes with the record offset only once the record
+ * is on disk.
+ * <p>
+ * Records stay in the journal until they are drained to the database, so {@code deal.journal.dir} must be on
+ * persistent storage, and the drained offset is checkpointed under {@code deal.journal.node-id}, which must stay the
+ * same for as long as the directory is in use. The node id is recorded in the directory when it is first opened, and
+ * the journal refuses to open with another one rather than replay it from the start or strand its checkpoint.
+ * <p>
+ * Records that cannot be read back as a deal are moved to {@code dead-letter/<offset>.record} in the directory, so
+ * that the drain can go past them without losing them.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "deal.journal.enabled", havingValue = "true")
+public class DealJournal {
+
+    private static final String NODE_ID_FILE = "node-id";
+    private static final String DEAD_LETTER_DIR = "dead-letter";
+
+    private final SegmentedJournal journal;
+    private final Path dir;
+    private final String nodeId;
+    private final BlockingQueue<PendingAppend> queue;
+    private final int maxGroupSize;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public DealJournal(@Value("${deal.journal.dir}") String dir,
+                       @Value("${deal.journal.node-id}") String nodeId,
+                       @Value("${deal.journal.segment-size}") long segmentSize,
+                       @Value("${deal.journal.queue-capacity}") int queueCapacity,
+                       @Value("${deal.journal.max-group-size}") int maxGroupSize) throws IOException {
+        if (dir.isBlank()) {
+            throw new IllegalStateException("deal.journal.enabled requires deal.journal.dir on persistent storage");
+        }
+        Path path = Paths.get(dir).toAbsolutePath().normalize();
+        if (path.startsWith(Paths.get(System.getProperty("java.io.tmpdir")).toAbsolutePath().normalize())) {
+            throw new IllegalStateException("deal.journal.dir must not be under java.io.tmpdir, which may be wiped"
+                    + " on restart with deals not yet drained: " + path);
+        }
+        if (nodeId.isBlank()) {
+            throw new IllegalStateException("deal.journal.enabled requires deal.journal.node-id");
+        }
+        this.journal = new SegmentedJournal(path, segmentSize);
+        this.dir = path;
+        this.nodeId = nodeId;
+        checkNodeId(path);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxGroupSize = maxGroupSize;
+        this.writer = new Thread(this::writeLoop, "deal-journal-writer");
+        this.writer.start();
+        log.info("Deal journal opened in {} at offset {}", dir, journal.durableOffset());
+    }
+
+    /**
+     * @return a future completed with the offset of the record once it has been synced to disk
+     * @throws RejectedExecutionException when the append queue is full
+     */
+    public CompletableFuture<Long> append(byte[] payload) {
+        PendingAppend pending = new PendingAppend(payload, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new RejectedExecutionException("Deal journal is full or closed");
+        }
+        return pending.result();
+    }
+
+    /**
+     * @return the name of the checkpoint recording how far this journal has been drained
+     */
+    public String checkpointName() {
+        return "journal:" + nodeId;
+    }
+
+    public List<SegmentedJournal.Record> read(long fromOffset, int maxRecords) throws IOException {
+        return journal.read(fromOffset, maxRecords);
+    }
+
+    public long durableOffset() {
+        return journal.durableOffset();
+    }
+
+    public void deleteBefore(long offset) throws IOException {
+        journal.deleteBefore(offset);
+    }
+
+    /**
+     * Copies the payload of a record to the dead-letter directory and syncs it, before the drain moves past it.
+     * Writing the same record again replaces the copy.
+     *
+     * @return the file holding the payload
+     */
+    public Path deadLetter(SegmentedJournal.Record record) throws IOException {
+        Path deadLetters = dir.resolve(DEAD_LETTER_DIR);
+        FileSync.createDirectories(deadLetters);
+        Path file = deadLetters.resolve(String.format(Locale.ROOT, "%020d.record", record.offset()));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(record.payload()));
+            channel.force(true);
+        }
+        FileSync.forceDirectory(deadLetters);
+        return file;
+    }
+
+    private void checkNodeId(Path dir) throws IOException {
+        Path file = dir.resolve(NODE_ID_FILE);
+        if (Files.exists(file)) {
+            String recorded = Files.readString(file, StandardCharsets.UTF_8).trim();
+            if (!recorded.equals(nodeId)) {
+                journal.close();
+                throw new IllegalStateException("Deal journal in " + dir + " belongs to deal.journal.node-id="
+                        + recorded + ", not " + nodeId);
+            }
+            return;
+        }
+        Path temp = dir.resolve(NODE_ID_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(nodeId.getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        FileSync.forceDirectory(dir);
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> group = new ArrayList<>(maxGroupSize);
+        List<byte[]> payloads = new ArrayList<>(maxGroupSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAppend first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, maxGroupSize - 1);
+                for (PendingAppend pending : group) {
+                    payloads.add(pending.payload());
+                }
+                long[] offsets = journal.append(payloads);
+                journal.force();
+                for (int i = 0; i < group.size(); i++) {
+                    group.get(i).result().complete(offsets[i]);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.error("Deal journal write failed for {} records", group.size(), e);
+                group.forEach(pending -> pending.result().completeExceptionally(e));
+            } finally {
+                group.clear();
+                payloads.clear();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        journal.close();
+    }
+
+    private record PendingAppend(byte[] payload, CompletableFuture<Long> result) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealBatchItem;
+import com.demo.dto.DealBatchItemStatus;
+import com.demo.dto.DealRequest;
+import com.demo.entity.Checkpoint;
+import com.demo.repository.CheckpointRepository;
+import com.demo.repository.DealShardRouter;
+import com.demo.util.SegmentedJournal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Background writer that drains the {@link DealJournal} into the deal table in batches.
+ * <p>
+ * The journal offset reached is stored as a {@link Checkpoint} in the same transaction as each batch, so after a
+ * crash the drain resumes from the last committed offset and every acknowledged deal is written exactly once. With
+ * sharding the checkpoint is saved right after the batch instead, and deals of a batch replayed after a crash are
+ * rejected as duplicates. Segments that lie entirely before the checkpoint are deleted. A record that is not a
+ * readable deal is moved to the journal's dead-letter directory and skipped, rather than stopping the drain at it for
+ * good.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "deal.journal.enabled", havingValue = "true")
+public class DealJournalDrainer {
+
+    private final DealJournal dealJournal;
+    private final DealBatchWriter dealBatchWriter;
+    private final CheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DealShardRouter dealShardRouter;
+    private final DealIngestionFence dealIngestionFence;
+    private final ObjectMapper mapper;
+    private final String checkpointName;
+    private final int batchSize;
+    private volatile long committedOffset = -1;
+
+    public DealJournalDrainer(DealJournal dealJournal,
+                              DealBatchWriter dealBatchWriter,
+                              CheckpointRepository checkpointRepository,
+                              TransactionTemplate transactionTemplate,
+                              DealShardRouter dealShardRouter,
+                              DealIngestionFence dealIngestionFence,
+                              ObjectMapper mapper,
+                              @Value("${deal.journal.drain-batch-size}") int batchSize) {
+        this.dealJournal = dealJournal;
+        this.dealBatchWriter = dealBatchWriter;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.dealShardRouter = dealShardRouter;
+        this.dealIngestionFence = dealIngestionFence;
+        this.mapper = mapper;
+        this.checkpointName = dealJournal.checkpointName();
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return the offset up to which journal records have been committed to the database, or -1 before the first drain
+     */
+    public long committedOffset() {
+        return committedOffset;
+    }
+
+    @Scheduled(fixedDelayString = "${deal.journal.drain-interval}")
+    public void drain() {
+        if (dealIngestionFence.isPaused()) {
+            return;
+        }
+        Checkpoint checkpoint = checkpointRepository.findById(checkpointName)
+                .orElseGet(() -> new Checkpoint(checkpointName, 0L, null));
+        try {
+            List<SegmentedJournal.Record> records;
+            do {
+                records = dealJournal.read(checkpoint.getPosition(), batchSize);
+                if (!records.isEmpty()) {
+                    commitBatch(records, checkpoint);
+                }
+                committedOffset = checkpoint.getPosition();
+            } while (records.size() == batchSize);
+            dealJournal.deleteBefore(checkpoint.getPosition());
+        } catch (IOException | RuntimeException e) {
+            log.error("Deal journal drain stopped at offset {}, retrying on the next run", checkpoint.getPosition(), e);
+        }
+    }
+
+    private void commitBatch(List<SegmentedJournal.Record> records, Checkpoint checkpoint) throws IOException {
+        List<DealRequest> dealRequests = new ArrayList<>(records.size());
+        List<SegmentedJournal.Record> read = new ArrayList<>(records.size());
+        for (SegmentedJournal.Record record : records) {
+            DealRequest dealRequest;
+            try {
+                dealRequest = mapper.readValue(record.payload(), DealRequest.class);
+            } catch (JsonProcessingException e) {
+                log.error("Journaled deal at offset {} is unreadable, moved to {}", record.offset(),
+                        dealJournal.deadLetter(record), e);
+                continue;
+            }
+            dealRequests.add(dealRequest);
+            read.add(record);
+        }
+        long nextOffset = records.get(records.size() - 1).nextOffset();
+
+        List<DealBatchItem> results;
+        if (dealShardRouter.count() == 1) {
+            results = transactionTemplate.execute(status -> {
+                List<DealBatchItem> written = dealBatchWriter.writeChunk(dealRequests, 0);
+                saveCheckpoint(checkpoint, nextOffset);
+                return written;
+            });
+        } else {
+            results = dealBatchWriter.writeAcrossShards(dealRequests, 0);
+            transactionTemplate.executeWithoutResult(status -> saveCheckpoint(checkpoint, nextOffset));
+        }
+
+        for (DealBatchItem item : results) {
+            if (item.getStatus() != DealBatchItemStatus.ACCEPTED) {
+                log.warn("Journaled deal at offset {} not stored: {}", read.get(item.getIndex()).offset(), item.getMessage());
+            }
+        }
+        log.debug("Drained {} journaled deals up to offset {}", records.size(), nextOffset);
+    }
+
+    private void saveCheckpoint(Checkpoint checkpoint, long offset) {
+        checkpoint.setPosition(offset);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+    }
+}
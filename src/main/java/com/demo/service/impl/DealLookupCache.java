@@ -0,0 +1,76 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealDTO;
+import com.demo.repository.DealReplicaRouter;
+import com.demo.repository.DealRepository;
+import com.demo.repository.DealShardRouter;
+import com.demo.service.DealsPersistedEvent;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+
+/**
+ * Near cache of deals by uniqueId, bounded in size (W-TinyLFU eviction) and age. Deals are added when their
+ * transaction commits, so a client reading back the deal it just submitted is answered from memory; other misses
+ * read through the unique index on uniqueId, on the shard of the uniqueId. Unknown uniqueIds are not cached.
+ * <p>
+ * Misses may be read from a replica. A deal this instance committed less than {@code deal.replicas.max-lag} ago is
+ * only read from a replica that has caught up past its commit, so it is found even once evicted.
+ * <p>
+ * Exported as the {@code deal.lookup} cache meters: gets by hit/miss, evictions, loads and load time.
+ */
+@Component
+public class DealLookupCache {
+
+    private final LoadingCache<String, DealDTO> cache;
+    private final DealReplicaRouter dealReplicaRouter;
+
+    public DealLookupCache(DealRepository dealRepository,
+                           DealShardRouter dealShardRouter,
+                           DealReplicaRouter dealReplicaRouter,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${deal.lookup-cache.maximum-size}") long maximumSize,
+                           @Value("${deal.lookup-cache.expire-after-write}") Duration expireAfterWrite) {
+        this.dealReplicaRouter = dealReplicaRouter;
+        // Only a read-only transaction is routed to a replica; without replicas the query runs without one
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build(uniqueId -> dealShardRouter.inShard(dealShardRouter.shardFor(uniqueId),
+                        () -> dealReplicaRouter.hasReplicas()
+                                ? dealReplicaRouter.readYourWrites(uniqueId, () -> readOnly.execute(
+                                        status -> dealRepository.findDtoByUniqueId(uniqueId).orElse(null)))
+                                : dealRepository.findDtoByUniqueId(uniqueId).orElse(null)));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "deal.lookup");
+    }
+
+    /**
+     * @return the deal, or {@code null} if no deal with this uniqueId exists
+     */
+    public DealDTO get(String uniqueId) {
+        return cache.get(uniqueId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsPersisted(DealsPersistedEvent event) {
+        for (DealDTO deal : event.deals()) {
+            dealReplicaRouter.written(deal.getUniqueId());
+            if (deal.getId() != null) {
+                cache.put(deal.getUniqueId(), deal);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealDTO;
+import com.demo.dto.DealRequest;
+import com.demo.entity.Deal;
+
+
+/**
+ * Conversions between the deal DTOs and the {@link Deal} entity, shared by the single and batch write paths.
+ */
+public final class DealMapper {
+
+    private DealMapper() {
+    }
+
+    public static Deal convertToEntity(DealRequest dealRequest) {
+        Deal deal = new Deal();
+        deal.setUniqueId(dealRequest.getUniqueId());
+        deal.setFromCurrencyIsoCode(dealRequest.getFromCurrencyIsoCode());
+        deal.setToCurrencyIsoCode(dealRequest.getToCurrencyIsoCode());
+        deal.setDealTimestamp(dealRequest.getDealTimestamp());
+        deal.setDealAmount(dealRequest.getDealAmount());
+        return deal;
+    }
+
+    public static DealDTO convertToDto(Deal deal) {
+        DealDTO dto = new DealDTO();
+        dto.setId(deal.getId());
+        dto.setUniqueId(deal.getUniqueId());
+        dto.setFromCurrencyIsoCode(deal.getFromCurrencyIsoCode());
+        dto.setToCurrencyIsoCode(deal.getToCurrencyIsoCode());
+        dto.setDealTimestamp(deal.getDealTimestamp());
+        dto.setDealAmount(deal.getDealAmount());
+        return dto;
+    }
+}
@@ -0,0 +1,153 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealDTO;
+import com.demo.entity.CurrencyCode;
+import com.demo.service.DealsPersistedEvent;
+import com.demo.util.CurrencyPairCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Meters for the stages and outcomes of deal ingestion.
+ * <ul>
+ *     <li>{@code deal.ingest.stage}: timer per stage (deserialize, validate, dedup-check, insert, commit)</li>
+ *     <li>{@code deal.ingest.outcomes}: counter per outcome and currency pair</li>
+ *     <li>{@code deal.validation.failures}: counter per rejected request field</li>
+ *     <li>{@code deal.batch.size}: rows per bulk request</li>
+ * </ul>
+ * Currency pairs come from client input, so only the first {@code deal.metrics.max-currency-pairs} distinct pairs
+ * get their own tag and the rest are counted under {@code other}. Accepted deals are counted from
+ * {@link DealsPersistedEvent} once their transaction commits; the other outcomes are recorded by the callers.
+ */
+@Component
+public class DealMetrics {
+
+    public enum Stage {
+        DESERIALIZE("deserialize"),
+        VALIDATE("validate"),
+        DEDUP_CHECK("dedup-check"),
+        INSERT("insert"),
+        COMMIT("commit");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Outcome {
+        ACCEPTED, DUPLICATE, INVALID, FAILED
+    }
+
+    private static final String OTHER_PAIR = "other";
+
+    private final MeterRegistry registry;
+    private final int maxCurrencyPairs;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<String, Counter> outcomeCounters = new ConcurrentHashMap<>();
+    private final Map<Integer, String> currencyPairs = new ConcurrentHashMap<>();
+    private final DistributionSummary batchSize;
+
+    public DealMetrics(MeterRegistry registry,
+                       @Value("${deal.metrics.max-currency-pairs}") int maxCurrencyPairs) {
+        this.registry = registry;
+        this.maxCurrencyPairs = maxCurrencyPairs;
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("deal.ingest.stage")
+                    .description("Time spent in each stage of deal ingestion")
+                    .tag("stage", stage.tag)
+                    .register(registry));
+        }
+        this.batchSize = DistributionSummary.builder("deal.batch.size")
+                .description("Deals per bulk request")
+                .baseUnit("deals")
+                .register(registry);
+    }
+
+    public Timer.Sample startStage() {
+        return Timer.start(registry);
+    }
+
+    public void stopStage(Timer.Sample sample, Stage stage) {
+        sample.stop(stageTimers.get(stage));
+    }
+
+    /**
+     * Times the commit of the current transaction, from the start of the commit to its completion. Does nothing
+     * outside of a transaction.
+     */
+    public void timeCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private Timer.Sample sample;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                sample = startStage();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (sample != null && status == STATUS_COMMITTED) {
+                    stopStage(sample, Stage.COMMIT);
+                }
+            }
+        });
+    }
+
+    public void recordOutcome(Outcome outcome, CurrencyCode fromCurrency, CurrencyCode toCurrency) {
+        String pair = currencyPair(fromCurrency, toCurrency);
+        outcomeCounters.computeIfAbsent(outcome.name() + ' ' + pair, key -> Counter.builder("deal.ingest.outcomes")
+                        .description("Deals by ingestion outcome and currency pair")
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .tag("pair", pair)
+                        .register(registry))
+                .increment();
+    }
+
+    // Only committed deals are counted, so that a rolled back insert is not reported as accepted
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsPersisted(DealsPersistedEvent event) {
+        for (DealDTO deal : event.deals()) {
+            recordOutcome(Outcome.ACCEPTED, deal.getFromCurrencyIsoCode(), deal.getToCurrencyIsoCode());
+        }
+    }
+
+    public void recordValidationFailure(String field) {
+        registry.counter("deal.validation.failures", "field", field).increment();
+    }
+
+    public void recordBatchSize(int size) {
+        batchSize.record(size);
+    }
+
+    private String currencyPair(CurrencyCode fromCurrency, CurrencyCode toCurrency) {
+        int code = CurrencyPairCode.pack(fromCurrency, toCurrency);
+        if (code == CurrencyPairCode.INVALID) {
+            return OTHER_PAIR;
+        }
+        String pair = currencyPairs.get(code);
+        if (pair != null) {
+            return pair;
+        }
+        if (currencyPairs.size() >= maxCurrencyPairs) {
+            return OTHER_PAIR;
+        }
+        return currencyPairs.computeIfAbsent(code, key -> fromCurrency.name() + '/' + toCurrency.name());
+    }
+}
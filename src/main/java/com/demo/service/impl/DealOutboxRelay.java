@@ -0,0 +1,144 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealOutboxEvent;
+import com.demo.entity.Checkpoint;
+import com.demo.repository.CheckpointRepository;
+import com.demo.repository.DealOutboxRepository;
+import com.demo.repository.DealShardRouter;
+import com.demo.service.DealEventSink;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Drains the deal outbox into the {@link DealEventSink} in batches of {@code deal.outbox.batch-size}, back to back
+ * until the outbox is empty, then every {@code deal.outbox.relay-interval} ms.
+ * <p>
+ * Each batch is published, deleted from the outbox and recorded in the {@value #CHECKPOINT_NAME} checkpoint, the
+ * relay's high-water mark, in one transaction. That transaction starts by locking the checkpoint row, so relays on
+ * several instances take turns instead of publishing the same events. A batch whose transaction fails after it was
+ * published is published again. With sharding, every shard has its own outbox and checkpoint and is drained in turn.
+ * A sink that is not {@link DealEventSink#ready ready} skips the run before any lock is taken.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "deal.outbox.enabled", havingValue = "true")
+public class DealOutboxRelay {
+
+    static final String CHECKPOINT_NAME = "outbox:relay";
+
+    private final DealOutboxRepository dealOutboxRepository;
+    private final DealShardRouter dealShardRouter;
+    private final CheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DealEventSink dealEventSink;
+    private final int batchSize;
+    private final Timer lag;
+    private final DistributionSummary batchSizes;
+    private final AtomicLongArray highWaterMarks;
+
+    public DealOutboxRelay(DealOutboxRepository dealOutboxRepository,
+                           DealShardRouter dealShardRouter,
+                           CheckpointRepository checkpointRepository,
+                           TransactionTemplate transactionTemplate,
+                           DealEventSink dealEventSink,
+                           MeterRegistry meterRegistry,
+                           @Value("${deal.outbox.batch-size}") int batchSize) {
+        this.dealOutboxRepository = dealOutboxRepository;
+        this.dealShardRouter = dealShardRouter;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.dealEventSink = dealEventSink;
+        this.batchSize = batchSize;
+        this.lag = Timer.builder("deal.outbox.lag")
+                .description("Time from writing a deal to publishing its event")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("deal.outbox.batch.size")
+                .description("Events per published outbox batch")
+                .baseUnit("events")
+                .register(meterRegistry);
+        this.highWaterMarks = new AtomicLongArray(dealShardRouter.count());
+        for (int shard = 0; shard < dealShardRouter.count(); shard++) {
+            int index = shard;
+            Gauge.builder("deal.outbox.high.water.mark", highWaterMarks, marks -> marks.get(index))
+                    .description("Id of the last published outbox event")
+                    .tag("shard", String.valueOf(shard))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * @return the id of the last published event of shard 0, as of the last batch relayed by this instance
+     */
+    public long highWaterMark() {
+        return highWaterMarks.get(0);
+    }
+
+    @Scheduled(fixedDelayString = "${deal.outbox.relay-interval}")
+    public void relay() {
+        try {
+            if (!dealEventSink.ready()) {
+                return;
+            }
+        } catch (IOException e) {
+            log.error("Deal event sink is not available, retrying on the next run", e);
+            return;
+        }
+        dealShardRouter.forEachShard(shard -> {
+            try {
+                int published;
+                do {
+                    published = transactionTemplate.execute(status -> relayBatch(shard));
+                } while (published == batchSize);
+            } catch (RuntimeException e) {
+                log.error("Deal outbox relay of shard {} stopped after event {}, retrying on the next run",
+                        shard, highWaterMarks.get(shard), e);
+            }
+        });
+    }
+
+    private int relayBatch(int shard) {
+        Checkpoint checkpoint = checkpointRepository.findWithLockByName(CHECKPOINT_NAME)
+                .orElseGet(() -> new Checkpoint(CHECKPOINT_NAME, 0L, null));
+        List<DealOutboxEvent> events = dealOutboxRepository.findNext(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        try {
+            dealEventSink.publish(events);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot publish " + events.size() + " deal events", e);
+        }
+
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        for (DealOutboxEvent event : events) {
+            lag.record(Duration.between(event.createdAt(), now));
+        }
+        batchSizes.record(events.size());
+
+        dealOutboxRepository.delete(events);
+        // An event committed late can carry a lower id than one already published
+        checkpoint.setPosition(Math.max(checkpoint.getPosition(), events.get(events.size() - 1).id()));
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+        highWaterMarks.set(shard, checkpoint.getPosition());
+        log.debug("Relayed {} deal events of shard {} up to {}", events.size(), shard, checkpoint.getPosition());
+        return events.size();
+    }
+}
@@ -0,0 +1,297 @@
+package com.demo.service.impl;
+
+import com.demo.repository.DealDedupMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * MySQL range partitioning of the {@code deal} table by {@code deal_timestamp}, one partition per day or month.
+ * <p>
+ * Partitions are named after the first day of their period ({@code p20240510} or {@code p202405}) and hold the deals
+ * dated before the start of the next period; a last {@code pmax} partition catches anything beyond. On every run:
+ * <ul>
+ *     <li>an unpartitioned table is converted: the primary key becomes {@code (id, deal_timestamp)} and the unique
+ *     index on {@code unique_id} a plain one, since MySQL requires every unique key to contain the partitioning
+ *     column. Uniqueness is then enforced by {@code deal_unique_id}, hence {@link DealDedupMode#TABLE}. The
+ *     conversion copies the table and blocks writes to it, so it runs before the application serves requests.</li>
+ *     <li>partitions are created up to {@code precreate} periods ahead, by splitting {@code pmax}</li>
+ *     <li>partitions whose period ended more than {@code retention} periods ago are dropped, after being swapped into
+ *     a {@code deal_archive_<partition>} table when {@code archive-expired} is set. Their uniqueIds stay in
+ *     {@code deal_unique_id}, so expired deals are still rejected as duplicates.</li>
+ * </ul>
+ * Runs at startup and then on {@code deal.partitioning.cron} (UTC), under a MySQL named lock so that only one
+ * instance changes the table at a time. Other databases are left alone.
+ */
+@Slf4j
+@Component
+public class DealPartitionManager implements SmartInitializingSingleton {
+
+    public enum Interval {
+        DAY, MONTH;
+
+        LocalDate start(LocalDate date) {
+            return this == DAY ? date : date.withDayOfMonth(1);
+        }
+
+        LocalDate plus(LocalDate periodStart, long periods) {
+            return this == DAY ? periodStart.plusDays(periods) : periodStart.plusMonths(periods);
+        }
+
+        String partitionName(LocalDate periodStart) {
+            return "p" + periodStart.format(this == DAY ? DateTimeFormatter.BASIC_ISO_DATE : MONTH_NAME);
+        }
+    }
+
+    private static final String MAX_PARTITION = "pmax";
+    private static final String LOCK_NAME = "deal_partition_maintenance";
+    private static final DateTimeFormatter MONTH_NAME = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter BOUNDARY = DateTimeFormatter.ofPattern("yyyy-MM-dd' 00:00:00'");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DealUniqueIdBackfill dealUniqueIdBackfill;
+    private final boolean enabled;
+    private final Interval interval;
+    private final int precreate;
+    private final int retention;
+    private final boolean archiveExpired;
+    private final Counter archived;
+    private final Counter dropped;
+
+    private volatile int partitions;
+    private Boolean mysql;
+
+    public DealPartitionManager(JdbcTemplate jdbcTemplate,
+                                DealUniqueIdBackfill dealUniqueIdBackfill,
+                                MeterRegistry meterRegistry,
+                                @Value("${deal.dedup.mode}") DealDedupMode dedupMode,
+                                @Value("${deal.partitioning.enabled}") boolean enabled,
+                                @Value("${deal.partitioning.interval}") Interval interval,
+                                @Value("${deal.partitioning.precreate}") int precreate,
+                                @Value("${deal.partitioning.retention}") int retention,
+                                @Value("${deal.partitioning.archive-expired}") boolean archiveExpired) {
+        if (enabled && dedupMode != DealDedupMode.TABLE) {
+            throw new IllegalStateException("deal.partitioning.enabled requires deal.dedup.mode=table");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dealUniqueIdBackfill = dealUniqueIdBackfill;
+        this.enabled = enabled;
+        this.interval = interval;
+        this.precreate = precreate;
+        this.retention = retention;
+        this.archiveExpired = archiveExpired;
+
+        Gauge.builder("deal.partitions", this, m -> m.partitions)
+                .description("Time partitions of the deal table, pmax excluded")
+                .register(meterRegistry);
+        this.archived = Counter.builder("deal.partitions.expired")
+                .description("Expired deal partitions removed from the deal table")
+                .tag("action", "archived")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("deal.partitions.expired")
+                .description("Expired deal partitions removed from the deal table")
+                .tag("action", "dropped")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            // Every uniqueId must be in deal_unique_id before the unique index goes away
+            dealUniqueIdBackfill.backfill();
+            maintain();
+        }
+    }
+
+    @Scheduled(cron = "${deal.partitioning.cron}", zone = "UTC")
+    public void scheduledMaintain() {
+        if (enabled) {
+            maintain();
+        }
+    }
+
+    public synchronized void maintain() {
+        if (mysql == null) {
+            mysql = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            if (!mysql) {
+                log.warn("deal.partitioning.enabled is set but the database is not MySQL, the deal table is left as is");
+            }
+        }
+        if (!mysql) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            JdbcTemplate locked = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            Integer acquired = locked.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, LOCK_NAME);
+            if (acquired == null || acquired != 1) {
+                log.info("Deal partition maintenance is running on another instance");
+                return null;
+            }
+            try {
+                maintain(locked);
+            } finally {
+                locked.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+            }
+            return null;
+        });
+    }
+
+    private void maintain(JdbcTemplate jdbc) {
+        long started = System.nanoTime();
+        LocalDate current = interval.start(LocalDate.now(ZoneOffset.UTC));
+        LocalDate last = interval.plus(current, precreate);
+        LocalDate cutoff = retention > 0 ? interval.plus(current, -retention) : null;
+
+        // Regular partitions by upper bound
+        TreeMap<LocalDate, String> existing = partitions(jdbc);
+        if (existing == null) {
+            convert(jdbc, current, last, cutoff);
+            existing = partitions(jdbc);
+        }
+
+        LocalDate next = existing.isEmpty() ? current : existing.lastKey();
+        List<String> added = new ArrayList<>();
+        for (LocalDate period = next; !period.isAfter(last); period = interval.plus(period, 1)) {
+            added.add(partition(period));
+        }
+        if (!added.isEmpty()) {
+            jdbc.execute("ALTER TABLE deal REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+                    + String.join(", ", added) + ", " + maxPartition() + ")");
+        }
+
+        int expired = 0;
+        if (cutoff != null) {
+            for (Map.Entry<LocalDate, String> partition : existing.headMap(cutoff, true).entrySet()) {
+                if (expire(jdbc, partition.getValue())) {
+                    expired++;
+                }
+            }
+        }
+        partitions = existing.size() + added.size() - expired;
+        log.info("Deal partitions maintained in {} ms: {} created, {} expired, {} in place",
+                (System.nanoTime() - started) / 1_000_000, added.size(), expired, partitions);
+    }
+
+    /**
+     * @return the regular partitions of {@code deal} keyed by their upper bound, or {@code null} when the table is
+     * not partitioned
+     */
+    private TreeMap<LocalDate, String> partitions(JdbcTemplate jdbc) {
+        List<String> names = jdbc.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS"
+                + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'deal' AND PARTITION_NAME IS NOT NULL", String.class);
+        if (names.isEmpty()) {
+            return null;
+        }
+        TreeMap<LocalDate, String> partitions = new TreeMap<>();
+        for (String name : names) {
+            LocalDate upperBound = upperBound(name);
+            if (upperBound != null) {
+                partitions.put(upperBound, name);
+            } else if (!MAX_PARTITION.equals(name)) {
+                log.warn("Deal partition {} does not follow the naming scheme and is left alone", name);
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Partitions the table from the period of its oldest deal (or of the retention cutoff, if later) up to
+     * {@code last}; the first partition also takes every older deal.
+     */
+    private void convert(JdbcTemplate jdbc, LocalDate current, LocalDate last, LocalDate cutoff) {
+        LocalDate oldest = jdbc.queryForObject("SELECT DATE(MIN(deal_timestamp)) FROM deal", LocalDate.class);
+        LocalDate first = oldest == null ? current : interval.start(oldest);
+        if (cutoff != null && first.isBefore(cutoff)) {
+            first = cutoff;
+        }
+        List<String> partitions = new ArrayList<>();
+        for (LocalDate period = first; !period.isAfter(last); period = interval.plus(period, 1)) {
+            partitions.add(partition(period));
+        }
+        partitions.add(maxPartition());
+
+        log.warn("Partitioning the deal table by {} into {} partitions; writes to it are blocked until done",
+                interval, partitions.size());
+        long started = System.nanoTime();
+        jdbc.execute("ALTER TABLE deal"
+                + " MODIFY deal_timestamp DATETIME(6) NOT NULL,"
+                + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, deal_timestamp),"
+                + " DROP INDEX ux_deal_unique_id, ADD INDEX ix_deal_unique_id (unique_id)"
+                + " PARTITION BY RANGE COLUMNS (deal_timestamp) (" + String.join(", ", partitions) + ")");
+        log.info("Deal table partitioned in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private boolean expire(JdbcTemplate jdbc, String partition) {
+        if (!archiveExpired) {
+            jdbc.execute("ALTER TABLE deal DROP PARTITION " + partition);
+            dropped.increment();
+            log.info("Dropped expired deal partition {}", partition);
+            return true;
+        }
+
+        String archive = "deal_archive_" + partition;
+        Integer archives = jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.TABLES"
+                + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Integer.class, archive);
+        if (archives == 0) {
+            jdbc.execute("CREATE TABLE " + archive + " LIKE deal");
+            jdbc.execute("ALTER TABLE " + archive + " REMOVE PARTITIONING");
+            jdbc.execute("ALTER TABLE deal EXCHANGE PARTITION " + partition + " WITH TABLE " + archive);
+        } else {
+            // Left over from a run that stopped after the exchange; only drop the partition if it is still empty
+            Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM deal PARTITION (" + partition + ")", Long.class);
+            if (rows != 0) {
+                log.error("Expired deal partition {} is not empty but {} already exists, keeping both", partition, archive);
+                return false;
+            }
+        }
+        jdbc.execute("ALTER TABLE deal DROP PARTITION " + partition);
+        archived.increment();
+        log.info("Archived expired deal partition {} to {}", partition, archive);
+        return true;
+    }
+
+    private String partition(LocalDate periodStart) {
+        return "PARTITION " + interval.partitionName(periodStart)
+                + " VALUES LESS THAN ('" + interval.plus(periodStart, 1).format(BOUNDARY) + "')";
+    }
+
+    private static String maxPartition() {
+        return "PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)";
+    }
+
+    /**
+     * @return the end of the period a partition is named after, whatever interval it was created with
+     */
+    private static LocalDate upperBound(String partitionName) {
+        String digits = partitionName.substring(1);
+        if (!partitionName.startsWith("p") || !digits.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        if (digits.length() == 8) {
+            return LocalDate.parse(digits, DateTimeFormatter.BASIC_ISO_DATE).plusDays(1);
+        }
+        if (digits.length() == 6) {
+            return YearMonth.parse(digits, MONTH_NAME).plusMonths(1).atDay(1);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.demo.service.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.generator.Generator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Warns at startup about persistence settings that quietly turn batched writes into one round trip per row: JPA
+ * entities whose id is generated by the insert itself, Hibernate JDBC batching or insert ordering switched off, and on
+ * MySQL a Connector/J that sends each statement of a batch separately or prepares every statement again.
+ * <p>
+ * It only logs; the {@code high-throughput} profile sets everything it checks.
+ */
+@Slf4j
+@Component
+public class DealPersistenceSelfCheck {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final Environment environment;
+
+    public DealPersistenceSelfCheck(EntityManagerFactory entityManagerFactory, Environment environment) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        List<String> warnings = new ArrayList<>();
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        SessionFactoryOptions options = sessionFactory.getSessionFactoryOptions();
+        if (options.getJdbcBatchSize() < 2) {
+            warnings.add("hibernate.jdbc.batch_size is " + options.getJdbcBatchSize()
+                    + ", JPA inserts and updates are sent one statement at a time");
+        } else if (!options.isOrderInsertsEnabled()) {
+            warnings.add("hibernate.order_inserts is off, JPA batches are cut short whenever the entity type changes");
+        }
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            Generator generator = persister.getGenerator();
+            if (generator != null && generator.generatedOnExecution()) {
+                warnings.add("Entity " + persister.getJavaType().getJavaTypeClass().getSimpleName()
+                        + " gets its id from the insert (IDENTITY), so Hibernate inserts it one row at a time");
+            }
+        });
+
+        String url = environment.getProperty("spring.datasource.url", "");
+        if (url.startsWith("jdbc:mysql:")) {
+            if (!connectorSetting(url, "rewriteBatchedStatements")) {
+                warnings.add("rewriteBatchedStatements is off, Connector/J sends every statement of a JDBC batch separately");
+            }
+            if (!connectorSetting(url, "cachePrepStmts")) {
+                warnings.add("cachePrepStmts is off, Connector/J prepares every statement again on each use");
+            }
+        }
+
+        if (warnings.isEmpty()) {
+            log.info("Persistence self-check passed: JDBC batch size {}, inserts ordered", options.getJdbcBatchSize());
+        } else {
+            warnings.forEach(warning -> log.warn("Persistence self-check: {}", warning));
+        }
+    }
+
+    // Connector/J takes its settings from the URL or, through Hikari, from the data source properties
+    private boolean connectorSetting(String url, String name) {
+        return url.contains(name + "=true")
+                || environment.getProperty("spring.datasource.hikari.data-source-properties." + name, Boolean.class, false);
+    }
+}
@@ -0,0 +1,134 @@
+package com.demo.service.impl;
+
+import com.demo.config.BoundedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Resizes the connection pool to the load it sees, between {@code deal.datasource.adaptive-pool.min-size} and
+ * {@code max-size}, from the Hikari acquire and usage timers.
+ * <p>
+ * Every {@code interval} ms the mean time callers waited for a connection and the mean time a connection was held,
+ * which is the database latency seen by the application, are taken over the last interval. When callers waited more
+ * than {@code max-wait} the pool grows by a quarter, unless connections were held longer than {@code max-latency}:
+ * then the database itself is the bottleneck and more connections would only queue inside it. When nobody waited and
+ * the connections were busy, on average, for less than half the pool, it shrinks by one connection. The pool is kept
+ * at a fixed size (minimum idle = maximum), so a resize opens or retires connections in the background.
+ * <p>
+ * Only the pool built from {@code spring.datasource} is sized, also behind the connection limiter, which follows the
+ * new size; with sharding or replicas the application data source is not that pool and the pools keep their configured
+ * size.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "deal.datasource.adaptive-pool.enabled", havingValue = "true")
+public class DealPoolSizer {
+
+    private final HikariDataSource pool;
+    private final BoundedDataSource limiter;
+    private final MeterRegistry meterRegistry;
+    private final int minSize;
+    private final int maxSize;
+    private final long maxWaitNanos;
+    private final long maxLatencyNanos;
+    private long lastAcquires;
+    private double lastAcquireNanos;
+    private long lastUses;
+    private double lastUseNanos;
+    private long lastCheck = System.nanoTime();
+
+    public DealPoolSizer(DataSource dataSource,
+                         MeterRegistry meterRegistry,
+                         @Value("${deal.datasource.adaptive-pool.min-size}") int minSize,
+                         @Value("${deal.datasource.adaptive-pool.max-size}") int maxSize,
+                         @Value("${deal.datasource.adaptive-pool.max-wait}") Duration maxWait,
+                         @Value("${deal.datasource.adaptive-pool.max-latency}") Duration maxLatency) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalStateException("deal.datasource.adaptive-pool needs 1 <= min-size <= max-size");
+        }
+        this.limiter = dataSource instanceof BoundedDataSource bounded ? bounded : null;
+        DataSource target = limiter != null ? limiter.getTargetDataSource() : dataSource;
+        this.pool = target instanceof HikariDataSource hikari ? hikari : null;
+        this.meterRegistry = meterRegistry;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxLatencyNanos = maxLatency.toNanos();
+        if (pool == null) {
+            log.warn("Adaptive pool sizing needs the spring.datasource Hikari pool as the application data source, "
+                    + "pools keep their configured size");
+        } else {
+            resize(Math.max(minSize, Math.min(maxSize, pool.getMaximumPoolSize())), "starting");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${deal.datasource.adaptive-pool.interval}")
+    public void adjust() {
+        if (pool == null || pool.getHikariPoolMXBean() == null) {
+            return;
+        }
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool.getPoolName()).timer();
+        Timer usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", pool.getPoolName()).timer();
+        if (acquire == null || usage == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long acquires = acquire.count() - lastAcquires;
+        double acquireNanos = acquire.totalTime(TimeUnit.NANOSECONDS) - lastAcquireNanos;
+        long uses = usage.count() - lastUses;
+        double useNanos = usage.totalTime(TimeUnit.NANOSECONDS) - lastUseNanos;
+        long elapsed = now - lastCheck;
+        lastAcquires += acquires;
+        lastAcquireNanos += acquireNanos;
+        lastUses += uses;
+        lastUseNanos += useNanos;
+        lastCheck = now;
+
+        int size = pool.getMaximumPoolSize();
+        double meanWait = acquires == 0 ? 0 : acquireNanos / acquires;
+        double meanLatency = uses == 0 ? 0 : useNanos / uses;
+        // Little's law: connections held at any time, on average, over the interval
+        double busy = useNanos / elapsed;
+        // Behind the limiter, callers beyond the pool size queue for a permit rather than inside the pool
+        boolean starved = meanWait > maxWaitNanos || pool.getHikariPoolMXBean().getThreadsAwaitingConnection() > 0
+                || limiter != null && limiter.getWaitingThreads() > 0;
+
+        if (starved && size < maxSize) {
+            if (meanLatency > maxLatencyNanos) {
+                log.debug("Connection pool of {} is starved but connections are held {} ms on average, not growing",
+                        size, Math.round(meanLatency / 1_000_000));
+            } else {
+                resize(Math.min(maxSize, size + Math.max(1, size / 4)), String.format(
+                        "waited %.1f ms for a connection, held it %.1f ms", meanWait / 1e6, meanLatency / 1e6));
+            }
+        } else if (!starved && size > minSize && busy < size / 2.0) {
+            resize(size - 1, String.format("%.1f connections busy", busy));
+        }
+    }
+
+    private void resize(int size, String reason) {
+        if (size == pool.getMaximumPoolSize() && size == pool.getMinimumIdle()) {
+            return;
+        }
+        log.info("Connection pool {} sized from {} to {} ({})", pool.getPoolName(), pool.getMaximumPoolSize(), size, reason);
+        // Shrinking sets the minimum first and growing the maximum first, so that minimum idle never exceeds it
+        if (size < pool.getMaximumPoolSize()) {
+            pool.getHikariConfigMXBean().setMinimumIdle(size);
+            pool.getHikariConfigMXBean().setMaximumPoolSize(size);
+        } else {
+            pool.getHikariConfigMXBean().setMaximumPoolSize(size);
+            pool.getHikariConfigMXBean().setMinimumIdle(size);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealDTO;
+import com.demo.dto.DealPage;
+import com.demo.dto.DealPageResponse;
+import com.demo.dto.DealResponse;
+import com.demo.entity.CurrencyCode;
+import com.demo.repository.DealJdbcRepository;
+import com.demo.repository.DealRepository;
+import com.demo.repository.DealShardRouter;
+import com.demo.service.DealQueryService;
+import com.demo.util.DealCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+/**
+ * Keyset pagination over the deal table: each page seeks to the position after the last deal of the previous page
+ * instead of skipping rows, so every page costs the same whatever its depth. Deals moved to the {@link DealArchive}
+ * are merged in by the same {@code (dealTimestamp, id)} position, so the cursor spans both tiers. With sharding, each
+ * page is read from every shard in parallel and merged the same way.
+ * <p>
+ * A lookup by uniqueId that misses the table reads the archive day recorded for the uniqueId in
+ * {@code deal_unique_id}, if any.
+ */
+@Service
+public class DealQueryServiceImpl implements DealQueryService {
+
+    // Bounds of the MySQL DATETIME type, used when the range is open
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final DealRepository dealRepository;
+    private final DealShardRouter dealShardRouter;
+    private final DealLookupCache dealLookupCache;
+    private final DealArchive dealArchive;
+    private final DealJdbcRepository dealJdbcRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public DealQueryServiceImpl(DealRepository dealRepository,
+                                DealShardRouter dealShardRouter,
+                                DealLookupCache dealLookupCache,
+                                DealArchive dealArchive,
+                                DealJdbcRepository dealJdbcRepository,
+                                @Value("${deal.query.default-page-size}") int defaultPageSize,
+                                @Value("${deal.query.max-page-size}") int maxPageSize) {
+        this.dealRepository = dealRepository;
+        this.dealShardRouter = dealShardRouter;
+        this.dealLookupCache = dealLookupCache;
+        this.dealArchive = dealArchive;
+        this.dealJdbcRepository = dealJdbcRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DealPageResponse findDeals(String fromCurrency, String toCurrency, LocalDateTime from, LocalDateTime to,
+                                      String cursor, Integer limit) {
+        if ((fromCurrency == null) != (toCurrency == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fromCurrency and toCurrency must be given together");
+        }
+        CurrencyCode fromCode = CurrencyCodeParameter.parse("fromCurrency", fromCurrency);
+        CurrencyCode toCode = CurrencyCodeParameter.parse("toCurrency", toCurrency);
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + maxPageSize);
+        }
+        LocalDateTime until = to == null ? LATEST : to;
+        if (from != null && !from.isBefore(until)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+
+        // Without a cursor, start just before the first deal at the lower bound; ids start at 1
+        DealCursor after = new DealCursor(from == null ? EARLIEST : from, 0);
+        if (cursor != null) {
+            try {
+                after = DealCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+
+        // One extra row tells whether there is a next page
+        Limit fetch = Limit.of(pageSize + 1);
+        DealCursor position = after;
+        List<List<DealDTO>> pages = dealShardRouter.scatter(shard -> fromCode == null
+                ? dealRepository.findPage(position.timestamp(), position.id(), until, fetch)
+                : dealRepository.findPageByCurrencyPair(fromCode, toCode, position.timestamp(), position.id(), until, fetch));
+        pages.add(dealArchive.findPage(fromCode, toCode, after.timestamp(), after.id(), until, pageSize + 1));
+        List<DealDTO> deals = DealShardRouter.mergeByPosition(pages, pageSize + 1);
+
+        String nextCursor = null;
+        if (deals.size() > pageSize) {
+            deals = deals.subList(0, pageSize);
+            DealDTO last = deals.get(pageSize - 1);
+            nextCursor = new DealCursor(last.getDealTimestamp(), last.getId()).encode();
+        }
+        return new DealPageResponse(0, null, "Successful", new DealPage(deals, nextCursor));
+    }
+
+    @Override
+    public DealResponse findDeal(String uniqueId) {
+        // Not through the UniqueIdFilter: it only holds the uniqueIds this instance has seen, so a miss proves nothing
+        DealDTO deal = dealLookupCache.get(uniqueId);
+        if (deal == null) {
+            deal = findArchived(uniqueId);
+        }
+        if (deal == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Deal not found: " + uniqueId);
+        }
+        return new DealResponse(0, null, "Successful", deal);
+    }
+
+    private DealDTO findArchived(String uniqueId) {
+        LocalDate day = dealShardRouter.inShard(dealShardRouter.shardFor(uniqueId),
+                () -> dealJdbcRepository.findArchivedDay(uniqueId));
+        return day == null ? null : dealArchive.findByUniqueId(day, uniqueId);
+    }
+}
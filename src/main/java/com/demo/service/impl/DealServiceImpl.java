@@ -1,77 +1,158 @@
 package com.demo.service.impl;
 
+import com.demo.dto.DealBatchItem;
+import com.demo.dto.DealBatchItemStatus;
+import com.demo.dto.DealBatchResponse;
 import com.demo.dto.DealDTO;
 import com.demo.dto.DealRequest;
 import com.demo.dto.DealResponse;
 import com.demo.entity.Deal;
-import com.demo.repository.DealRepository;
+import com.demo.repository.DealJdbcRepository;
+import com.demo.repository.DealOutboxRepository;
+import com.demo.repository.DealShardRouter;
 import com.demo.service.DealService;
+import com.demo.service.DealsPersistedEvent;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 
 @Slf4j
 @Service
 public class DealServiceImpl  implements DealService {
 
-    private final DealRepository dealRepository;
-
-    public DealServiceImpl(DealRepository dealRepository) {
-        this.dealRepository = dealRepository;
+    private final DealJdbcRepository dealJdbcRepository;
+    private final DealOutboxRepository dealOutboxRepository;
+    private final DealBatchWriter dealBatchWriter;
+    private final UniqueIdFilter uniqueIdFilter;
+    private final ClusterDedupIndex clusterDedupIndex;
+    private final DealMetrics dealMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DealShardRouter dealShardRouter;
+    private final DealIngestionFence dealIngestionFence;
+    private final int chunkSize;
+
+    public DealServiceImpl(DealJdbcRepository dealJdbcRepository,
+                           DealOutboxRepository dealOutboxRepository,
+                           DealBatchWriter dealBatchWriter,
+                           UniqueIdFilter uniqueIdFilter,
+                           ClusterDedupIndex clusterDedupIndex,
+                           DealMetrics dealMetrics,
+                           ApplicationEventPublisher eventPublisher,
+                           DealShardRouter dealShardRouter,
+                           DealIngestionFence dealIngestionFence,
+                           @Value("${deal.batch.chunk-size}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalStateException("deal.batch.chunk-size must be > 0");
+        }
+        this.dealJdbcRepository = dealJdbcRepository;
+        this.dealOutboxRepository = dealOutboxRepository;
+        this.dealBatchWriter = dealBatchWriter;
+        this.uniqueIdFilter = uniqueIdFilter;
+        this.clusterDedupIndex = clusterDedupIndex;
+        this.dealMetrics = dealMetrics;
+        this.eventPublisher = eventPublisher;
+        this.dealShardRouter = dealShardRouter;
+        this.dealIngestionFence = dealIngestionFence;
+        this.chunkSize = chunkSize;
     }
 
     @Override
-    @Transactional(noRollbackFor = Exception.class)
+    @Transactional
     public DealResponse saveDeal(DealRequest dealRequest) {
+        dealIngestionFence.checkOpen();
 
         try {
             // Convert DealRequest to Deal entity
-            Deal deal = convertToEntity(dealRequest);
-
-            // Check if deal with the same uniqueId already exists
-            if (dealRepository.existsByUniqueId(deal.getUniqueId())) {
+            Deal deal = DealMapper.convertToEntity(dealRequest);
+
+            // A uniqueId of a range this node owns may be known to be taken without asking the database
+            boolean inserted = false;
+            if (!clusterDedupIndex.isTaken(deal.getUniqueId())) {
+                // Insert in one statement; the unique index on uniqueId reports a duplicate as zero affected rows.
+                // With sharding, this first statement binds the transaction to the shard of the uniqueId
+                dealMetrics.timeCommit();
+                Timer.Sample insert = dealMetrics.startStage();
+                inserted = dealShardRouter.inShard(dealShardRouter.shardFor(deal.getUniqueId()),
+                        () -> dealJdbcRepository.insertIgnore(deal));
+                dealMetrics.stopStage(insert, DealMetrics.Stage.INSERT);
+                uniqueIdFilter.put(deal.getUniqueId());
+                if (!inserted) {
+                    clusterDedupIndex.record(deal.getUniqueId());
+                }
+            }
+            if (!inserted) {
+                dealMetrics.recordOutcome(DealMetrics.Outcome.DUPLICATE, deal.getFromCurrencyIsoCode(), deal.getToCurrencyIsoCode());
                 DealResponse response = new DealResponse(400, "Bad request", "Deal with the same unique ID already exists: " + dealRequest.getUniqueId(), null);
                 return response;
 
             }
 
-            // Save the deal entity to the database
-            Deal savedDeal = dealRepository.save(deal);
-
             // Convert the saved deal entity to DealResponse
-            DealResponse response = new DealResponse(0, null, "Successful", convertToDto(savedDeal));
-            log.info("Deal response: {} " + response);
-            return response;
+            DealDTO saved = DealMapper.convertToDto(deal);
+            dealOutboxRepository.append(List.of(saved));
+            eventPublisher.publishEvent(new DealsPersistedEvent(List.of(saved)));
+            return new DealResponse(0, null, "Successful", saved);
 
         } catch (Exception e) {
-            log.error("Deal Error: {} ", e);
+            dealMetrics.recordOutcome(DealMetrics.Outcome.FAILED, dealRequest.getFromCurrencyIsoCode(), dealRequest.getToCurrencyIsoCode());
+            log.error("Deal Error", e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while saving the deal.Kindly contact the administrator ");
         }
     }
 
-    private Deal convertToEntity(DealRequest dealRequest) {
-        Deal deal = new Deal();
-        deal.setUniqueId(dealRequest.getUniqueId());
-        deal.setFromCurrencyIsoCode(dealRequest.getFromCurrencyIsoCode());
-        deal.setToCurrencyIsoCode(dealRequest.getToCurrencyIsoCode());
-        deal.setDealTimestamp(dealRequest.getDealTimestamp());
-        deal.setDealAmount(dealRequest.getDealAmount());
-        return deal;
-    }
+    @Override
+    public DealBatchResponse saveDeals(List<DealRequest> dealRequests) {
+        dealIngestionFence.checkOpen();
+        List<DealBatchItem> results = new ArrayList<>(dealRequests.size());
+        dealMetrics.recordBatchSize(dealRequests.size());
 
-    private DealDTO convertToDto(Deal deal) {
-        DealDTO dto = new DealDTO();
-        dto.setId(deal.getId());
-        dto.setUniqueId(deal.getUniqueId());
-        dto.setFromCurrencyIsoCode(deal.getFromCurrencyIsoCode());
-        dto.setToCurrencyIsoCode(deal.getToCurrencyIsoCode());
-        dto.setDealTimestamp(deal.getDealTimestamp());
-        dto.setDealAmount(deal.getDealAmount());
-        return dto;
-    }
+        try {
+            // Each chunk is validated, deduplicated and inserted in its own transaction (one per shard)
+            for (int from = 0; from < dealRequests.size(); from += chunkSize) {
+                List<DealRequest> chunk = dealRequests.subList(from, Math.min(from + chunkSize, dealRequests.size()));
+                results.addAll(dealBatchWriter.writeAcrossShards(chunk, from));
+            }
+        } catch (Exception e) {
+            // The chunk that failed and every chunk after it were not written, but for the shards committed first
+            int failedFrom = results.size();
+            log.error("Deal batch error after {} of {} rows", failedFrom, dealRequests.size(), e);
+            DealBatchItem[] rest = new DealBatchItem[dealRequests.size() - failedFrom];
+            if (e instanceof DealBatchWriter.PartialWriteException partial) {
+                for (DealBatchItem item : partial.written()) {
+                    rest[item.getIndex() - failedFrom] = item;
+                }
+            }
+            String reason = e instanceof ResponseStatusException status && status.getReason() != null
+                    ? status.getReason()
+                    : "An error occurred while saving the deal, kindly retry";
+            int failed = 0;
+            for (int i = 0; i < rest.length; i++) {
+                if (rest[i] == null) {
+                    DealRequest dealRequest = dealRequests.get(failedFrom + i);
+                    rest[i] = new DealBatchItem(failedFrom + i, dealRequest == null ? null : dealRequest.getUniqueId(),
+                            DealBatchItemStatus.FAILED, reason);
+                    dealMetrics.recordOutcome(DealMetrics.Outcome.FAILED,
+                            dealRequest == null ? null : dealRequest.getFromCurrencyIsoCode(),
+                            dealRequest == null ? null : dealRequest.getToCurrencyIsoCode());
+                    failed++;
+                }
+            }
+            results.addAll(Arrays.asList(rest));
+            return new DealBatchResponse(0, null, failed + " of " + dealRequests.size()
+                    + " deals were not saved, kindly send the FAILED ones again", results);
+        }
 
+        return new DealBatchResponse(0, null, "Successful", results);
+    }
 
 }
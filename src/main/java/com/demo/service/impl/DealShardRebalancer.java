@@ -0,0 +1,168 @@
+package com.demo.service.impl;
+
+import com.demo.entity.CurrencyCode;
+import com.demo.entity.Deal;
+import com.demo.repository.DealJdbcRepository;
+import com.demo.repository.DealShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * Moves deals to the shard that owns their uniqueId, after shards were added to {@code deal.sharding.urls}.
+ * <p>
+ * Every shard is scanned by id, {@code deal.sharding.rebalance-chunk-size} deals at a time. Misplaced deals are
+ * copied to their owner with their id, which is unique across shards, then read back from the owner, and only the
+ * deals found there with their id and uniqueId are deleted from the shard they were on. So a deal is never missing,
+ * only briefly on two shards (range reads keep one copy). A rebalance interrupted in between is completed by running
+ * it again: copies already made are ignored. A deal whose copy is not found, because the owner already holds another
+ * deal with its uniqueId or its id, stays where it is and fails the rebalance, for an operator to resolve.
+ * <p>
+ * Ingestion must be paused while it runs, since a uniqueId submitted again before its deal has moved would be checked
+ * on the new shard only and accepted twice: it refuses to start unless {@link DealIngestionFence#isFenced()}. Moved
+ * deals publish no outbox events.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "deal.sharding.enabled", havingValue = "true")
+public class DealShardRebalancer {
+
+    private static final String COPY_DEAL = "INSERT IGNORE INTO deal"
+            + " (id, unique_id, from_currency_iso_code, to_currency_iso_code, deal_timestamp, deal_amount, unique_id_hash)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DealShardRouter dealShardRouter;
+    private final DealIngestionFence dealIngestionFence;
+    private final int chunkSize;
+
+    public DealShardRebalancer(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               DealShardRouter dealShardRouter,
+                               DealIngestionFence dealIngestionFence,
+                               @Value("${deal.sharding.rebalance-chunk-size}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.dealShardRouter = dealShardRouter;
+        this.dealIngestionFence = dealIngestionFence;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return the number of deals on each shard
+     */
+    public Map<Integer, Long> dealCounts() {
+        List<Long> counts = dealShardRouter.scatter(shard -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deal", Long.class));
+        Map<Integer, Long> byShard = new LinkedHashMap<>();
+        for (int shard = 0; shard < counts.size(); shard++) {
+            byShard.put(shard, counts.get(shard));
+        }
+        return byShard;
+    }
+
+    /**
+     * @return the number of deals moved off each shard
+     * @throws IllegalStateException when ingestion is not paused, or a deal could not be moved
+     */
+    public synchronized Map<Integer, Long> rebalance() {
+        if (!dealIngestionFence.isFenced()) {
+            throw new IllegalStateException("Deal ingestion must be paused, on every instance, before rebalancing");
+        }
+        long started = System.nanoTime();
+        Map<Integer, Long> moved = new LinkedHashMap<>();
+        for (int shard = 0; shard < dealShardRouter.count(); shard++) {
+            moved.put(shard, rebalanceShard(shard));
+        }
+        log.info("Rebalanced deal shards in {} ms, deals moved off each shard: {}",
+                (System.nanoTime() - started) / 1_000_000, moved);
+        return moved;
+    }
+
+    private Map<Long, String> uniqueIdsById(List<Deal> deals) {
+        Map<Long, String> uniqueIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, unique_id FROM deal WHERE id IN ("
+                        + String.join(", ", Collections.nCopies(deals.size(), "?")) + ")",
+                (RowCallbackHandler) rs -> uniqueIds.put(rs.getLong(1), rs.getString(2)),
+                deals.stream().map(Deal::getId).toArray());
+        return uniqueIds;
+    }
+
+    private long rebalanceShard(int source) {
+        long moved = 0;
+        long afterId = 0;
+        while (true) {
+            long after = afterId;
+            List<Deal> deals = dealShardRouter.inShard(source, () -> jdbcTemplate.query(
+                    "SELECT id, unique_id, from_currency_iso_code, to_currency_iso_code, deal_timestamp, deal_amount"
+                            + " FROM deal WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Deal(rs.getLong(1), rs.getString(2), CurrencyCode.fromCode(rs.getString(3)),
+                            CurrencyCode.fromCode(rs.getString(4)), rs.getTimestamp(5).toLocalDateTime(), rs.getBigDecimal(6)),
+                    after, chunkSize));
+            if (deals.isEmpty()) {
+                return moved;
+            }
+            afterId = deals.get(deals.size() - 1).getId();
+
+            Map<Integer, List<Deal>> misplaced = new TreeMap<>();
+            for (Deal deal : deals) {
+                int owner = dealShardRouter.shardFor(deal.getUniqueId());
+                if (owner != source) {
+                    misplaced.computeIfAbsent(owner, key -> new ArrayList<>()).add(deal);
+                }
+            }
+            if (!misplaced.isEmpty()) {
+                List<Object> ids = new ArrayList<>();
+                List<Deal> missing = new ArrayList<>();
+                misplaced.forEach((owner, rows) -> {
+                    dealShardRouter.inShard(owner, () -> transactionTemplate.execute(status ->
+                            jdbcTemplate.batchUpdate(COPY_DEAL, rows, rows.size(), (ps, deal) -> {
+                                ps.setLong(1, deal.getId());
+                                ps.setString(2, deal.getUniqueId());
+                                ps.setString(3, deal.getFromCurrencyIsoCode().name());
+                                ps.setString(4, deal.getToCurrencyIsoCode().name());
+                                ps.setTimestamp(5, Timestamp.valueOf(deal.getDealTimestamp()));
+                                ps.setBigDecimal(6, deal.getDealAmount());
+                                ps.setLong(7, DealJdbcRepository.uniqueIdHash(deal.getUniqueId()));
+                            })));
+                    Map<Long, String> copied = dealShardRouter.inShard(owner, () -> uniqueIdsById(rows));
+                    for (Deal deal : rows) {
+                        if (deal.getUniqueId().equals(copied.get(deal.getId()))) {
+                            ids.add(deal.getId());
+                        } else {
+                            missing.add(deal);
+                        }
+                    }
+                });
+                if (!ids.isEmpty()) {
+                    dealShardRouter.inShard(source, () -> transactionTemplate.execute(status -> jdbcTemplate.update(
+                            "DELETE FROM deal WHERE id IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")",
+                            ids.toArray())));
+                    moved += ids.size();
+                }
+                if (!missing.isEmpty()) {
+                    throw new IllegalStateException(missing.size() + " deals of shard " + source + " could not be copied"
+                            + " to their shard, which holds another deal with the same id or uniqueId; they were left in"
+                            + " place, first: id " + missing.get(0).getId() + ", uniqueId " + missing.get(0).getUniqueId());
+                }
+            }
+            if (deals.size() < chunkSize) {
+                return moved;
+            }
+        }
+    }
+}
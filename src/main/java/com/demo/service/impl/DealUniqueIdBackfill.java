@@ -0,0 +1,79 @@
+package com.demo.service.impl;
+
+import com.demo.repository.DealDedupMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+/**
+ * Copies into {@code deal_unique_id} the uniqueIds of deals written while {@code deal.dedup.mode} was
+ * {@code index}, so that switching to {@code table} mode keeps rejecting them.
+ * <p>
+ * Runs before the application starts serving requests, in {@code table} mode only, as one pass over the index on
+ * {@code deal.unique_id} in {@code unique_id} order, {@code chunk-size} uniqueIds per transaction. Deals written in
+ * {@code table} mode are already claimed and are skipped by {@code INSERT IGNORE}. Neither ids nor uniqueIds follow
+ * insertion order, since ids are handed out in blocks, so no position can tell which deals were copied by an earlier
+ * run: every startup makes a whole pass, and a deal written meanwhile by an instance still in {@code index} mode is
+ * picked up by the next one. All instances should switch mode together.
+ */
+@Slf4j
+@Component
+public class DealUniqueIdBackfill implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DealDedupMode dedupMode;
+    private final int chunkSize;
+
+    public DealUniqueIdBackfill(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${deal.dedup.mode}") DealDedupMode dedupMode,
+                                @Value("${deal.dedup.backfill-chunk-size}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalStateException("deal.dedup.backfill-chunk-size must be > 0");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.dedupMode = dedupMode;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (dedupMode == DealDedupMode.TABLE) {
+            backfill();
+        }
+    }
+
+    public void backfill() {
+        long started = System.nanoTime();
+        long copied = 0;
+        long chunks = 0;
+        String after = null;
+        while (true) {
+            // The last uniqueId of the next chunk, read from the index alone
+            String until = after == null
+                    ? jdbcTemplate.queryForObject("SELECT MAX(unique_id) FROM (SELECT unique_id FROM deal"
+                    + " WHERE unique_id IS NOT NULL ORDER BY unique_id LIMIT ?) chunk", String.class, chunkSize)
+                    : jdbcTemplate.queryForObject("SELECT MAX(unique_id) FROM (SELECT unique_id FROM deal"
+                    + " WHERE unique_id > ? ORDER BY unique_id LIMIT ?) chunk", String.class, after, chunkSize);
+            if (until == null) {
+                break;
+            }
+            String from = after;
+            copied += transactionTemplate.execute(status -> from == null
+                    ? jdbcTemplate.update("INSERT IGNORE INTO deal_unique_id (unique_id, unique_id_hash)"
+                    + " SELECT unique_id, unique_id_hash FROM deal WHERE unique_id <= ?", until)
+                    : jdbcTemplate.update("INSERT IGNORE INTO deal_unique_id (unique_id, unique_id_hash)"
+                    + " SELECT unique_id, unique_id_hash FROM deal WHERE unique_id > ? AND unique_id <= ?", from, until));
+            after = until;
+            chunks++;
+        }
+        log.info("Backfilled {} uniqueIds into deal_unique_id in {} chunks in {} ms",
+                copied, chunks, (System.nanoTime() - started) / 1_000_000);
+    }
+}
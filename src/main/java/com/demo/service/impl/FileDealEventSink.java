@@ -0,0 +1,147 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealOutboxEvent;
+import com.demo.service.DealEventSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Appends each event as one NDJSON line to {@code deal.outbox.file}, a regular file or a named pipe read by another
+ * process. A regular file is fsynced after every batch.
+ * <p>
+ * Opening a pipe blocks until its reader is there, so the file is opened on a thread of its own and {@link #ready}
+ * waits at most {@code deal.outbox.file-open-timeout} ms for it; until the reader shows up, events wait in the outbox
+ * and the open keeps pending across relay runs.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "deal.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileDealEventSink implements DealEventSink {
+
+    private final Path path;
+    private final ObjectMapper mapper;
+    private final long openTimeoutMillis;
+    private final ExecutorService opener;
+    // A lock rather than synchronized: waiting for the open inside a monitor would pin a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private Future<FileChannel> opening;
+    private FileChannel channel;
+    private boolean regularFile;
+
+    public FileDealEventSink(@Value("${deal.outbox.file}") String path,
+                             @Value("${deal.outbox.file-open-timeout}") long openTimeoutMillis,
+                             ObjectMapper mapper) {
+        this.path = Paths.get(path);
+        this.mapper = mapper;
+        this.openTimeoutMillis = openTimeoutMillis;
+        this.opener = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deal-event-file-open");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                return true;
+            }
+            if (opening == null) {
+                opening = opener.submit(() -> FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND));
+            }
+            try {
+                channel = opening.get(openTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                log.debug("{} is not open yet, deal events wait in the outbox", path);
+                return false;
+            } catch (ExecutionException e) {
+                opening = null;
+                throw e.getCause() instanceof IOException io ? io : new IOException("Cannot open " + path, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            opening = null;
+            regularFile = Files.isRegularFile(path);
+            log.info("Publishing deal events to {}", path);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void publish(List<DealOutboxEvent> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 200);
+        for (DealOutboxEvent event : events) {
+            lines.write(mapper.writeValueAsBytes(event));
+            lines.write('\n');
+        }
+        lock.lock();
+        try {
+            if (channel == null) {
+                throw new IOException(path + " is not open");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (regularFile) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            // Reopen before the next batch, e.g. once a new reader has opened the pipe
+            closeChannel();
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            closeChannel();
+            opener.shutdownNow();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Cannot close {}", path, e);
+            }
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealOutboxEvent;
+import com.demo.service.DealEventSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+
+/**
+ * In-process broker for tests and single-node setups: hands every batch to the subscribers, on the relay thread,
+ * and keeps the last {@code deal.outbox.memory-capacity} events for inspection. A subscriber that throws fails the
+ * batch, which is then published again to every subscriber.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "deal.outbox.sink", havingValue = "memory")
+public class InMemoryDealEventSink implements DealEventSink {
+
+    private final List<Consumer<List<DealOutboxEvent>>> subscribers = new CopyOnWriteArrayList<>();
+    private final Deque<DealOutboxEvent> recent;
+    private final int capacity;
+
+    public InMemoryDealEventSink(@Value("${deal.outbox.memory-capacity}") int capacity) {
+        this.recent = new ArrayDeque<>(capacity);
+        this.capacity = capacity;
+    }
+
+    public void subscribe(Consumer<List<DealOutboxEvent>> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * @return the most recently published events, oldest first
+     */
+    public synchronized List<DealOutboxEvent> recent() {
+        return new ArrayList<>(recent);
+    }
+
+    @Override
+    public void publish(List<DealOutboxEvent> events) {
+        for (Consumer<List<DealOutboxEvent>> subscriber : subscribers) {
+            subscriber.accept(events);
+        }
+        synchronized (this) {
+            for (DealOutboxEvent event : events) {
+                if (recent.size() == capacity) {
+                    recent.removeFirst();
+                }
+                recent.addLast(event);
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealDTO;
+import com.demo.entity.CurrencyCode;
+import com.demo.service.NotificationRenderer;
+import com.demo.service.NotificationTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Renders notification emails from the templates under {@code resources/templates/notification}, which only hold
+ * their own content and fill it into the shared {@code layout.html}.
+ * <p>
+ * The templates get their own engine, whose cache never expires: every template is parsed once, at startup, and
+ * renders only evaluate its expressions, compiled to bytecode after a few runs. This holds whatever
+ * {@code spring.thymeleaf.cache} is set to, e.g. by devtools. Renders write into buffers taken from a pool of
+ * {@code buffer-pool-size}, so a 60 KB email does not grow a new buffer from scratch each time.
+ */
+@Slf4j
+@Service
+public class NotificationRendererImpl implements NotificationRenderer {
+
+    private static final String TEMPLATE_PREFIX = "templates/notification/";
+
+    private final SpringTemplateEngine templateEngine;
+    private final String supportContact;
+    private final BlockingQueue<Buffer> buffers;
+    private final int bufferInitialCapacity;
+    private final int bufferMaxCapacity;
+    private final Map<NotificationTemplate, Timer> renderTimers = new EnumMap<>(NotificationTemplate.class);
+
+    public NotificationRendererImpl(MeterRegistry meterRegistry,
+                                    @Value("${notification.support-contact}") String supportContact,
+                                    @Value("${notification.buffer-pool-size}") int bufferPoolSize,
+                                    @Value("${notification.buffer-initial-capacity}") int bufferInitialCapacity,
+                                    @Value("${notification.buffer-max-capacity}") int bufferMaxCapacity) {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix(TEMPLATE_PREFIX);
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        templateResolver.setCacheable(true);
+        templateResolver.setCacheTTLMs(null);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setEnableSpringELCompiler(true);
+
+        this.supportContact = supportContact;
+        this.buffers = new ArrayBlockingQueue<>(bufferPoolSize);
+        this.bufferInitialCapacity = bufferInitialCapacity;
+        this.bufferMaxCapacity = bufferMaxCapacity;
+        for (NotificationTemplate template : NotificationTemplate.values()) {
+            renderTimers.put(template, Timer.builder("notification.render")
+                    .description("Time to render a notification email")
+                    .tag("template", template.getTemplateName())
+                    .register(meterRegistry));
+        }
+        precompile();
+    }
+
+    @Override
+    public String renderDowntimeRestored(String recipientName) {
+        return render(NotificationTemplate.DOWNTIME_RESTORED,
+                Map.of("recipientName", recipientName, "supportContact", supportContact));
+    }
+
+    @Override
+    public String renderDealConfirmation(String recipientName, DealDTO deal) {
+        return render(NotificationTemplate.DEAL_CONFIRMATION, Map.of("recipientName", recipientName, "deal", deal));
+    }
+
+    @Override
+    public void render(NotificationTemplate template, Map<String, Object> variables, Writer out) {
+        long started = System.nanoTime();
+        templateEngine.process(template.getTemplateName(), new Context(Locale.ENGLISH, variables), out);
+        renderTimers.get(template).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    private String render(NotificationTemplate template, Map<String, Object> variables) {
+        Buffer buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = new Buffer(bufferInitialCapacity);
+        }
+        try {
+            render(template, variables, buffer);
+            return buffer.toString();
+        } finally {
+            // A buffer grown by an unusually large render is left to the GC rather than kept around
+            if (buffer.builder.capacity() <= bufferMaxCapacity) {
+                buffer.builder.setLength(0);
+                buffers.offer(buffer);
+            }
+        }
+    }
+
+    /**
+     * Parses every template into the cache before the first real render.
+     */
+    private void precompile() {
+        long started = System.nanoTime();
+        DealDTO sample = new DealDTO(0L, "warm-up", CurrencyCode.USD, CurrencyCode.EUR, LocalDateTime.now(), BigDecimal.ONE);
+        renderDowntimeRestored("warm-up");
+        renderDealConfirmation("warm-up", sample);
+        log.info("Parsed {} notification templates in {} ms", NotificationTemplate.values().length,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Unsynchronized {@link Writer} over a reusable {@link StringBuilder}; one render uses it at a time.
+     */
+    private static final class Buffer extends Writer {
+
+        private final StringBuilder builder;
+
+        private Buffer(int initialCapacity) {
+            this.builder = new StringBuilder(initialCapacity);
+        }
+
+        @Override
+        public void write(int c) {
+            builder.append((char) c);
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            builder.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            builder.append(string, offset, offset + length);
+        }
+
+        @Override
+        public Writer append(CharSequence chars) {
+            builder.append(chars);
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
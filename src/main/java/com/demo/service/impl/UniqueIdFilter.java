@@ -0,0 +1,183 @@
+package com.demo.service.impl;
+
+import com.demo.repository.DealDedupMode;
+import com.demo.repository.DealShardRouter;
+import com.demo.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * In-memory Bloom filter over every persisted {@code uniqueId}, used to skip database existence checks for
+ * deals that are definitely new.
+ * <p>
+ * The filter is built in the background at startup by streaming the uniqueIds of the {@code deal} table, or of
+ * {@code deal_unique_id} in {@link DealDedupMode#TABLE} mode, of every shard, and rebuilt with a larger capacity once it holds more
+ * ids than it was sized for. Until the first build completes every id is reported as probably present, so callers
+ * fall back to the database. Ids inserted while a rebuild is running are added to both the old and the new filter;
+ * those inserted before the new filter is sized are queued and added to it once it exists.
+ * <p>
+ * Ids inserted by other application instances are not seen, so a "not present" answer only saves a read:
+ * the insert itself still has the final word on duplicates.
+ */
+@Slf4j
+@Component
+public class UniqueIdFilter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DealShardRouter dealShardRouter;
+    private final String sourceTable;
+    private final boolean enabled;
+    private final double fpp;
+    private final long minCapacity;
+    private final double growthFactor;
+    private final int fetchSize;
+    private final Timer rebuildTimer;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile BloomFilter filter;
+    private volatile Queue<String> pending;
+    private volatile BloomFilter building;
+
+    public UniqueIdFilter(JdbcTemplate jdbcTemplate,
+                          DealShardRouter dealShardRouter,
+                          MeterRegistry meterRegistry,
+                          @Value("${deal.dedup.mode}") DealDedupMode dedupMode,
+                          @Value("${deal.dedup-filter.enabled}") boolean enabled,
+                          @Value("${deal.dedup-filter.fpp}") double fpp,
+                          @Value("${deal.dedup-filter.min-capacity}") long minCapacity,
+                          @Value("${deal.dedup-filter.growth-factor}") double growthFactor,
+                          @Value("${deal.jdbc.stream-fetch-size}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dealShardRouter = dealShardRouter;
+        this.sourceTable = dedupMode == DealDedupMode.TABLE ? "deal_unique_id" : "deal";
+        this.enabled = enabled;
+        this.fpp = fpp;
+        this.minCapacity = minCapacity;
+        this.growthFactor = growthFactor;
+        this.fetchSize = fetchSize;
+
+        this.rebuildTimer = Timer.builder("deal.dedup.filter.rebuild")
+                .description("Time taken to rebuild the uniqueId Bloom filter from the deal table")
+                .register(meterRegistry);
+        Gauge.builder("deal.dedup.filter.size", this, f -> f.filter == null ? 0 : f.filter.bitSize() / 8)
+                .description("Memory used by the uniqueId Bloom filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("deal.dedup.filter.capacity", this, f -> f.filter == null ? 0 : f.filter.capacity())
+                .description("Number of uniqueIds the Bloom filter was sized for")
+                .register(meterRegistry);
+        Gauge.builder("deal.dedup.filter.elements", this, f -> f.filter == null ? 0 : f.filter.approximateElementCount())
+                .description("Approximate number of uniqueIds in the Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("deal.dedup.filter.fpp", this, f -> f.filter == null ? 1 : f.filter.expectedFpp())
+                .description("Current expected false positive rate of the Bloom filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code false} only if no deal with this uniqueId has been persisted
+     */
+    public boolean mightContain(String uniqueId) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(uniqueId);
+    }
+
+    /**
+     * Records a uniqueId that has just been written. Safe to call before the transaction commits: a rollback only
+     * leaves a false positive behind.
+     */
+    public void put(String uniqueId) {
+        // Queued before building is read: an id queued after the queue is drained finds the new filter set
+        Queue<String> queued = pending;
+        if (queued != null) {
+            queued.add(uniqueId);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(uniqueId);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(uniqueId);
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the filter when it has outgrown its capacity, since the false positive rate climbs quickly after that.
+     */
+    @Scheduled(fixedDelayString = "${deal.dedup-filter.check-interval}")
+    public void rebuildIfFull() {
+        BloomFilter current = filter;
+        if (enabled && current != null && current.approximateElementCount() > current.capacity()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Streams every uniqueId from the source table into a new, freshly sized filter and swaps it in.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        Queue<String> queued = new ConcurrentLinkedQueue<>();
+        pending = queued;
+        try {
+            long started = System.nanoTime();
+            // unique_id is nullable, and nothing can be a duplicate of a deal without one
+            long rows = dealShardRouter.scatter(shard -> jdbcTemplate.queryForObject(
+                            "SELECT COUNT(unique_id) FROM " + sourceTable, Long.class))
+                    .stream().mapToLong(Long::longValue).sum();
+            long capacity = Math.max(minCapacity, (long) (rows * growthFactor));
+            BloomFilter next = new BloomFilter(capacity, fpp);
+            building = next;
+            pending = null;
+            queued.forEach(next::put);
+
+            JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+            streaming.setFetchSize(fetchSize);
+            dealShardRouter.scatter(shard -> {
+                streaming.query("SELECT unique_id FROM " + sourceTable + " WHERE unique_id IS NOT NULL", rs -> {
+                    next.put(rs.getString(1));
+                });
+                return null;
+            });
+
+            filter = next;
+            building = null;
+            long elapsed = System.nanoTime() - started;
+            rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("UniqueId filter rebuilt: {} rows, capacity {}, {} bytes, {} ms",
+                    rows, capacity, next.bitSize() / 8, elapsed / 1_000_000);
+        } catch (RuntimeException e) {
+            pending = null;
+            building = null;
+            log.error("UniqueId filter rebuild failed, existence checks keep going to the database", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.demo.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Thread-safe Bloom filter over strings, sized for an expected number of insertions and false positive rate.
+ * <p>
+ * Bits are set with CAS on an {@link AtomicLongArray}, so concurrent {@link #put} and {@link #mightContain}
+ * calls need no lock. Indexes are derived from two 64-bit hashes (Kirsch-Mitzenmacher double hashing).
+ */
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+    private final long capacity;
+    private final LongAdder bitsSet = new LongAdder();
+
+    public BloomFilter(long capacity, double fpp) {
+        if (capacity <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("capacity must be > 0 and fpp in (0, 1)");
+        }
+        long bits = (long) Math.ceil(-capacity * Math.log(fpp) / (LN2 * LN2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) >>> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / capacity * LN2));
+        this.capacity = capacity;
+    }
+
+    public void put(String value) {
+        long h1 = hash(value, 0x9E3779B97F4A7C15L);
+        long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+        long combined = h1;
+        for (int i = 0; i < hashCount; i++) {
+            setBit((combined & Long.MAX_VALUE) % bitSize);
+            combined += h2;
+        }
+    }
+
+    /**
+     * @return {@code false} if the value was definitely never added, {@code true} if it probably was
+     */
+    public boolean mightContain(String value) {
+        long h1 = hash(value, 0x9E3779B97F4A7C15L);
+        long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+        long combined = h1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitSize;
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += h2;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of insertions the filter was sized for
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * @return an estimate of the number of distinct values added, derived from the fraction of bits set
+     */
+    public long approximateElementCount() {
+        double fractionSet = (double) bitsSet.sum() / bitSize;
+        return Math.round(-Math.log1p(-fractionSet) * bitSize / hashCount);
+    }
+
+    /**
+     * @return the probability that {@link #mightContain} answers {@code true} for a value never added,
+     * given the bits set so far
+     */
+    public double expectedFpp() {
+        return Math.pow((double) bitsSet.sum() / bitSize, hashCount);
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(word, current, current | mask));
+        bitsSet.increment();
+    }
+
+    private static long hash(String value, long seed) {
+        long h = seed ^ value.length();
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        // murmur3 fmix64 finaliser
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,62 @@
+package com.demo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * Consistent hash ring mapping string keys to shards {@code 0..shards-1}. Every shard owns {@code virtualNodes} points
+ * on a 64-bit ring and a key belongs to the shard of the first point at or after its hash, so going from N to N+1
+ * shards only moves about 1/(N+1) of the keys, all of them to the new shard.
+ * <p>
+ * Points are derived from the shard number alone, so every node that builds a ring with the same parameters routes
+ * every key the same way.
+ */
+public class ConsistentHashRing {
+
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+    private final int shards;
+
+    public ConsistentHashRing(int shards, int virtualNodes) {
+        if (shards < 1 || virtualNodes < 1) {
+            throw new IllegalArgumentException("shards and virtualNodes must be > 0");
+        }
+        this.shards = shards;
+        for (int shard = 0; shard < shards; shard++) {
+            for (int point = 0; point < virtualNodes; point++) {
+                // On the rare collision the lower shard keeps the point, whatever the insertion order
+                ring.merge(hash("shard-" + shard + "#" + point), shard, Math::min);
+            }
+        }
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    public int shardFor(String key) {
+        if (shards == 1) {
+            return 0;
+        }
+        Map.Entry<Long, Integer> owner = ring.ceilingEntry(hash(key));
+        return owner == null ? ring.firstEntry().getValue() : owner.getValue();
+    }
+
+    /**
+     * 64-bit FNV-1a of the UTF-8 bytes, finished with the MurmurHash3 mixer so that similar keys spread over the ring.
+     */
+    public static long hash(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
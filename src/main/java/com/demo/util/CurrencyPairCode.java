@@ -0,0 +1,38 @@
+package com.demo.util;
+
+import com.demo.entity.CurrencyCode;
+
+
+/**
+ * Packs a pair of {@link CurrencyCode}s into one {@code int}, the ordinal of each code in sixteen bits, so that
+ * per-pair state can be keyed without building strings. Packed pairs are only meant for in-memory keys: they
+ * change when codes are added to the enum.
+ */
+public final class CurrencyPairCode {
+
+    public static final int INVALID = -1;
+
+    private static final int CODE_BITS = 16;
+    private static final int CODE_MASK = (1 << CODE_BITS) - 1;
+    private static final CurrencyCode[] CODES = CurrencyCode.values();
+
+    private CurrencyPairCode() {
+    }
+
+    /**
+     * @return the packed pair, or {@link #INVALID} when either code is missing
+     */
+    public static int pack(CurrencyCode fromCurrency, CurrencyCode toCurrency) {
+        return fromCurrency == null || toCurrency == null
+                ? INVALID
+                : fromCurrency.ordinal() << CODE_BITS | toCurrency.ordinal();
+    }
+
+    public static CurrencyCode fromCurrency(int pair) {
+        return CODES[pair >>> CODE_BITS];
+    }
+
+    public static CurrencyCode toCurrency(int pair) {
+        return CODES[pair & CODE_MASK];
+    }
+}
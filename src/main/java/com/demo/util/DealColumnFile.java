@@ -0,0 +1,238 @@
+package com.demo.util;
+
+import com.demo.dto.DealDTO;
+import com.demo.entity.CurrencyCode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+
+/**
+ * Compressed columnar file holding the deals of one currency pair, ordered by {@code (dealTimestamp, id)}.
+ * <p>
+ * Layout: {@code [magic "DCOL"][byte version][int rows][3-byte from code][3-byte to code][long min timestamp]
+ * [long max timestamp]}, then for each of the four columns {@code [int raw length][int compressed length]} and the
+ * deflated column, and a trailing {@code [int crc32]} of everything before it. The currency pair is stored once in
+ * the header. Columns:
+ * <ul>
+ *     <li>id: zig-zag varint deltas</li>
+ *     <li>dealTimestamp: varint deltas of UTC epoch microseconds</li>
+ *     <li>dealAmount: zig-zag varint deltas of the amount in units of 10^-4</li>
+ *     <li>uniqueId: varint length and UTF-8 bytes</li>
+ * </ul>
+ */
+public final class DealColumnFile {
+
+    private static final int MAGIC = 0x44434F4C;
+    private static final byte VERSION = 1;
+    private static final int AMOUNT_SCALE = 4;
+    private static final int COLUMNS = 4;
+
+    private DealColumnFile() {
+    }
+
+    /**
+     * Writes the deals, which must all be of the given pair and sorted by {@code (dealTimestamp, id)}.
+     */
+    public static void write(OutputStream out, CurrencyCode fromCurrency, CurrencyCode toCurrency, List<DealDTO> deals)
+            throws IOException {
+        ByteArrayOutputStream ids = new ByteArrayOutputStream();
+        ByteArrayOutputStream timestamps = new ByteArrayOutputStream();
+        ByteArrayOutputStream amounts = new ByteArrayOutputStream();
+        ByteArrayOutputStream uniqueIds = new ByteArrayOutputStream();
+        long previousId = 0;
+        long previousTimestamp = 0;
+        long previousAmount = 0;
+        for (DealDTO deal : deals) {
+            long timestamp = toMicros(deal.getDealTimestamp());
+            long amount = deal.getDealAmount().setScale(AMOUNT_SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+            writeVarLong(ids, zigZag(deal.getId() - previousId));
+            writeVarLong(timestamps, timestamp - previousTimestamp);
+            writeVarLong(amounts, zigZag(amount - previousAmount));
+            byte[] uniqueId = deal.getUniqueId().getBytes(StandardCharsets.UTF_8);
+            writeVarLong(uniqueIds, uniqueId.length);
+            uniqueIds.write(uniqueId);
+            previousId = deal.getId();
+            previousTimestamp = timestamp;
+            previousAmount = amount;
+        }
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(file);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(deals.size());
+        data.writeBytes(fromCurrency.name());
+        data.writeBytes(toCurrency.name());
+        data.writeLong(deals.isEmpty() ? 0 : toMicros(deals.get(0).getDealTimestamp()));
+        data.writeLong(deals.isEmpty() ? 0 : toMicros(deals.get(deals.size() - 1).getDealTimestamp()));
+        for (ByteArrayOutputStream column : List.of(ids, timestamps, amounts, uniqueIds)) {
+            byte[] raw = column.toByteArray();
+            byte[] compressed = deflate(raw);
+            data.writeInt(raw.length);
+            data.writeInt(compressed.length);
+            data.write(compressed);
+        }
+        data.flush();
+        CRC32 crc = new CRC32();
+        crc.update(file.toByteArray());
+        data.writeInt((int) crc.getValue());
+        file.writeTo(out);
+    }
+
+    public static List<DealDTO> read(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return read(in);
+        }
+    }
+
+    public static List<DealDTO> read(InputStream in) throws IOException {
+        byte[] bytes = in.readAllBytes();
+        if (bytes.length < 4) {
+            throw new IOException("Truncated deal column file");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (data.readInt() != MAGIC || data.readByte() != VERSION) {
+            throw new IOException("Not a deal column file");
+        }
+        int rows = data.readInt();
+        CurrencyCode fromCurrency = readCode(data);
+        CurrencyCode toCurrency = readCode(data);
+        data.readLong();
+        data.readLong();
+        byte[][] columns = new byte[COLUMNS][];
+        for (int i = 0; i < COLUMNS; i++) {
+            int rawLength = data.readInt();
+            byte[] compressed = new byte[data.readInt()];
+            data.readFully(compressed);
+            columns[i] = inflate(compressed, rawLength);
+        }
+        if (data.readInt() != (int) crc.getValue()) {
+            throw new IOException("Deal column file checksum mismatch");
+        }
+
+        int[] positions = new int[COLUMNS];
+        List<DealDTO> deals = new ArrayList<>(rows);
+        long id = 0;
+        long timestamp = 0;
+        long amount = 0;
+        for (int row = 0; row < rows; row++) {
+            id += unZigZag(readVarLong(columns[0], positions, 0));
+            timestamp += readVarLong(columns[1], positions, 1);
+            amount += unZigZag(readVarLong(columns[2], positions, 2));
+            int length = (int) readVarLong(columns[3], positions, 3);
+            String uniqueId = new String(columns[3], positions[3], length, StandardCharsets.UTF_8);
+            positions[3] += length;
+            deals.add(new DealDTO(id, uniqueId, fromCurrency, toCurrency, fromMicros(timestamp),
+                    BigDecimal.valueOf(amount, AMOUNT_SCALE)));
+        }
+        return deals;
+    }
+
+    private static CurrencyCode readCode(DataInputStream data) throws IOException {
+        byte[] code = new byte[3];
+        data.readFully(code);
+        CurrencyCode currencyCode = CurrencyCode.fromCode(new String(code, StandardCharsets.US_ASCII));
+        if (currencyCode == null) {
+            throw new IOException("Unknown currency code in deal column file");
+        }
+        return currencyCode;
+    }
+
+    private static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] column, int[] positions, int index) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = column[positions[index]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int read = inflater.inflate(raw, length, rawLength - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != rawLength) {
+                throw new IOException("Truncated deal column");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt deal column", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
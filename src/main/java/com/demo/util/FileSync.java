@@ -0,0 +1,52 @@
+package com.demo.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Makes directory entries durable. Forcing a file only persists its content: a file that was just created, renamed
+ * or deleted can still be missing from its directory after a crash until the directory itself is forced.
+ */
+public final class FileSync {
+
+    private FileSync() {
+    }
+
+    /**
+     * Forces the entries of {@code dir} to disk.
+     */
+    public static void forceDirectory(Path dir) throws IOException {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Forces {@code dir} and every directory above it up to and including {@code root}, for directories that were
+     * just created.
+     */
+    public static void forceDirectories(Path root, Path dir) throws IOException {
+        for (Path current = dir; current != null && current.startsWith(root); current = current.getParent()) {
+            forceDirectory(current);
+        }
+    }
+
+    /**
+     * Creates {@code dir} like {@link Files#createDirectories} and forces the entries of every directory created,
+     * down from the first one that already existed.
+     */
+    public static void createDirectories(Path dir) throws IOException {
+        Path existing = dir.toAbsolutePath();
+        while (existing != null && !Files.isDirectory(existing)) {
+            existing = existing.getParent();
+        }
+        Files.createDirectories(dir);
+        if (existing != null && !existing.equals(dir.toAbsolutePath())) {
+            forceDirectories(existing, dir.toAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.demo.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+
+/**
+ * Reads UTF-8 lines from a stream while keeping track of the exact byte offset of the next unread line,
+ * so a reader can later be re-opened at that offset. {@code \n} and {@code \r\n} line endings are supported.
+ * <p>
+ * Not thread-safe.
+ */
+public class OffsetLineReader {
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int bufferPos;
+    private int bufferLimit;
+    private byte[] line = new byte[256];
+    private long offset;
+
+    public OffsetLineReader(InputStream in, long startOffset) {
+        this(in, startOffset, 64 * 1024);
+    }
+
+    public OffsetLineReader(InputStream in, long startOffset, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+        this.offset = startOffset;
+    }
+
+    /**
+     * @return the next line without its terminator, or {@code null} at end of stream
+     */
+    public String readLine() throws IOException {
+        int length = 0;
+        boolean read = false;
+        while (true) {
+            if (bufferPos == bufferLimit) {
+                bufferLimit = in.read(buffer);
+                bufferPos = 0;
+                if (bufferLimit <= 0) {
+                    bufferLimit = 0;
+                    return read ? decode(length) : null;
+                }
+            }
+            read = true;
+            byte b = buffer[bufferPos++];
+            offset++;
+            if (b == '\n') {
+                return decode(length);
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = b;
+        }
+    }
+
+    /**
+     * @return the byte offset, from the start of the underlying file, of the next line to be read
+     */
+    public long offset() {
+        return offset;
+    }
+
+    private String decode(int length) {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,282 @@
+package com.demo.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+
+/**
+ * Append-only log of opaque records spread over segment files in one directory.
+ * <p>
+ * Every record is stored as {@code [int length][int crc32][payload]} and addressed by its logical offset, which
+ * keeps growing across segments; a segment file is named after the offset of its first record. A torn record at
+ * the tail, left by a crash in the middle of a write, is detected by its length or checksum and cut off when the
+ * journal is reopened. The directory is synced whenever a segment is created or deleted, so a record made durable
+ * by {@link #force} cannot be lost along with the directory entry of its segment.
+ * <p>
+ * The part of a failed write that reached the segment is cut off again, and a failed sync cuts the segment back to
+ * the records made durable so far, so that no torn bytes sit in front of later records and no record reported as
+ * failed is read back. Should that cut fail as well, the journal refuses every further append until it is reopened.
+ * <p>
+ * {@link #append} and {@link #force} must be called from a single writer thread. {@link #read} and
+ * {@link #deleteBefore} may run concurrently with the writer.
+ */
+public class SegmentedJournal implements Closeable {
+
+    private static final String SUFFIX = ".journal";
+    private static final int HEADER_BYTES = 8;
+
+    private final Path dir;
+    private final long segmentSize;
+    private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private FileChannel active;
+    private long activeBase;
+    private volatile long endOffset;
+    private volatile long durableOffset;
+    private IOException failure;
+
+    public SegmentedJournal(Path dir, long segmentSize) throws IOException {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        FileSync.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(f -> f.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(f -> segments.put(baseOffset(f), f));
+        }
+        if (segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            activeBase = segments.lastKey();
+            active = open(segments.lastEntry().getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long validLength = scanValidLength(active);
+            active.truncate(validLength);
+            active.position(validLength);
+            active.force(true);
+            endOffset = activeBase + validLength;
+            durableOffset = endOffset;
+        }
+    }
+
+    /**
+     * Writes the records to the active segment, rolling to a new segment first when it is full.
+     * The records are not durable until {@link #force} returns. When the write fails, none of them is kept.
+     *
+     * @return the offset of every record, in order
+     */
+    public long[] append(List<byte[]> payloads) throws IOException {
+        checkUsable();
+        try {
+            return write(payloads);
+        } catch (IOException | RuntimeException e) {
+            rollBack(endOffset, e);
+            throw e;
+        }
+    }
+
+    private long[] write(List<byte[]> payloads) throws IOException {
+        if (endOffset - activeBase >= segmentSize) {
+            active.force(false);
+            active.close();
+            openSegment(endOffset);
+        }
+        int total = 0;
+        for (byte[] payload : payloads) {
+            total += HEADER_BYTES + payload.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        long[] offsets = new long[payloads.size()];
+        long offset = endOffset;
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < payloads.size(); i++) {
+            byte[] payload = payloads.get(i);
+            crc.reset();
+            crc.update(payload);
+            buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            offsets[i] = offset;
+            offset += HEADER_BYTES + payload.length;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            active.write(buffer);
+        }
+        endOffset = offset;
+        return offsets;
+    }
+
+    /**
+     * Flushes everything appended so far to disk and makes it visible to {@link #read}. When the sync fails, the
+     * records appended since the last successful one are dropped.
+     */
+    public void force() throws IOException {
+        checkUsable();
+        try {
+            active.force(false);
+        } catch (IOException | RuntimeException e) {
+            rollBack(durableOffset, e);
+            throw e;
+        }
+        durableOffset = endOffset;
+    }
+
+    /**
+     * @return the offset just past the last record made durable by {@link #force}
+     */
+    public long durableOffset() {
+        return durableOffset;
+    }
+
+    /**
+     * Reads up to {@code maxRecords} durable records starting at {@code fromOffset}, which must be the offset of a
+     * record or the end of the journal.
+     */
+    public List<Record> read(long fromOffset, int maxRecords) throws IOException {
+        List<Record> records = new ArrayList<>();
+        long limit = durableOffset;
+        long offset = fromOffset;
+        while (records.size() < maxRecords && offset < limit) {
+            var segment = segments.floorEntry(offset);
+            if (segment == null) {
+                throw new IOException("Journal offset " + offset + " has already been deleted");
+            }
+            long segmentEnd = segments.higherKey(segment.getKey()) == null ? limit : segments.higherKey(segment.getKey());
+            try (FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+                channel.position(offset - segment.getKey());
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                while (records.size() < maxRecords && offset < Math.min(segmentEnd, limit)) {
+                    header.clear();
+                    readFully(channel, header);
+                    header.flip();
+                    byte[] payload = new byte[header.getInt()];
+                    header.getInt();
+                    readFully(channel, ByteBuffer.wrap(payload));
+                    long next = offset + HEADER_BYTES + payload.length;
+                    records.add(new Record(offset, next, payload));
+                    offset = next;
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Deletes the segments that only hold records before {@code offset}. The active segment is always kept.
+     */
+    public void deleteBefore(long offset) throws IOException {
+        boolean deleted = false;
+        for (var segment : segments.headMap(offset, true).entrySet()) {
+            Long next = segments.higherKey(segment.getKey());
+            if (next != null && next <= offset) {
+                segments.remove(segment.getKey());
+                Files.deleteIfExists(segment.getValue());
+                deleted = true;
+            }
+        }
+        if (deleted) {
+            FileSync.forceDirectory(dir);
+        }
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        active.force(true);
+        active.close();
+    }
+
+    private void checkUsable() throws IOException {
+        if (failure != null) {
+            throw new IOException("Journal in " + dir + " could not be cut back after a failed write, reopen it", failure);
+        }
+    }
+
+    /**
+     * Cuts the active segment back to {@code offset}, which lies in it: a segment is synced before the next one is
+     * opened, so neither the end of the journal nor its last durable record is ever in an older segment.
+     */
+    private void rollBack(long offset, Exception cause) {
+        try {
+            active.truncate(offset - activeBase);
+            active.position(offset - activeBase);
+            endOffset = offset;
+        } catch (IOException | RuntimeException e) {
+            e.addSuppressed(cause);
+            failure = e instanceof IOException io ? io : new IOException(e);
+        }
+    }
+
+    // Overridden by tests to inject I/O failures
+    FileChannel open(Path file, OpenOption... options) throws IOException {
+        return FileChannel.open(file, options);
+    }
+
+    private void openSegment(long base) throws IOException {
+        Path file = dir.resolve(String.format(Locale.ROOT, "%020d%s", base, SUFFIX));
+        active = open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Without this a synced record can vanish with its whole segment file after a crash
+        FileSync.forceDirectory(dir);
+        activeBase = base;
+        segments.put(base, file);
+        endOffset = base;
+        durableOffset = base;
+    }
+
+    /**
+     * @return the length of the prefix of the segment made of complete records with a valid checksum
+     */
+    private static long scanValidLength(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        CRC32 crc = new CRC32();
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length < 0 || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            channel.read(payload, position + HEADER_BYTES);
+            payload.flip();
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of journal segment");
+            }
+        }
+    }
+
+    private static long baseOffset(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    public record Record(long offset, long nextOffset, byte[] payload) {
+    }
+}
@@ -0,0 +1,8 @@
+-- Deal ids are only ever handed out from deal_id_block (V9). The AUTO_INCREMENT kept on deal.id let a row inserted
+-- without an id take one inside a block that an instance had reserved, and the deal later given that id was lost.
+-- A row written by hand must now take its id from deal_id_block as well, by moving next_id past it in the same
+-- transaction:
+--   SELECT next_id FROM deal_id_block WHERE name = 'deal' FOR UPDATE;
+--   UPDATE deal_id_block SET next_id = next_id + 1 WHERE name = 'deal';
+
+ALTER TABLE deal MODIFY id BIGINT NOT NULL;
@@ -0,0 +1,11 @@
+-- Ingestion pause: while paused_at is set (epoch milliseconds of the instance that paused), every instance rejects
+-- deal writes. Maintenance that must not race with writes, such as a shard rebalance, checks it first. Only the row
+-- on shard 0 is used.
+
+CREATE TABLE deal_ingestion_pause (
+    id        INT    NOT NULL,
+    paused_at BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO deal_ingestion_pause (id, paused_at) VALUES (1, 0);
@@ -0,0 +1,12 @@
+-- Read replicas: every application instance stamps its own row, keyed by deal.cluster.node-id, and only ever reads
+-- back its own. The single shared row was moved forward by the clocks of all instances, so an instance whose clock
+-- ran behind could take a replica for caught up before it had applied that instance's writes. beat_millis is epoch
+-- milliseconds of the instance's clock, strictly increasing per row.
+
+DROP TABLE deal_replica_heartbeat;
+
+CREATE TABLE deal_replica_heartbeat (
+    node_id     VARCHAR(255) NOT NULL,
+    beat_millis BIGINT       NOT NULL,
+    PRIMARY KEY (node_id)
+);
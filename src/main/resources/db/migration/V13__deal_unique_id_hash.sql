@@ -0,0 +1,13 @@
+-- Cluster dedup: an instance taking over a uniqueId range loads the uniqueIds of that range only, with a range seek on
+-- unique_id_hash instead of reading the whole table. unique_id_hash is the upper 32 bits of the uniqueId hash the
+-- ranges are cut from (DealJdbcRepository.uniqueIdHash), unsigned, and is written by the application with every
+-- uniqueId. Rows written before this migration keep NULL: they are never loaded into memory, and their duplicates
+-- are still rejected by the insert.
+
+ALTER TABLE deal ADD COLUMN unique_id_hash BIGINT;
+
+CREATE INDEX ix_deal_unique_id_hash_id ON deal (unique_id_hash, id);
+
+ALTER TABLE deal_unique_id ADD COLUMN unique_id_hash BIGINT;
+
+CREATE INDEX ix_deal_unique_id_hash ON deal_unique_id (unique_id_hash);
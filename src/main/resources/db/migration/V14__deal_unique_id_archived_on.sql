@@ -0,0 +1,5 @@
+-- Cold storage archive: the archiver records the UTC day a deal was archived under with its uniqueId, so that a lookup
+-- by uniqueId that misses the deal table reads the segments of that one day instead of the whole archive. Deals
+-- archived before this migration keep NULL and are only found through time range queries and exports.
+
+ALTER TABLE deal_unique_id ADD COLUMN archived_on DATE;
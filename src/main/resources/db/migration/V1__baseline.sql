@@ -0,0 +1,19 @@
+-- Tables as previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at version 0, so this script also runs there and must stay idempotent.
+
+CREATE TABLE IF NOT EXISTS deal (
+    id                     BIGINT       NOT NULL AUTO_INCREMENT,
+    unique_id              VARCHAR(255),
+    from_currency_iso_code VARCHAR(255),
+    to_currency_iso_code   VARCHAR(255),
+    deal_timestamp         DATETIME(6),
+    deal_amount            DOUBLE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS deal_checkpoint (
+    name       VARCHAR(255) NOT NULL,
+    position   BIGINT       NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (name)
+);
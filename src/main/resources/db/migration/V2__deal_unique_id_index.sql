@@ -0,0 +1,11 @@
+-- Without a constraint, concurrent requests could store the same uniqueId twice.
+-- Keep the first row of every uniqueId in deal and move the later copies aside before adding the unique index.
+
+CREATE TABLE deal_duplicate_archive AS
+SELECT * FROM deal
+WHERE id NOT IN (SELECT kept.id FROM (SELECT MIN(id) AS id FROM deal GROUP BY unique_id) kept);
+
+DELETE FROM deal
+WHERE id IN (SELECT id FROM deal_duplicate_archive);
+
+CREATE UNIQUE INDEX ux_deal_unique_id ON deal (unique_id);
@@ -0,0 +1,6 @@
+-- Keyset pagination of GET /v1/dealers/deals walks (deal_timestamp, id), optionally within one currency pair.
+-- With these indexes every page is a range seek from the cursor, whatever its depth.
+
+CREATE INDEX ix_deal_timestamp_id ON deal (deal_timestamp, id);
+
+CREATE INDEX ix_deal_pair_timestamp_id ON deal (from_currency_iso_code, to_currency_iso_code, deal_timestamp, id);
@@ -0,0 +1,53 @@
+-- Currency codes become CHAR(3) holding an ISO 4217 code and amounts become DECIMAL(19,4) instead of DOUBLE.
+-- Codes are trimmed and upper-cased first; rows that still cannot be converted (missing values, codes outside
+-- ISO 4217, amounts of 10^15 or more, amounts with more than 4 fraction digits, which DECIMAL(19,4) would round)
+-- are moved to deal_currency_archive, as V2 did for duplicates. Count them there after the upgrade.
+-- ROUND on a DOUBLE gives the DOUBLE nearest to the rounded value, so it equals the amount exactly when the amount
+-- has at most 4 fraction digits.
+
+CREATE TABLE iso_currency_code (
+    code CHAR(3) NOT NULL,
+    PRIMARY KEY (code)
+);
+
+INSERT INTO iso_currency_code (code) VALUES
+    ('AED'), ('AFN'), ('ALL'), ('AMD'), ('ANG'), ('AOA'), ('ARS'), ('AUD'), ('AWG'), ('AZN'), ('BAM'), ('BBD'),
+    ('BDT'), ('BGN'), ('BHD'), ('BIF'), ('BMD'), ('BND'), ('BOB'), ('BOV'), ('BRL'), ('BSD'), ('BTN'), ('BWP'),
+    ('BYN'), ('BZD'), ('CAD'), ('CDF'), ('CHE'), ('CHF'), ('CHW'), ('CLF'), ('CLP'), ('CNY'), ('COP'), ('COU'),
+    ('CRC'), ('CUP'), ('CVE'), ('CZK'), ('DJF'), ('DKK'), ('DOP'), ('DZD'), ('EGP'), ('ERN'), ('ETB'), ('EUR'),
+    ('FJD'), ('FKP'), ('GBP'), ('GEL'), ('GHS'), ('GIP'), ('GMD'), ('GNF'), ('GTQ'), ('GYD'), ('HKD'), ('HNL'),
+    ('HTG'), ('HUF'), ('IDR'), ('ILS'), ('INR'), ('IQD'), ('IRR'), ('ISK'), ('JMD'), ('JOD'), ('JPY'), ('KES'),
+    ('KGS'), ('KHR'), ('KMF'), ('KPW'), ('KRW'), ('KWD'), ('KYD'), ('KZT'), ('LAK'), ('LBP'), ('LKR'), ('LRD'),
+    ('LSL'), ('LYD'), ('MAD'), ('MDL'), ('MGA'), ('MKD'), ('MMK'), ('MNT'), ('MOP'), ('MRU'), ('MUR'), ('MVR'),
+    ('MWK'), ('MXN'), ('MXV'), ('MYR'), ('MZN'), ('NAD'), ('NGN'), ('NIO'), ('NOK'), ('NPR'), ('NZD'), ('OMR'),
+    ('PAB'), ('PEN'), ('PGK'), ('PHP'), ('PKR'), ('PLN'), ('PYG'), ('QAR'), ('RON'), ('RSD'), ('RUB'), ('RWF'),
+    ('SAR'), ('SBD'), ('SCR'), ('SDG'), ('SEK'), ('SGD'), ('SHP'), ('SLE'), ('SOS'), ('SRD'), ('SSP'), ('STN'),
+    ('SVC'), ('SYP'), ('SZL'), ('THB'), ('TJS'), ('TMT'), ('TND'), ('TOP'), ('TRY'), ('TTD'), ('TWD'), ('TZS'),
+    ('UAH'), ('UGX'), ('USD'), ('USN'), ('UYI'), ('UYU'), ('UYW'), ('UZS'), ('VED'), ('VES'), ('VND'), ('VUV'),
+    ('WST'), ('XAF'), ('XAG'), ('XAU'), ('XBA'), ('XBB'), ('XBC'), ('XBD'), ('XCD'), ('XCG'), ('XDR'), ('XOF'),
+    ('XPD'), ('XPF'), ('XPT'), ('XSU'), ('XUA'), ('YER'), ('ZAR'), ('ZMW'), ('ZWG');
+
+UPDATE deal
+SET from_currency_iso_code = UPPER(TRIM(from_currency_iso_code)),
+    to_currency_iso_code   = UPPER(TRIM(to_currency_iso_code));
+
+CREATE TABLE deal_currency_archive AS
+SELECT * FROM deal
+WHERE from_currency_iso_code IS NULL
+   OR to_currency_iso_code IS NULL
+   OR deal_amount IS NULL
+   OR ABS(deal_amount) >= 1000000000000000
+   OR ROUND(deal_amount, 4) <> deal_amount
+   OR from_currency_iso_code NOT IN (SELECT code FROM iso_currency_code)
+   OR to_currency_iso_code NOT IN (SELECT code FROM iso_currency_code);
+
+DELETE FROM deal
+WHERE id IN (SELECT id FROM deal_currency_archive);
+
+DROP TABLE iso_currency_code;
+
+ALTER TABLE deal MODIFY from_currency_iso_code CHAR(3) NOT NULL;
+
+ALTER TABLE deal MODIFY to_currency_iso_code CHAR(3) NOT NULL;
+
+ALTER TABLE deal MODIFY deal_amount DECIMAL(19, 4) NOT NULL;
@@ -0,0 +1,7 @@
+-- Slim dedup table for deal.dedup.mode=table: one row per uniqueId ever accepted, whatever partition of deal the
+-- deal lives in (or whether that partition was dropped since). Filled from deal at startup, see DealUniqueIdBackfill.
+
+CREATE TABLE deal_unique_id (
+    unique_id VARCHAR(255) NOT NULL,
+    PRIMARY KEY (unique_id)
+);
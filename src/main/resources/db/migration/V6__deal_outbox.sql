@@ -0,0 +1,16 @@
+-- Transactional outbox: one compact row per persisted deal, written in the transaction that inserts the deal and
+-- deleted by DealOutboxRelay once published. The relay's high-water mark is the outbox:relay checkpoint.
+
+CREATE TABLE deal_outbox (
+    id                     BIGINT         NOT NULL AUTO_INCREMENT,
+    deal_id                BIGINT,
+    unique_id              VARCHAR(255)   NOT NULL,
+    from_currency_iso_code CHAR(3)        NOT NULL,
+    to_currency_iso_code   CHAR(3)        NOT NULL,
+    deal_timestamp         DATETIME(6)    NOT NULL,
+    deal_amount            DECIMAL(19, 4) NOT NULL,
+    created_at             DATETIME(6)    NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO deal_checkpoint (name, position, updated_at) VALUES ('outbox:relay', 0, NULL);
@@ -0,0 +1,17 @@
+-- Cluster dedup mode: every live application instance heartbeats into deal_cluster_node, and the uniqueId hash space
+-- is cut into ranges that instances lease from deal_range_lease. Rows of deal_range_lease are created by the
+-- instances at startup, one per range. Lease times are taken from the database clock.
+
+CREATE TABLE deal_cluster_node (
+    node_id      VARCHAR(255) NOT NULL,
+    heartbeat_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (node_id)
+);
+
+CREATE TABLE deal_range_lease (
+    range_id    INT         NOT NULL,
+    owner       VARCHAR(255),
+    lease_until DATETIME(6),
+    epoch       BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (range_id)
+);
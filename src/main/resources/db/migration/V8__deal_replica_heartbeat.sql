@@ -0,0 +1,11 @@
+-- Read replicas: application instances stamp the single row of deal_replica_heartbeat on the primary, and the stamp
+-- read back from a replica tells how far that replica has caught up. beat_millis is epoch milliseconds of the
+-- application clock, only ever moved forward.
+
+CREATE TABLE deal_replica_heartbeat (
+    id          INT    NOT NULL,
+    beat_millis BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO deal_replica_heartbeat (id, beat_millis) VALUES (1, 0);
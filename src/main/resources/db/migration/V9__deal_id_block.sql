@@ -0,0 +1,11 @@
+-- Deal ids are handed out by the application in blocks: an instance takes the next block by moving next_id forward,
+-- then numbers its deals from memory. next_id starts past the ids of the existing deals. The id column keeps its
+-- AUTO_INCREMENT for rows written by hand.
+
+CREATE TABLE deal_id_block (
+    name    VARCHAR(64) NOT NULL,
+    next_id BIGINT      NOT NULL,
+    PRIMARY KEY (name)
+);
+
+INSERT INTO deal_id_block (name, next_id) SELECT 'deal', COALESCE(MAX(id), 0) + 1 FROM deal;
@@ -0,0 +1,63 @@
+package com.demo.controller;
+
+
+import com.demo.dto.DealRequest;
+import com.demo.dto.DealResponse;
+import com.demo.service.ReactiveDealService;
+import com.demo.service.impl.DealAuditLogger;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * WebFlux version of {@link DealController#createDeal}, served when the {@code reactive} profile is active.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/v1/dealers")
+@Validated
+@Profile("reactive")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDealController {
+
+    private final ReactiveDealService reactiveDealService;
+    private final DealAuditLogger dealAuditLogger;
+
+    public ReactiveDealController(ReactiveDealService reactiveDealService, DealAuditLogger dealAuditLogger) {
+        this.reactiveDealService = reactiveDealService;
+        this.dealAuditLogger = dealAuditLogger;
+    }
+
+    @Operation(
+            summary = "Create fx deal cluster",
+            description = "Accept deals details from customer and persist them into DB."
+    )
+    @PostMapping("/deals")
+    public Mono<ResponseEntity<DealResponse>> createDeal(@Valid @RequestBody DealRequest dealRequest) {
+        boolean audited = dealAuditLogger.logRequest(dealRequest);
+        return reactiveDealService.saveDeal(dealRequest)
+                .doOnNext(response -> dealAuditLogger.logResponse(response, audited))
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+                .onErrorResume(ResponseStatusException.class, e -> {
+                    log.error("Exception ex: {}", e.getMessage());
+                    HttpStatus status = HttpStatus.valueOf(e.getStatusCode().value());
+                    DealResponse errorResponseDTO = new DealResponse(
+                            status.value(),
+                            e.getReason(),
+                            e.getMessage(),
+                            null
+                    );
+                    dealAuditLogger.logResponse(errorResponseDTO, audited);
+                    return Mono.just(ResponseEntity.status(status).body(errorResponseDTO));
+                });
+    }
+}
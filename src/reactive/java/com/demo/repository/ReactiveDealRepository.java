@@ -0,0 +1,230 @@
+package com.demo.repository;
+
+import com.demo.entity.Deal;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+
+/**
+ * Non-blocking counterpart of {@link DealJdbcRepository} used by the {@code reactive} profile.
+ * <p>
+ * The R2DBC pool is owned by this repository rather than exposed as a {@code ConnectionFactory} bean, because
+ * such a bean would switch off the JDBC DataSource that Flyway and the background jobs still rely on.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveDealRepository {
+
+    private static final String DEAL_COLUMNS =
+            "deal (id, unique_id, from_currency_iso_code, to_currency_iso_code, deal_timestamp, deal_amount, unique_id_hash)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_IGNORE_DEAL = "INSERT IGNORE INTO " + DEAL_COLUMNS;
+    private static final String INSERT_DEAL = "INSERT INTO " + DEAL_COLUMNS;
+    private static final String CLAIM_UNIQUE_ID = "INSERT IGNORE INTO deal_unique_id (unique_id, unique_id_hash) VALUES (?, ?)";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final DealIdAllocator dealIdAllocator;
+    private final DealDedupMode dedupMode;
+    private final boolean outboxEnabled;
+
+    public ReactiveDealRepository(@Value("${spring.r2dbc.url}") String url,
+                                  @Value("${spring.r2dbc.username}") String username,
+                                  @Value("${spring.r2dbc.password}") String password,
+                                  @Value("${spring.r2dbc.pool.max-size}") int maxSize,
+                                  DealIdAllocator dealIdAllocator,
+                                  @Value("${deal.dedup.mode}") DealDedupMode dedupMode,
+                                  @Value("${deal.outbox.enabled}") boolean outboxEnabled) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(maxSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+        this.transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionPool));
+        this.dealIdAllocator = dealIdAllocator;
+        this.dedupMode = dedupMode;
+        this.outboxEnabled = outboxEnabled;
+    }
+
+    /**
+     * Inserts the deals with one multi-binding {@code INSERT IGNORE} statement in a single transaction. In
+     * {@link DealDedupMode#TABLE} mode the uniqueIds are first claimed with one multi-binding statement on
+     * {@code deal_unique_id}, and only the claimed deals are inserted. With {@code deal.outbox.enabled}, the
+     * inserted deals are also appended to {@code deal_outbox} in the same transaction.
+     * <p>
+     * The ids come from {@link DealIdAllocator}, taken on a worker thread since reserving a new block blocks.
+     *
+     * @return the id of every deal, in order, or 0 for a deal whose uniqueId already exists
+     */
+    public Mono<List<Long>> insertAll(List<Deal> deals) {
+        return Mono.fromCallable(() -> dealIdAllocator.nextIds(deals.size()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(ids -> {
+                    for (int i = 0; i < deals.size(); i++) {
+                        deals.get(i).setId(ids[i]);
+                    }
+                    return insertWithIds(deals);
+                });
+    }
+
+    private Mono<List<Long>> insertWithIds(List<Deal> deals) {
+        Flux<Long> ids = databaseClient.inConnectionMany(connection -> {
+            if (dedupMode == DealDedupMode.INDEX) {
+                return Flux.from(insertStatement(connection, INSERT_IGNORE_DEAL, deals).execute())
+                        .concatMap(result -> Mono.from(result.getRowsUpdated()))
+                        .collectList()
+                        .flatMap(counts -> counts.contains(0L)
+                                ? requireDuplicates(connection, deals, counts).thenReturn(counts)
+                                : Mono.just(counts))
+                        .flatMapIterable(counts -> insertedIds(deals, counts));
+            }
+            Statement claim = connection.createStatement(CLAIM_UNIQUE_ID);
+            for (int i = 0; i < deals.size(); i++) {
+                claim.bind(0, deals.get(i).getUniqueId())
+                        .bind(1, DealJdbcRepository.uniqueIdHash(deals.get(i).getUniqueId()));
+                if (i < deals.size() - 1) {
+                    claim.add();
+                }
+            }
+            return Flux.from(claim.execute())
+                    .concatMap(result -> Mono.from(result.getRowsUpdated()))
+                    .collectList()
+                    .flatMapMany(counts -> {
+                        List<Deal> claimed = new ArrayList<>(deals.size());
+                        for (int i = 0; i < deals.size(); i++) {
+                            if (counts.get(i) != 0) {
+                                claimed.add(deals.get(i));
+                            }
+                        }
+                        Mono<Void> inserted = claimed.isEmpty()
+                                ? Mono.empty()
+                                : Flux.from(insertStatement(connection, INSERT_DEAL, claimed).execute())
+                                        .concatMap(Result::getRowsUpdated)
+                                        .then();
+                        return inserted.thenMany(Flux.fromIterable(insertedIds(deals, counts)));
+                    });
+        });
+        Mono<List<Long>> inserted = ids.collectList();
+        if (outboxEnabled) {
+            inserted = inserted.flatMap(insertedIds -> databaseClient
+                    .inConnection(connection -> appendOutbox(connection, deals, insertedIds))
+                    .thenReturn(insertedIds));
+        }
+        return transactionalOperator.transactional(inserted);
+    }
+
+    private static Mono<Void> appendOutbox(Connection connection, List<Deal> deals, List<Long> ids) {
+        LocalDateTime createdAt = LocalDateTime.now(ZoneOffset.UTC);
+        Statement statement = connection.createStatement(DealOutboxRepository.INSERT_EVENT);
+        boolean empty = true;
+        for (int i = 0; i < deals.size(); i++) {
+            if (ids.get(i) == 0) {
+                continue;
+            }
+            if (!empty) {
+                statement.add();
+            }
+            Deal deal = deals.get(i);
+            statement.bind(0, ids.get(i))
+                    .bind(1, deal.getUniqueId())
+                    .bind(2, deal.getFromCurrencyIsoCode().name())
+                    .bind(3, deal.getToCurrencyIsoCode().name())
+                    .bind(4, deal.getDealTimestamp())
+                    .bind(5, deal.getDealAmount())
+                    .bind(6, createdAt);
+            empty = false;
+        }
+        return empty ? Mono.empty() : Flux.from(statement.execute()).concatMap(Result::getRowsUpdated).then();
+    }
+
+    private static Statement insertStatement(Connection connection, String sql, List<Deal> deals) {
+        Statement statement = connection.createStatement(sql);
+        for (int i = 0; i < deals.size(); i++) {
+            Deal deal = deals.get(i);
+            statement.bind(0, deal.getId())
+                    .bind(1, deal.getUniqueId())
+                    .bind(2, deal.getFromCurrencyIsoCode().name())
+                    .bind(3, deal.getToCurrencyIsoCode().name())
+                    .bind(4, deal.getDealTimestamp())
+                    .bind(5, deal.getDealAmount())
+                    .bind(6, DealJdbcRepository.uniqueIdHash(deal.getUniqueId()));
+            if (i < deals.size() - 1) {
+                statement.add();
+            }
+        }
+        return statement;
+    }
+
+    /**
+     * {@code INSERT IGNORE} also skips a row whose id is taken, which would silently lose the deal: fails unless the
+     * uniqueId of every skipped deal is taken.
+     */
+    private static Mono<Void> requireDuplicates(Connection connection, List<Deal> deals, List<Long> counts) {
+        List<Deal> skipped = new ArrayList<>();
+        for (int i = 0; i < deals.size(); i++) {
+            if (counts.get(i) == 0) {
+                skipped.add(deals.get(i));
+            }
+        }
+        Statement select = connection.createStatement("SELECT unique_id FROM deal WHERE unique_id IN ("
+                + String.join(", ", Collections.nCopies(skipped.size(), "?")) + ")");
+        for (int i = 0; i < skipped.size(); i++) {
+            select.bind(i, skipped.get(i).getUniqueId());
+        }
+        return Flux.from(select.execute())
+                .concatMap(result -> result.map((row, metadata) -> row.get(0, String.class)))
+                .collect(Collectors.toSet())
+                .flatMap(taken -> {
+                    for (Deal deal : skipped) {
+                        if (!taken.contains(deal.getUniqueId())) {
+                            return Mono.error(new DuplicateKeyException("Deal id " + deal.getId()
+                                    + " is already taken, deal " + deal.getUniqueId() + " was not inserted"));
+                        }
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * @param counts the affected-row count of each deal; an ignored duplicate affects no rows
+     */
+    private static List<Long> insertedIds(List<Deal> deals, List<Long> counts) {
+        List<Long> ids = new ArrayList<>(deals.size());
+        for (int i = 0; i < deals.size(); i++) {
+            ids.add(counts.get(i) == 0 ? 0L : deals.get(i).getId());
+        }
+        return ids;
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionPool.dispose();
+    }
+}
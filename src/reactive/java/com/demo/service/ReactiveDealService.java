@@ -0,0 +1,10 @@
+package com.demo.service;
+
+import com.demo.dto.DealRequest;
+import com.demo.dto.DealResponse;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveDealService {
+
+    Mono<DealResponse> saveDeal(DealRequest dealRequest);
+}
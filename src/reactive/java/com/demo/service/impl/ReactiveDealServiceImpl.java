@@ -0,0 +1,149 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealDTO;
+import com.demo.dto.DealRequest;
+import com.demo.dto.DealResponse;
+import com.demo.entity.Deal;
+import com.demo.repository.ReactiveDealRepository;
+import com.demo.service.DealsPersistedEvent;
+import com.demo.service.ReactiveDealService;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Reactive deal intake: requests are queued in a bounded sink and written in batches.
+ * <p>
+ * A batch is closed when it reaches {@code batch-size} deals or when {@code batch-max-wait} has elapsed, and at
+ * most {@code max-in-flight-batches} are written at once. Batches are only pulled from the queue when a write
+ * slot frees up, so a slow database makes the queue fill, and a full queue answers 503 straight away instead of
+ * buffering without bound.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveDealServiceImpl implements ReactiveDealService {
+
+    private final ReactiveDealRepository reactiveDealRepository;
+    private final DealMetrics dealMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Sinks.Many<PendingDeal> queue;
+    private final int batchSize;
+    private final Duration batchMaxWait;
+    private final int maxInFlightBatches;
+    private Disposable writer;
+
+    public ReactiveDealServiceImpl(ReactiveDealRepository reactiveDealRepository,
+                                   DealMetrics dealMetrics,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${deal.reactive.queue-capacity}") int queueCapacity,
+                                   @Value("${deal.reactive.batch-size}") int batchSize,
+                                   @Value("${deal.reactive.batch-max-wait}") Duration batchMaxWait,
+                                   @Value("${deal.reactive.max-in-flight-batches}") int maxInFlightBatches) {
+        this.reactiveDealRepository = reactiveDealRepository;
+        this.dealMetrics = dealMetrics;
+        this.eventPublisher = eventPublisher;
+        this.queue = Sinks.many().unicast().onBackpressureBuffer(Queues.<PendingDeal>get(queueCapacity).get());
+        this.batchSize = batchSize;
+        this.batchMaxWait = batchMaxWait;
+        this.maxInFlightBatches = maxInFlightBatches;
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = queue.asFlux()
+                .bufferTimeout(batchSize, batchMaxWait, true)
+                .flatMap(this::writeBatch, maxInFlightBatches)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        queue.tryEmitComplete();
+        writer.dispose();
+    }
+
+    @Override
+    public Mono<DealResponse> saveDeal(DealRequest dealRequest) {
+        Deal deal = DealMapper.convertToEntity(dealRequest);
+        return Mono.<Long>create(sink -> enqueue(new PendingDeal(deal, sink)))
+                .map(id -> {
+                    if (id == 0) {
+                        return new DealResponse(400, "Bad request", "Deal with the same unique ID already exists: " + deal.getUniqueId(), null);
+                    }
+                    deal.setId(id);
+                    return new DealResponse(0, null, "Successful", DealMapper.convertToDto(deal));
+                });
+    }
+
+    private void enqueue(PendingDeal pending) {
+        Sinks.EmitResult result;
+        // The unicast sink accepts one emitter at a time
+        synchronized (queue) {
+            result = queue.tryEmitNext(pending);
+        }
+        if (result.isFailure()) {
+            pending.sink().error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "The deal intake is overloaded, kindly retry later"));
+        }
+    }
+
+    private Mono<Void> writeBatch(List<PendingDeal> batch) {
+        List<Deal> deals = new ArrayList<>(batch.size());
+        for (PendingDeal pending : batch) {
+            deals.add(pending.deal());
+        }
+        Timer.Sample insert = dealMetrics.startStage();
+        return reactiveDealRepository.insertAll(deals)
+                .doOnNext(ids -> {
+                    dealMetrics.stopStage(insert, DealMetrics.Stage.INSERT);
+                    List<DealDTO> persisted = new ArrayList<>(batch.size());
+                    for (int i = 0; i < batch.size(); i++) {
+                        Deal deal = deals.get(i);
+                        // Accepted deals are counted by DealMetrics from the DealsPersistedEvent below
+                        if (ids.get(i) == 0) {
+                            dealMetrics.recordOutcome(DealMetrics.Outcome.DUPLICATE,
+                                    deal.getFromCurrencyIsoCode(), deal.getToCurrencyIsoCode());
+                        } else {
+                            DealDTO dto = DealMapper.convertToDto(deal);
+                            dto.setId(ids.get(i));
+                            persisted.add(dto);
+                        }
+                    }
+                    // The batch is committed by now; listeners run on this thread before the callers are answered
+                    eventPublisher.publishEvent(new DealsPersistedEvent(persisted));
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).sink().success(ids.get(i));
+                    }
+                })
+                .doOnError(e -> {
+                    log.error("Deal batch of {} failed", batch.size(), e);
+                    deals.forEach(deal -> dealMetrics.recordOutcome(DealMetrics.Outcome.FAILED,
+                            deal.getFromCurrencyIsoCode(), deal.getToCurrencyIsoCode()));
+                    ResponseStatusException error = new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while saving the deal.Kindly contact the administrator ");
+                    batch.forEach(pending -> pending.sink().error(error));
+                })
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private record PendingDeal(Deal deal, MonoSink<Long> sink) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.demo;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DealAmountMigrationTest {
+
+    @Test
+    void archivesAmountsThatDecimalWouldRoundInsteadOfConvertingThem() {
+        DataSource dataSource = TestDatabase.migrated("3");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        insert(jdbcTemplate, "exact", 0.1);
+        insert(jdbcTemplate, "four-digits", 1234.5678);
+        insert(jdbcTemplate, "five-digits", 1.23456);
+        insert(jdbcTemplate, "tiny", 0.00001);
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        assertEquals(List.of(new BigDecimal("0.1000"), new BigDecimal("1234.5678")), jdbcTemplate.queryForList(
+                "SELECT deal_amount FROM deal ORDER BY unique_id", BigDecimal.class));
+        assertEquals(List.of("five-digits", "tiny"), jdbcTemplate.queryForList(
+                "SELECT unique_id FROM deal_currency_archive ORDER BY unique_id", String.class));
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, String uniqueId, double amount) {
+        jdbcTemplate.update("INSERT INTO deal (unique_id, from_currency_iso_code, to_currency_iso_code, deal_timestamp,"
+                + " deal_amount) VALUES (?, 'USD', 'EUR', CURRENT_TIMESTAMP, ?)", uniqueId, amount);
+    }
+}
@@ -0,0 +1,33 @@
+package com.demo;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+
+/**
+ * A fresh in-memory H2 database in MySQL mode with the Flyway migrations applied, as the application runs in tests.
+ */
+public final class TestDatabase {
+
+    private TestDatabase() {
+    }
+
+    public static DataSource migrated() {
+        return migrated("latest");
+    }
+
+    /**
+     * A fresh database migrated up to and including the {@code target} version.
+     */
+    public static DataSource migrated(String target) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID()
+                + ";DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        dataSource.setUser("sa");
+        Flyway.configure().dataSource(dataSource).target(target).load().migrate();
+        return dataSource;
+    }
+}
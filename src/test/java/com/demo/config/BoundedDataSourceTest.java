@@ -0,0 +1,81 @@
+package com.demo.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoundedDataSourceTest {
+
+    private final AtomicInteger poolSize = new AtomicInteger(2);
+    private final DataSource pool = mock(DataSource.class);
+    private BoundedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new BoundedDataSource(pool, poolSize::get, 0, 10);
+    }
+
+    @Test
+    void handsOutTheConnectionsOfAGrownPool() throws SQLException {
+        dataSource.getConnection();
+        dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        poolSize.set(3);
+
+        dataSource.getConnection();
+        assertEquals(3, dataSource.getActiveConnections());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+    }
+
+    @Test
+    void handsAReturnedConnectionToTheCallerWaitingForItFirst() throws Exception {
+        poolSize.set(1);
+        BoundedDataSource limited = new BoundedDataSource(pool, poolSize::get, 10, 2_000);
+        Connection held = limited.getConnection();
+        FutureTask<Connection> waiter = new FutureTask<>(limited::getConnection);
+        Thread waiting = new Thread(waiter);
+        waiting.start();
+        try {
+            // Parked in the semaphore queue
+            while (waiting.getState() != Thread.State.TIMED_WAITING) {
+                Thread.sleep(1);
+            }
+
+            held.close();
+            // Queues behind the waiter instead of taking the permit it was released for
+            assertThrows(SQLTransientConnectionException.class, limited::getConnection);
+            assertNotNull(waiter.get());
+        } finally {
+            waiting.interrupt();
+        }
+    }
+
+    @Test
+    void waitsForHeldConnectionsToComeBackUnderAShrunkPool() throws SQLException {
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        poolSize.set(1);
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        first.close();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        second.close();
+        dataSource.getConnection();
+        assertEquals(1, dataSource.getActiveConnections());
+    }
+}
@@ -0,0 +1,95 @@
+package com.demo.config;
+
+import com.demo.repository.DealShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class ConnectionLimiterConfigTest {
+
+    private final HikariDataSource shard0 = pool("deal-shard-0");
+    private final HikariDataSource shard1 = pool("deal-shard-1");
+    private final DealShardRouter router = new DealShardRouter(true, List.of("jdbc:shard-1"), 16, 2);
+
+    @AfterEach
+    void tearDown() {
+        shard0.close();
+        shard1.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void limitsEveryShardPoolOnItsOwn() throws SQLException {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(List.of(shard0, shard1)));
+        Object processed = ConnectionLimiterConfig.boundedDataSourcePostProcessor(1, 0, 10, mock(ObjectProvider.class))
+                .postProcessAfterInitialization(dataSource, "dataSource");
+        assertSame(dataSource, processed);
+
+        // The connection of a transaction that has not run a statement yet holds no permit of any shard
+        try (Connection transaction = dataSource.getConnection();
+             Connection first = open(dataSource, 0);
+             Connection second = open(dataSource, 1)) {
+            assertThrows(SQLTransientConnectionException.class, () -> open(dataSource, 0));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void usesTheConfiguredSizeUntilAPoolWithoutOneStarts() throws SQLException {
+        try (HikariDataSource unsized = new HikariDataSource()) {
+            unsized.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID());
+            DataSource bounded = (DataSource) ConnectionLimiterConfig.boundedDataSourcePostProcessor(2, 0, 10,
+                    mock(ObjectProvider.class)).postProcessAfterInitialization(unsized, "dataSource");
+
+            assertEquals(2, ConnectionLimiterConfig.poolSize(unsized, 2).getAsInt());
+            try (Connection first = bounded.getConnection();
+                 Connection second = bounded.getConnection()) {
+                // Started, the pool reports the Hikari default of 10
+                assertEquals(10, ConnectionLimiterConfig.poolSize(unsized, 2).getAsInt());
+            }
+        }
+    }
+
+    /**
+     * A connection of the shard, taken from its pool by running a statement.
+     */
+    private Connection open(DataSource dataSource, int shard) throws SQLException {
+        SQLException[] failure = new SQLException[1];
+        Connection connection = router.inShard(shard, () -> {
+            try {
+                Connection opened = dataSource.getConnection();
+                opened.createStatement().execute("SELECT 1");
+                return opened;
+            } catch (SQLException e) {
+                failure[0] = e;
+                return null;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return connection;
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID());
+        pool.setMaximumPoolSize(1);
+        return pool;
+    }
+}
@@ -0,0 +1,73 @@
+package com.demo.config;
+
+import com.demo.TestDatabase;
+import com.demo.repository.DealReplicaRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaLagMonitorTest {
+
+    private final DataSource primary = TestDatabase.migrated();
+    private final DealReplicaRouter router = new DealReplicaRouter(new SimpleMeterRegistry(), true,
+            List.of("jdbc:replica-0", "jdbc:replica-1"), Duration.ofSeconds(5), 1000);
+
+    @Test
+    void readsAWriteBackFromAReplicaOnlyOnceItHasAppliedALaterStampOfThisInstance() throws SQLException {
+        DataSource replica = TestDatabase.migrated();
+        DataSource unreachable = mock(DataSource.class);
+        when(unreachable.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(router, "node-1", primary, List.of(replica, unreachable));
+
+        monitor.check();
+        assertEquals(DealReplicaRouter.PRIMARY, router.selectForRead());
+
+        replicate(replica);
+        monitor.check();
+        assertEquals(0, router.selectForRead());
+
+        router.written("d-1");
+        // Another instance whose clock runs far ahead stamps its own row, and the replica applies it
+        new JdbcTemplate(primary).update("INSERT INTO deal_replica_heartbeat (node_id, beat_millis) VALUES (?, ?)",
+                "node-2", System.currentTimeMillis() + Duration.ofHours(1).toMillis());
+        replicate(replica);
+        monitor.check();
+
+        assertEquals(DealReplicaRouter.PRIMARY, router.readYourWrites("d-1", router::selectForRead));
+        assertEquals(0, router.selectForRead());
+
+        replicate(replica);
+        monitor.check();
+
+        assertEquals(0, router.readYourWrites("d-1", router::selectForRead));
+    }
+
+    @Test
+    void deletesTheRowsOfInstancesSilentForADay() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(primary);
+        jdbcTemplate.update("INSERT INTO deal_replica_heartbeat (node_id, beat_millis) VALUES (?, ?)",
+                "gone", System.currentTimeMillis() - Duration.ofDays(2).toMillis());
+
+        new ReplicaLagMonitor(router, "node-1", primary, List.of(primary, primary)).check();
+
+        assertEquals(List.of("node-1"), jdbcTemplate.queryForList("SELECT node_id FROM deal_replica_heartbeat", String.class));
+    }
+
+    private void replicate(DataSource replica) {
+        JdbcTemplate target = new JdbcTemplate(replica);
+        target.update("DELETE FROM deal_replica_heartbeat");
+        new JdbcTemplate(primary).query("SELECT node_id, beat_millis FROM deal_replica_heartbeat", (RowCallbackHandler) rs ->
+                target.update("INSERT INTO deal_replica_heartbeat (node_id, beat_millis) VALUES (?, ?)",
+                        rs.getString(1), rs.getLong(2)));
+    }
+}
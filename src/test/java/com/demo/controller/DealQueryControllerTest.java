@@ -0,0 +1,87 @@
+package com.demo.controller;
+
+import com.demo.dto.DealFileFormat;
+import com.demo.dto.DealPageResponse;
+import com.demo.service.DealExportService;
+import com.demo.service.DealQueryService;
+import com.demo.util.DealCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DealQueryControllerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 10, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+    private static final String ROWS = "{\"id\":1}\n{\"id\":2}\n";
+
+    private final DealExportService dealExportService = mock(DealExportService.class);
+    private final DealQueryController controller = new DealQueryController(mock(DealQueryService.class), dealExportService);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(dealExportService.startPosition(FROM, TO, null)).thenReturn(new DealCursor(FROM, 0));
+        when(dealExportService.export(eq(DealFileFormat.NDJSON), any(), eq(TO), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write(ROWS.getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+    }
+
+    @Test
+    void compressesTheExportForClientsThatAcceptGzip() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.exportDeals(FROM, TO, DealFileFormat.NDJSON, null, "deflate, gzip", response);
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(ROWS, new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void sendsTheExportAsIsToOtherClients() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.exportDeals(FROM, TO, DealFileFormat.NDJSON, null, null, response);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(ROWS, response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void answersAnErrorOnlyBeforeTheExportStarted() {
+        ResponseStatusException error = new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown afterId: 9");
+
+        ResponseEntity<DealPageResponse> answered = controller.exportError(error, new MockHttpServletResponse());
+        assertEquals(HttpStatus.BAD_REQUEST, answered.getStatusCode());
+        assertEquals("Unknown afterId: 9", answered.getBody().getError());
+
+        // Rows already went out, so the transfer is aborted instead
+        MockHttpServletResponse committed = new MockHttpServletResponse();
+        committed.setCommitted(true);
+        assertSame(error, assertThrows(ResponseStatusException.class, () -> controller.exportError(error, committed)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.demo.dto;
+
+import com.demo.entity.CurrencyCode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DealRequestTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void rejectsAUniqueIdLongerThanItsColumn() {
+        assertEquals(List.of(), violations("X".repeat(255)));
+        assertEquals(List.of("Deal Unique Id must have at most 255 characters"), violations("X".repeat(256)));
+    }
+
+    private List<String> violations(String uniqueId) {
+        DealRequest request = new DealRequest();
+        request.setUniqueId(uniqueId);
+        request.setFromCurrencyIsoCode(CurrencyCode.USD);
+        request.setToCurrencyIsoCode(CurrencyCode.EUR);
+        request.setDealTimestamp(LocalDateTime.of(2026, 10, 17, 10, 0));
+        request.setDealAmount(new BigDecimal("5.0000"));
+        return validator.validate(request).stream().map(ConstraintViolation::getMessage).toList();
+    }
+}
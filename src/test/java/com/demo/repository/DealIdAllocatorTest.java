@@ -0,0 +1,121 @@
+package com.demo.repository;
+
+import com.demo.TestDatabase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DealIdAllocatorTest {
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private final List<DealIdAllocator> allocators = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        dataSource = TestDatabase.migrated();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        allocators.forEach(DealIdAllocator::shutdown);
+    }
+
+    @Test
+    void instancesSharingTheTableNeverHandOutTheSameId() throws Exception {
+        DealIdAllocator first = allocator(7, false, 1);
+        DealIdAllocator second = allocator(7, false, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<long[]>> taken = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                DealIdAllocator allocator = i % 2 == 0 ? first : second;
+                int count = 1 + i % 5;
+                taken.add(executor.submit(() -> allocator.nextIds(count)));
+            }
+            Set<Long> ids = new HashSet<>();
+            int total = 0;
+            for (Future<long[]> future : taken) {
+                for (long id : future.get()) {
+                    assertTrue(ids.add(id), "id " + id + " handed out twice");
+                    total++;
+                }
+            }
+            assertEquals(total, ids.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void idsIncreaseWithinAnInstanceAcrossBlocks() {
+        DealIdAllocator allocator = allocator(3, false, 1);
+
+        long[] ids = allocator.nextIds(10);
+
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i] > ids[i - 1]);
+        }
+    }
+
+    @Test
+    void eachShardKeepsItsOffsetAndStride() {
+        DealShardRouter router = new DealShardRouter(true, List.of("second-shard"), 16, 1);
+        DealIdAllocator allocator = allocator(router, 4, true, 16);
+
+        long[] first = router.inShard(0, () -> allocator.nextIds(6));
+        long[] second = router.inShard(1, () -> allocator.nextIds(6));
+
+        for (long id : first) {
+            assertEquals(1, Math.floorMod(id, 16));
+        }
+        for (long id : second) {
+            assertEquals(2, Math.floorMod(id, 16));
+        }
+    }
+
+    @Test
+    void blocksStartPastTheExistingDeals() {
+        jdbcTemplate.update("UPDATE deal_id_block SET next_id = 500 WHERE name = 'deal'");
+
+        assertEquals(500, allocator(10, false, 1).nextId());
+    }
+
+    @Test
+    void aDealWithoutAnIdCannotBeInsertedByHand() {
+        assertThrows(DataAccessException.class, () -> jdbcTemplate.update("INSERT INTO deal (unique_id,"
+                + " from_currency_iso_code, to_currency_iso_code, deal_timestamp, deal_amount)"
+                + " VALUES ('X', 'USD', 'EUR', CURRENT_TIMESTAMP, 1)"));
+    }
+
+    private DealIdAllocator allocator(int blockSize, boolean sharding, int stride) {
+        return allocator(new DealShardRouter(false, List.of(), 16, 1), blockSize, sharding, stride);
+    }
+
+    private DealIdAllocator allocator(DealShardRouter router, int blockSize, boolean sharding, int stride) {
+        DealIdBlockRepository repository =
+                new DealIdBlockRepository(jdbcTemplate, new DataSourceTransactionManager(dataSource));
+        DealIdAllocator allocator =
+                new DealIdAllocator(repository, router, new SimpleMeterRegistry(), blockSize, sharding, stride);
+        allocators.add(allocator);
+        return allocator;
+    }
+}
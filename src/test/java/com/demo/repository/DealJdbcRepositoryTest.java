@@ -0,0 +1,117 @@
+package com.demo.repository;
+
+import com.demo.TestDatabase;
+import com.demo.entity.CurrencyCode;
+import com.demo.entity.Deal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class DealJdbcRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private DealJdbcRepository indexRepository;
+    private DealJdbcRepository tableRepository;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = TestDatabase.migrated();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        DealIdAllocator allocator = mock(DealIdAllocator.class);
+        indexRepository = new DealJdbcRepository(jdbcTemplate, allocator, DealDedupMode.INDEX);
+        tableRepository = new DealJdbcRepository(jdbcTemplate, allocator, DealDedupMode.TABLE);
+    }
+
+    @Test
+    void batchInsertReportsEveryRowInsertedWhenNoneIsADuplicate() {
+        boolean[] inserted = indexRepository.batchInsert(List.of(deal(1, "A"), deal(2, "B"), deal(3, "C")));
+
+        assertArrayEquals(new boolean[]{true, true, true}, inserted);
+        assertEquals(3, count());
+    }
+
+    @Test
+    void batchInsertReportsDuplicatesInIndexMode() {
+        indexRepository.batchInsert(List.of(deal(1, "A"), deal(2, "B")));
+
+        boolean[] inserted = indexRepository.batchInsert(List.of(deal(3, "B"), deal(4, "C"), deal(5, "A")));
+
+        assertArrayEquals(new boolean[]{false, true, false}, inserted);
+        assertEquals(3, count());
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT id FROM deal WHERE unique_id = 'B'", Long.class));
+    }
+
+    @Test
+    void batchInsertReportsDuplicatesInTableMode() {
+        transactionTemplate.executeWithoutResult(status -> tableRepository.batchInsert(List.of(deal(1, "A"))));
+
+        boolean[] inserted = transactionTemplate.execute(
+                status -> tableRepository.batchInsert(List.of(deal(2, "A"), deal(3, "B"))));
+
+        assertArrayEquals(new boolean[]{false, true}, inserted);
+        assertEquals(2, count());
+    }
+
+    @Test
+    void insertIgnoreRejectsADuplicate() {
+        indexRepository.batchInsert(List.of(deal(1, "A")));
+
+        Deal duplicate = deal(2, "A");
+
+        assertEquals(false, indexRepository.insertIgnore(duplicate));
+        assertEquals(null, duplicate.getId());
+        assertEquals(true, indexRepository.insertIgnore(deal(3, "B")));
+    }
+
+    @Test
+    void aDealWhoseIdIsTakenFailsInsteadOfBeingReportedAsADuplicate() {
+        indexRepository.batchInsert(List.of(deal(1, "A")));
+
+        assertThrows(DuplicateKeyException.class, () -> indexRepository.batchInsert(List.of(deal(2, "B"), deal(1, "C"))));
+        assertThrows(DuplicateKeyException.class, () -> indexRepository.insertIgnore(deal(1, "D")));
+    }
+
+    @Test
+    void anOverLongUniqueIdFailsInsteadOfBeingTruncated() {
+        String uniqueId = "X".repeat(300);
+
+        assertThrows(DataIntegrityViolationException.class, () -> indexRepository.insertIgnore(deal(1, uniqueId)));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> indexRepository.batchInsert(List.of(deal(2, "A"), deal(3, uniqueId))));
+        assertThrows(DataIntegrityViolationException.class, () -> transactionTemplate.execute(
+                status -> tableRepository.batchInsert(List.of(deal(4, uniqueId)))));
+        assertEquals(0, count());
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deal", Integer.class);
+    }
+
+    static Deal deal(long id, String uniqueId) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setUniqueId(uniqueId);
+        deal.setFromCurrencyIsoCode(CurrencyCode.USD);
+        deal.setToCurrencyIsoCode(CurrencyCode.EUR);
+        deal.setDealTimestamp(LocalDateTime.of(2026, 10, 17, 10, 0));
+        deal.setDealAmount(new BigDecimal("5.0000"));
+        return deal;
+    }
+}
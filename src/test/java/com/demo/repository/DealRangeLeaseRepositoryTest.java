@@ -0,0 +1,154 @@
+package com.demo.repository;
+
+import com.demo.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DealRangeLeaseRepositoryTest {
+
+    private static final Duration TTL = Duration.ofSeconds(15);
+
+    private JdbcTemplate jdbcTemplate;
+    private DealRangeLeaseRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(TestDatabase.migrated());
+        repository = new DealRangeLeaseRepository(jdbcTemplate);
+        repository.createRanges(4);
+    }
+
+    @Test
+    void createsTheMissingRangesOnly() {
+        repository.claim(0, "a", TTL);
+        repository.createRanges(6);
+
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deal_range_lease", Integer.class));
+        assertEquals(List.of(0), repository.renew("a", TTL, 6));
+        assertEquals(List.of(1, 2, 3, 4, 5), repository.findClaimable(6));
+    }
+
+    @Test
+    void onlyOneOfTheNodesClaimingARangeGetsIt() throws Exception {
+        int nodes = 8;
+        Map<Integer, List<String>> winners = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(nodes);
+        try {
+            List<Future<?>> claims = new ArrayList<>();
+            for (int node = 0; node < nodes; node++) {
+                String nodeId = "node-" + node;
+                claims.add(executor.submit(() -> {
+                    for (int range = 0; range < 4; range++) {
+                        if (repository.claim(range, nodeId, TTL)) {
+                            winners.computeIfAbsent(range, key -> new CopyOnWriteArrayList<>()).add(nodeId);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> claim : claims) {
+                claim.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(repository.findClaimable(4).isEmpty());
+        for (int range = 0; range < 4; range++) {
+            List<String> won = winners.get(range);
+            assertEquals(1, won.size(), "winners of range " + range + ": " + won);
+            assertEquals(won.get(0), jdbcTemplate.queryForObject(
+                    "SELECT owner FROM deal_range_lease WHERE range_id = ?", String.class, range));
+        }
+    }
+
+    @Test
+    void anExpiredLeaseIsTakenOverAndNoLongerRenewedByItsFormerOwner() {
+        assertTrue(repository.claim(0, "a", TTL));
+        assertFalse(repository.claim(0, "b", TTL));
+        assertEquals(List.of(1, 2, 3), repository.findClaimable(4));
+
+        expire(0);
+
+        assertEquals(List.of(0, 1, 2, 3), repository.findClaimable(4));
+        assertTrue(repository.claim(0, "b", TTL));
+        assertEquals(List.of(), repository.renew("a", TTL, 4));
+        assertEquals(List.of(0), repository.renew("b", TTL, 4));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT epoch FROM deal_range_lease WHERE range_id = 0", Long.class));
+    }
+
+    @Test
+    void renewingExtendsTheLeasesStillHeld() {
+        repository.claim(0, "a", TTL);
+        repository.claim(1, "a", TTL);
+        expire(0);
+
+        assertEquals(List.of(1), repository.renew("a", TTL, 4));
+        assertEquals(List.of(0, 2, 3), repository.findClaimable(4));
+    }
+
+    @Test
+    void releasedRangesAreClaimableAtOnce() {
+        for (int range = 0; range < 3; range++) {
+            repository.claim(range, "a", TTL);
+        }
+
+        repository.release("a", List.of(1, 2));
+        repository.release("b", List.of(0));
+
+        assertEquals(List.of(1, 2, 3), repository.findClaimable(4));
+        assertEquals(List.of(0), repository.renew("a", TTL, 4));
+    }
+
+    @Test
+    void aLeavingNodeFreesItsRangesAndStopsCounting() {
+        repository.heartbeat("a");
+        repository.heartbeat("b");
+        repository.claim(0, "a", TTL);
+        repository.claim(1, "a", TTL);
+        repository.claim(2, "b", TTL);
+        assertEquals(2, repository.countLiveNodes(TTL));
+
+        repository.leave("a");
+
+        assertEquals(1, repository.countLiveNodes(TTL));
+        assertEquals(List.of(0, 1, 3), repository.findClaimable(4));
+        assertEquals(List.of(2), repository.renew("b", TTL, 4));
+    }
+
+    @Test
+    void silentNodesStopCountingAndAreEventuallyDeleted() {
+        repository.heartbeat("a");
+        repository.heartbeat("b");
+        jdbcTemplate.update("UPDATE deal_cluster_node SET heartbeat_at = TIMESTAMPADD(MINUTE, -1, NOW(6)) WHERE node_id = 'b'");
+
+        assertEquals(1, repository.countLiveNodes(TTL));
+        repository.deleteNodesSilentFor(TTL.multipliedBy(10));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deal_cluster_node", Integer.class));
+        repository.deleteNodesSilentFor(TTL);
+        assertEquals(List.of("a"), jdbcTemplate.queryForList("SELECT node_id FROM deal_cluster_node", String.class));
+
+        // No node alive still makes one share of the ranges
+        jdbcTemplate.update("DELETE FROM deal_cluster_node");
+        assertEquals(1, repository.countLiveNodes(TTL));
+    }
+
+    private void expire(int rangeId) {
+        jdbcTemplate.update("UPDATE deal_range_lease SET lease_until = TIMESTAMPADD(SECOND, -1, NOW(6)) WHERE range_id = ?",
+                rangeId);
+    }
+}
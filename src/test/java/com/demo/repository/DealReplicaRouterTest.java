@@ -0,0 +1,77 @@
+package com.demo.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DealReplicaRouterTest {
+
+    private final DealReplicaRouter router = new DealReplicaRouter(new SimpleMeterRegistry(), true,
+            List.of("jdbc:replica-0", "jdbc:replica-1", "jdbc:replica-2"), Duration.ofSeconds(5), 1000);
+
+    @Test
+    void spreadsReadsOverTheReplicasThatHaveCaughtUp() {
+        long now = System.currentTimeMillis();
+        router.caughtUp(0, now);
+        router.caughtUp(1, 0);
+        router.caughtUp(2, now - Duration.ofMinutes(10).toMillis());
+
+        assertEquals(Set.of(0), targets(6));
+
+        router.caughtUp(1, now);
+
+        assertEquals(Set.of(0, 1), targets(6));
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhenNoReplicaHasCaughtUp() {
+        router.caughtUp(0, 0);
+        router.caughtUp(1, System.currentTimeMillis() - Duration.ofMinutes(10).toMillis());
+        router.caughtUp(2, 0);
+
+        assertEquals(Set.of(DealReplicaRouter.PRIMARY), targets(3));
+    }
+
+    @Test
+    void readsAWriteBackOnlyFromAReplicaPastAStampWrittenAfterIt() {
+        long before = router.nextBeat();
+        for (int replica = 0; replica < 3; replica++) {
+            router.caughtUp(replica, before);
+        }
+        router.written("d-1");
+
+        assertEquals(DealReplicaRouter.PRIMARY, router.readYourWrites("d-1", router::selectForRead));
+        assertTrue(router.readYourWrites("d-2", router::selectForRead) instanceof Integer);
+
+        // Even when the clock has not moved on since the write
+        long after = router.nextBeat();
+        assertTrue(after > before);
+        router.caughtUp(1, after);
+
+        assertEquals(1, router.readYourWrites("d-1", router::selectForRead));
+    }
+
+    @Test
+    void readsFromThePrimaryWithoutReplicas() {
+        DealReplicaRouter disabled = new DealReplicaRouter(new SimpleMeterRegistry(), false,
+                List.of("jdbc:replica-0"), Duration.ofSeconds(5), 1000);
+        disabled.written("d-1");
+
+        assertEquals(DealReplicaRouter.PRIMARY, disabled.readYourWrites("d-1", disabled::selectForRead));
+    }
+
+    private Set<Object> targets(int reads) {
+        Set<Object> targets = new HashSet<>();
+        for (int i = 0; i < reads; i++) {
+            targets.add(router.selectForRead());
+        }
+        return targets;
+    }
+}
@@ -0,0 +1,81 @@
+package com.demo.repository;
+
+import com.demo.dto.DealDTO;
+import com.demo.entity.CurrencyCode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DealShardRouterTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2024, 5, 10, 12, 0);
+
+    private final DealShardRouter router = new DealShardRouter(true, List.of("jdbc:shard-1", "jdbc:shard-2"), 160, 2);
+
+    @Test
+    void selectsTheShardOfTheWorkAndRestoresThePreviousOne() {
+        assertEquals(3, router.count());
+        assertEquals(0, DealShardRouter.currentShard());
+
+        List<Integer> seen = router.inShard(2, () -> List.of(DealShardRouter.currentShard(),
+                router.inShard(1, DealShardRouter::currentShard), DealShardRouter.currentShard()));
+
+        assertEquals(List.of(2, 1, 2), seen);
+        assertEquals(0, DealShardRouter.currentShard());
+    }
+
+    @Test
+    void placesAUniqueIdOnTheSameShardEveryTime() {
+        DealShardRouter other = new DealShardRouter(true, List.of("jdbc:shard-1", "jdbc:shard-2"), 160, 2);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(router.shardFor("deal-" + i), other.shardFor("deal-" + i));
+        }
+        assertEquals(0, router.shardFor(null));
+    }
+
+    @Test
+    void scattersWorkToEveryShardAndReturnsTheResultsInShardOrder() {
+        assertEquals(List.of("0@0", "1@1", "2@2"),
+                router.scatter(shard -> shard + "@" + DealShardRouter.currentShard()));
+
+        IllegalStateException failure = new IllegalStateException("shard 1 down");
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> router.scatter(shard -> {
+            if (shard == 1) {
+                throw failure;
+            }
+            return shard;
+        })));
+    }
+
+    @Test
+    void runsInlineWithoutSharding() {
+        DealShardRouter single = new DealShardRouter(false, List.of("jdbc:ignored"), 160, 2);
+
+        assertEquals(1, single.count());
+        assertEquals(0, single.shardFor("deal-1"));
+        assertEquals(List.of(Thread.currentThread().getName()), single.scatter(shard -> Thread.currentThread().getName()));
+    }
+
+    @Test
+    void mergesShardPagesByPositionAndKeepsADealSeenTwiceOnce() {
+        List<DealDTO> shard0 = List.of(deal(1, T), deal(4, T.plusMinutes(2)));
+        List<DealDTO> shard1 = List.of(deal(2, T), deal(3, T.plusMinutes(1)));
+        // The archive may still return a deal the table has as well
+        List<DealDTO> archive = List.of(deal(3, T.plusMinutes(1)));
+
+        List<DealDTO> merged = DealShardRouter.mergeByPosition(List.of(shard0, shard1, List.of(), archive), 3);
+
+        assertEquals(List.of(1L, 2L, 3L), merged.stream().map(DealDTO::getId).toList());
+    }
+
+    private static DealDTO deal(long id, LocalDateTime timestamp) {
+        return new DealDTO(id, "deal-" + id, CurrencyCode.USD, CurrencyCode.EUR, timestamp, BigDecimal.ONE);
+    }
+}
@@ -0,0 +1,128 @@
+package com.demo.service.impl;
+
+import com.demo.TestDatabase;
+import com.demo.repository.DealDedupMode;
+import com.demo.repository.DealJdbcRepository;
+import com.demo.repository.DealRangeLeaseRepository;
+import com.demo.repository.DealShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClusterDedupIndexTest {
+
+    private final List<ClusterDedupIndex> nodes = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(TestDatabase.migrated());
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ClusterDedupIndex::leave);
+    }
+
+    @Test
+    void nodesEvenOutTheRangesBetweenThem() {
+        ClusterDedupIndex a = node("a", 8, 1000, new SimpleMeterRegistry());
+        ClusterDedupIndex b = node("b", 8, 1000, new SimpleMeterRegistry());
+
+        a.heartbeat();
+        assertEquals(Map.of("a", 8), owners());
+
+        // b is short of its share, but every range is taken until a gives up its surplus
+        b.heartbeat();
+        a.heartbeat();
+        b.heartbeat();
+        assertEquals(Map.of("a", 4, "b", 4), owners());
+        assertEquals(List.of(4, 5, 6, 7), jdbcTemplate.queryForList(
+                "SELECT range_id FROM deal_range_lease WHERE owner = 'b' ORDER BY range_id", Integer.class));
+
+        b.leave();
+        nodes.remove(b);
+        a.heartbeat();
+        assertEquals(Map.of("a", 8), owners());
+    }
+
+    @Test
+    void holdsOnlyTheNewestUniqueIdsOfEachOwnedRange() throws InterruptedException {
+        int ranges = 4;
+        int perRange = 10;
+        List<String> uniqueIds = IntStream.rangeClosed(1, 200).mapToObj(i -> "deal-" + i).toList();
+        jdbcTemplate.batchUpdate("INSERT INTO deal (id, unique_id, from_currency_iso_code, to_currency_iso_code,"
+                        + " deal_timestamp, deal_amount, unique_id_hash) VALUES (?, ?, 'USD', 'EUR', ?, 1, ?)",
+                uniqueIds, uniqueIds.size(), (ps, uniqueId) -> {
+                    ps.setLong(1, Long.parseLong(uniqueId.substring(5)));
+                    ps.setString(2, uniqueId);
+                    ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+                    ps.setLong(4, DealJdbcRepository.uniqueIdHash(uniqueId));
+                });
+        // Written before unique_id_hash existed
+        jdbcTemplate.update("INSERT INTO deal (id, unique_id, from_currency_iso_code, to_currency_iso_code,"
+                + " deal_timestamp, deal_amount) VALUES (201, 'legacy', 'USD', 'EUR', ?, 1)", LocalDateTime.now());
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ClusterDedupIndex index = node("a", ranges, ranges * perRange, meterRegistry);
+        index.heartbeat();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (meterRegistry.get("deal.cluster.owned.ranges").gauge().value() < ranges && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Map<Integer, List<String>> byRange = new HashMap<>();
+        for (String uniqueId : uniqueIds) {
+            byRange.computeIfAbsent(rangeOf(uniqueId, ranges), range -> new ArrayList<>()).add(uniqueId);
+        }
+        Set<String> newest = new HashSet<>();
+        byRange.values().forEach(inRange -> newest.addAll(inRange.subList(Math.max(0, inRange.size() - perRange), inRange.size())));
+        for (String uniqueId : uniqueIds) {
+            assertTrue(index.owns(uniqueId), uniqueId);
+            assertEquals(newest.contains(uniqueId), index.isTaken(uniqueId), uniqueId);
+        }
+        assertTrue(index.owns("legacy"));
+        assertFalse(index.isTaken("legacy"));
+
+        index.record("deal-202");
+        assertTrue(index.isTaken("deal-202"));
+    }
+
+    private ClusterDedupIndex node(String nodeId, int ranges, long maxSize, MeterRegistry meterRegistry) {
+        ClusterDedupIndex node = new ClusterDedupIndex(new DealRangeLeaseRepository(jdbcTemplate), jdbcTemplate,
+                new DealShardRouter(false, List.of(), 16, 1), meterRegistry, DealDedupMode.INDEX, true, nodeId, ranges,
+                Duration.ofSeconds(15), maxSize, 100);
+        nodes.add(node);
+        return node;
+    }
+
+    private Map<String, Integer> owners() {
+        Map<String, Integer> owners = new HashMap<>();
+        jdbcTemplate.query("SELECT owner, COUNT(*) FROM deal_range_lease WHERE owner IS NOT NULL GROUP BY owner",
+                (RowCallbackHandler) rs -> owners.put(rs.getString(1), rs.getInt(2)));
+        return owners;
+    }
+
+    private static int rangeOf(String uniqueId, int ranges) {
+        return (int) ((DealJdbcRepository.uniqueIdHash(uniqueId) * ranges) >>> 32);
+    }
+}
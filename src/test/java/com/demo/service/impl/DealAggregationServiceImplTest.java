@@ -0,0 +1,85 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealAggregate;
+import com.demo.dto.DealDTO;
+import com.demo.entity.CurrencyCode;
+import com.demo.repository.DealShardRouter;
+import com.demo.service.DealsPersistedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DealAggregationServiceImplTest {
+
+    private final DealAggregationServiceImpl service = new DealAggregationServiceImpl(new JdbcTemplate(),
+            new DealShardRouter(false, List.of(), 16, 1), 1000);
+
+    @Test
+    void countsEveryDealAddedConcurrently() throws Exception {
+        int writers = 4;
+        int deals = 5_000;
+        LocalDateTime timestamp = LocalDateTime.now(ZoneOffset.UTC).minusSeconds(5);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<?>> written = new ArrayList<>();
+        for (int writer = 0; writer < writers; writer++) {
+            written.add(executor.submit(() -> {
+                for (int i = 0; i < deals; i++) {
+                    // Spread over the seconds of the window so that writers meet on new buckets
+                    service.onDealsPersisted(new DealsPersistedEvent(List.of(new DealDTO((long) i, "deal-" + i,
+                            CurrencyCode.USD, CurrencyCode.EUR, timestamp.minusSeconds(i % 50), new BigDecimal("1.5")))));
+                }
+            }));
+        }
+        for (Future<?> future : written) {
+            future.get();
+        }
+        executor.shutdown();
+
+        for (String window : List.of("1m", "1d")) {
+            DealAggregate aggregate = service.getAggregates("USD", "EUR", window).getData().get(0);
+            assertEquals(writers * deals, aggregate.getCount(), window);
+            assertEquals(new BigDecimal("30000.0000"), aggregate.getNotional(), window);
+        }
+    }
+
+    @Test
+    void leavesOutDealsOlderThanTheWindow() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        service.onDealsPersisted(new DealsPersistedEvent(List.of(
+                new DealDTO(1L, "recent", CurrencyCode.USD, CurrencyCode.EUR, now.minusSeconds(5), BigDecimal.ONE),
+                new DealDTO(2L, "older", CurrencyCode.USD, CurrencyCode.EUR, now.minusMinutes(10), BigDecimal.ONE),
+                new DealDTO(3L, "stale", CurrencyCode.USD, CurrencyCode.EUR, now.minusDays(2), BigDecimal.ONE))));
+
+        assertEquals(1, service.getAggregates("USD", "EUR", "1m").getData().get(0).getCount());
+        assertEquals(2, service.getAggregates("USD", "EUR", "1h").getData().get(0).getCount());
+        assertEquals(2, service.getAggregates("USD", "EUR", "1d").getData().get(0).getCount());
+    }
+
+    @Test
+    void sumsNotionalsBeyondTheRangeOfALong() {
+        // The largest DECIMAL(19,4) amount is past Long.MAX_VALUE in units of 10^-4 on its own
+        BigDecimal largest = new BigDecimal("999999999999999.9999");
+        LocalDateTime timestamp = LocalDateTime.now(ZoneOffset.UTC).minusSeconds(5);
+        List<DealDTO> deals = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            deals.add(new DealDTO((long) i, "deal-" + i, CurrencyCode.USD, CurrencyCode.EUR, timestamp.minusMinutes(i), largest));
+        }
+        deals.add(new DealDTO(10L, "deal-10", CurrencyCode.USD, CurrencyCode.EUR, timestamp, new BigDecimal("0.0011")));
+        service.onDealsPersisted(new DealsPersistedEvent(deals));
+
+        assertEquals(new BigDecimal("999999999999999.9999").add(new BigDecimal("0.0011")),
+                service.getAggregates("USD", "EUR", "1m").getData().get(0).getNotional());
+        assertEquals(new BigDecimal("9999999999999999.9990").add(new BigDecimal("0.0011")),
+                service.getAggregates("USD", "EUR", "1d").getData().get(0).getNotional());
+    }
+}
@@ -0,0 +1,121 @@
+package com.demo.service.impl;
+
+import com.demo.TestDatabase;
+import com.demo.dto.DealDTO;
+import com.demo.entity.CurrencyCode;
+import com.demo.repository.DealDedupMode;
+import com.demo.repository.DealJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DealArchiverTest {
+
+    private static final LocalDate DAY = LocalDate.now(ZoneOffset.UTC).minusDays(40);
+
+    @TempDir
+    Path dir;
+
+    private JdbcTemplate jdbcTemplate;
+    private DealArchiver archiver;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DataSource dataSource = TestDatabase.migrated();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        archiver = new DealArchiver(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                new DealArchive(dir.toString()), new SimpleMeterRegistry(), DealDedupMode.TABLE, true,
+                Duration.ofDays(30), 2, 1);
+    }
+
+    @Test
+    void movesOldDaysInPagesThatAnotherInstanceSees() throws IOException {
+        DealArchive reader = new DealArchive(dir.toString());
+        for (long id = 1; id <= 5; id++) {
+            insert(id, DAY.atTime(10, 0).plusMinutes(id));
+        }
+        insert(6, LocalDateTime.now(ZoneOffset.UTC));
+
+        assertEquals(5, archiver.archive());
+
+        assertEquals(List.of(6L), jdbcTemplate.queryForList("SELECT id FROM deal", Long.class));
+        assertEquals(3, segments());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(reader.findPage(null, null, DAY.atStartOfDay(), 0,
+                DAY.plusDays(1).atStartOfDay(), 10)));
+    }
+
+    @Test
+    void deletesDealsOfAnInterruptedRunWithoutArchivingThemTwice() throws IOException {
+        DealArchive archive = new DealArchive(dir.toString());
+        for (long id = 1; id <= 3; id++) {
+            insert(id, DAY.atTime(10, 0).plusMinutes(id));
+        }
+        archive.write(DAY, CurrencyCode.USD, CurrencyCode.EUR, List.of(
+                deal(1, DAY.atTime(10, 1)), deal(2, DAY.atTime(10, 2))));
+
+        assertEquals(1, archiver.archive());
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deal", Integer.class));
+        assertEquals(List.of(1L, 2L, 3L), ids(archive.findPage(CurrencyCode.USD, CurrencyCode.EUR,
+                DAY.atStartOfDay(), 0, DAY.plusDays(1).atStartOfDay(), 10)));
+    }
+
+    @Test
+    void recordsTheDayOfEveryArchivedUniqueId() throws IOException {
+        DealArchive archive = new DealArchive(dir.toString());
+        DealJdbcRepository dealJdbcRepository = new DealJdbcRepository(jdbcTemplate, null, DealDedupMode.TABLE);
+        for (long id = 1; id <= 3; id++) {
+            insert(id, DAY.atTime(10, 0).plusMinutes(id));
+            jdbcTemplate.update("INSERT INTO deal_unique_id (unique_id) VALUES (?)", "deal-" + id);
+        }
+        insert(4, LocalDateTime.now(ZoneOffset.UTC));
+        jdbcTemplate.update("INSERT INTO deal_unique_id (unique_id) VALUES ('deal-4')");
+
+        archiver.archive();
+
+        for (long id = 1; id <= 3; id++) {
+            assertEquals(DAY, dealJdbcRepository.findArchivedDay("deal-" + id));
+            assertEquals(id, archive.findByUniqueId(DAY, "deal-" + id).getId());
+        }
+        assertNull(dealJdbcRepository.findArchivedDay("deal-4"));
+        assertNull(archive.findByUniqueId(DAY, "deal-4"));
+    }
+
+    private void insert(long id, LocalDateTime timestamp) {
+        jdbcTemplate.update("INSERT INTO deal (id, unique_id, from_currency_iso_code, to_currency_iso_code,"
+                + " deal_timestamp, deal_amount) VALUES (?, ?, 'USD', 'EUR', ?, 1)", id, "deal-" + id, timestamp);
+    }
+
+    private static DealDTO deal(long id, LocalDateTime timestamp) {
+        return new DealDTO(id, "deal-" + id, CurrencyCode.USD, CurrencyCode.EUR, timestamp, BigDecimal.ONE);
+    }
+
+    private long segments() throws IOException {
+        try (Stream<Path> files = Files.find(dir, 4, (path, attributes) -> path.toString().endsWith(".dcol"))) {
+            return files.count();
+        }
+    }
+
+    private static List<Long> ids(List<DealDTO> deals) {
+        return deals.stream().map(DealDTO::getId).toList();
+    }
+}
@@ -0,0 +1,59 @@
+package com.demo.service.impl;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.demo.dto.DealDTO;
+import com.demo.dto.DealRequest;
+import com.demo.dto.DealResponse;
+import com.demo.entity.CurrencyCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DealAuditLoggerTest {
+
+    private final Logger audit = (Logger) LoggerFactory.getLogger("DEAL_AUDIT");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        audit.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        audit.detachAppender(appender);
+    }
+
+    @Test
+    void logsTheResponseOfEverySampledRequestAndOnlyThose() {
+        DealAuditLogger auditLogger = new DealAuditLogger(0.5, List.of());
+        for (int i = 0; i < 200; i++) {
+            DealRequest request = new DealRequest();
+            request.setUniqueId("deal-" + i);
+            boolean sampled = auditLogger.logRequest(request);
+            auditLogger.logResponse(new DealResponse(0, null, "Successful", new DealDTO((long) i, "deal-" + i,
+                    CurrencyCode.USD, CurrencyCode.EUR, LocalDateTime.of(2026, 10, 17, 10, 0), BigDecimal.ONE)), sampled);
+        }
+
+        List<String> lines = appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+        long requests = lines.stream().filter(line -> line.startsWith("Deal request:")).count();
+        assertTrue(requests > 0 && requests < 200, "about half the requests are sampled: " + requests);
+        assertEquals(2 * requests, lines.size());
+        for (int i = 0; i < lines.size(); i += 2) {
+            String uniqueId = lines.get(i).split("[= ]")[3];
+            assertTrue(lines.get(i + 1).startsWith("Deal response:") && lines.get(i + 1).endsWith("uniqueId=" + uniqueId),
+                    lines.get(i) + " / " + lines.get(i + 1));
+        }
+    }
+}
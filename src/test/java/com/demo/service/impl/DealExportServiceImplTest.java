@@ -0,0 +1,169 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealDTO;
+import com.demo.dto.DealFileFormat;
+import com.demo.entity.CurrencyCode;
+import com.demo.entity.Deal;
+import com.demo.repository.DealRepository;
+import com.demo.repository.DealShardRouter;
+import com.demo.util.DealCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DealExportServiceImplTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 10);
+    private static final LocalDateTime FROM = DAY.atStartOfDay();
+    private static final LocalDateTime TO = DAY.plusDays(5).atStartOfDay();
+
+    @TempDir
+    Path dir;
+
+    private final DealRepository dealRepository = mock(DealRepository.class);
+    private final List<DealDTO> table = new ArrayList<>();
+    private DealArchive dealArchive;
+    private DealExportServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dealArchive = new DealArchive(dir.toString());
+        service = new DealExportServiceImpl(dealRepository, new DealShardRouter(false, List.of(), 16, 1), dealArchive,
+                new ObjectMapper().findAndRegisterModules(), 2);
+        when(dealRepository.streamRange(any(), anyLong(), any())).thenAnswer(invocation -> table.stream()
+                .filter(deal -> after(deal, invocation.getArgument(0), invocation.getArgument(1))
+                        && deal.getDealTimestamp().isBefore(invocation.getArgument(2))));
+        when(dealRepository.findById(anyLong())).thenAnswer(invocation -> table.stream()
+                .filter(deal -> deal.getId().equals(invocation.getArgument(0)))
+                .findFirst()
+                .map(deal -> new Deal(deal.getId(), deal.getUniqueId(), deal.getFromCurrencyIsoCode(),
+                        deal.getToCurrencyIsoCode(), deal.getDealTimestamp(), deal.getDealAmount())));
+    }
+
+    @Test
+    void mergesArchivedDaysIntoTheDealsOfTheTable() throws IOException {
+        dealArchive.write(DAY, CurrencyCode.USD, CurrencyCode.EUR, List.of(deal(1, DAY.atTime(9, 0)), deal(2, DAY.atTime(11, 0))));
+        dealArchive.write(DAY.plusDays(1), CurrencyCode.USD, CurrencyCode.EUR, List.of(deal(4, DAY.plusDays(1).atTime(8, 0))));
+        // 2 is archived but not deleted yet, 3 reached the archived day late
+        table.addAll(List.of(deal(2, DAY.atTime(11, 0)), deal(3, DAY.atTime(12, 0)), deal(5, DAY.plusDays(3).atTime(7, 0))));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), exportedIds(service.startPosition(FROM, TO, null)));
+        assertEquals(List.of(2L, 3L, 4L, 5L), exportedIds(service.startPosition(FROM, TO, 1L)));
+    }
+
+    @Test
+    void resumesAfterAnArchivedDeal() throws IOException {
+        dealArchive.write(DAY.plusDays(1), CurrencyCode.USD, CurrencyCode.EUR,
+                List.of(deal(4, DAY.plusDays(1).atTime(8, 0)), deal(6, DAY.plusDays(1).atTime(9, 0))));
+        table.add(deal(5, DAY.plusDays(3).atTime(7, 0)));
+
+        DealCursor start = service.startPosition(FROM, TO, 4L);
+
+        assertEquals(new DealCursor(DAY.plusDays(1).atTime(8, 0), 4), start);
+        assertEquals(List.of(6L, 5L), exportedIds(start));
+        assertThrows(ResponseStatusException.class, () -> service.startPosition(FROM, TO, 7L));
+        // Archived outside the window
+        assertThrows(ResponseStatusException.class, () -> service.startPosition(DAY.plusDays(2).atStartOfDay(), TO, 4L));
+    }
+
+    @Test
+    void resumesAfterADealOfTheTable() throws IOException {
+        // 2 and 3 share their timestamp, so the resumed export goes by id within it
+        table.addAll(List.of(deal(1, DAY.atTime(9, 0)), deal(2, DAY.atTime(10, 0)), deal(3, DAY.atTime(10, 0)),
+                deal(4, DAY.atTime(11, 0))));
+
+        assertEquals(List.of(3L, 4L), exportedIds(service.startPosition(FROM, TO, 2L)));
+        assertEquals(List.of(), exportedIds(service.startPosition(FROM, TO, 4L)));
+        // A deal before the window starts the export from the beginning of the window
+        assertEquals(new DealCursor(DAY.atTime(10, 0), 0), service.startPosition(DAY.atTime(10, 0), TO, 1L));
+        assertThrows(ResponseStatusException.class, () -> service.startPosition(FROM, TO, 9L));
+    }
+
+    @Test
+    void quotesCsvFieldsThatHoldSeparators() throws IOException {
+        table.addAll(List.of(deal(1, "plain"), deal(2, "a,b"), deal(3, "say \"hi\""), deal(4, "two\nlines")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(4, service.export(DealFileFormat.CSV, service.startPosition(FROM, TO, null), TO, out));
+
+        assertEquals("""
+                id,uniqueId,fromCurrencyIsoCode,toCurrencyIsoCode,dealTimestamp,dealAmount
+                1,plain,USD,EUR,2026-01-10T09:00:00,1.5
+                2,"a,b",USD,EUR,2026-01-10T09:00:00,1.5
+                3,"say ""hi\"\"",USD,EUR,2026-01-10T09:00:00,1.5
+                4,"two
+                lines",USD,EUR,2026-01-10T09:00:00,1.5
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void pagesAcrossShardsUntilAPageComesBackShort() throws IOException {
+        DealShardRouter router = new DealShardRouter(true, List.of("jdbc:shard-1"), 16, 2);
+        List<List<DealDTO>> shards = List.of(
+                List.of(deal(1, DAY.atTime(9, 0)), deal(3, DAY.atTime(11, 0)), deal(5, DAY.atTime(13, 0))),
+                List.of(deal(2, DAY.atTime(10, 0)), deal(4, DAY.atTime(12, 0))));
+        when(dealRepository.findPage(any(), anyLong(), any(), any())).thenAnswer(invocation -> {
+            Limit limit = invocation.getArgument(3);
+            return shards.get(DealShardRouter.currentShard()).stream()
+                    .filter(deal -> after(deal, invocation.getArgument(0), invocation.getArgument(1))
+                            && deal.getDealTimestamp().isBefore(invocation.getArgument(2)))
+                    .limit(limit.max())
+                    .toList();
+        });
+        DealExportServiceImpl sharded = new DealExportServiceImpl(dealRepository, router, dealArchive,
+                new ObjectMapper().findAndRegisterModules(), 2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sharded.export(DealFileFormat.NDJSON, new DealCursor(FROM, 0), TO, out);
+
+        List<Long> ids = out.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> Long.parseLong(line.substring(line.indexOf("\"id\":") + 5, line.indexOf(','))))
+                .toList();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids);
+        // Pages of 2 end with [5], short of a page, so every shard is asked three times and not a fourth
+        verify(dealRepository, times(6)).findPage(any(), anyLong(), any(), any());
+    }
+
+    private List<Long> exportedIds(DealCursor start) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(DealFileFormat.CSV, start, TO, out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        return Arrays.stream(lines, 1, lines.length).map(line -> Long.parseLong(line.substring(0, line.indexOf(',')))).toList();
+    }
+
+    private static boolean after(DealDTO deal, LocalDateTime timestamp, long id) {
+        int compared = deal.getDealTimestamp().compareTo(timestamp);
+        return compared > 0 || compared == 0 && deal.getId() > id;
+    }
+
+    private static DealDTO deal(long id, LocalDateTime timestamp) {
+        return new DealDTO(id, "deal-" + id, CurrencyCode.USD, CurrencyCode.EUR, timestamp, new BigDecimal("1.5"));
+    }
+
+    private static DealDTO deal(long id, String uniqueId) {
+        return new DealDTO(id, uniqueId, CurrencyCode.USD, CurrencyCode.EUR, DAY.atTime(9, 0), new BigDecimal("1.5"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealBatchItem;
+import com.demo.dto.DealBatchItemStatus;
+import com.demo.dto.DealFileFormat;
+import com.demo.dto.DealImportSummary;
+import com.demo.dto.DealRequest;
+import com.demo.entity.Checkpoint;
+import com.demo.repository.CheckpointRepository;
+import com.demo.repository.DealShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DealImportServiceImplTest {
+
+    private static final String HEADER = "uniqueId,fromCurrencyIsoCode,toCurrencyIsoCode,dealTimestamp,dealAmount\n";
+
+    @TempDir
+    Path dir;
+
+    private final Map<String, Long> checkpoints = new HashMap<>();
+    private final List<String> written = new ArrayList<>();
+    private DealBatchWriter dealBatchWriter;
+    private DealImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        dealBatchWriter = mock(DealBatchWriter.class);
+        CheckpointRepository checkpointRepository = mock(CheckpointRepository.class);
+        when(checkpointRepository.findById(anyString())).thenAnswer(invocation -> {
+            String name = invocation.getArgument(0);
+            return Optional.ofNullable(checkpoints.get(name)).map(position -> new Checkpoint(name, position, null));
+        });
+        when(checkpointRepository.save(any(Checkpoint.class))).thenAnswer(invocation -> {
+            Checkpoint checkpoint = invocation.getArgument(0);
+            checkpoints.put(checkpoint.getName(), checkpoint.getPosition());
+            return checkpoint;
+        });
+        importService = new DealImportServiceImpl(dealBatchWriter, checkpointRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new DealShardRouter(false, List.of(), 16, 1),
+                new ObjectMapper().findAndRegisterModules(), dir.toString(), 2);
+    }
+
+    @Test
+    void resumesAfterTheLastCommittedChunk() throws IOException {
+        Files.writeString(dir.resolve("deals.csv"), HEADER + rows(1, 5), StandardCharsets.UTF_8);
+        long afterFourRows = (HEADER + rows(1, 4)).getBytes(StandardCharsets.UTF_8).length;
+        when(dealBatchWriter.writeChunk(anyList(), eq(0)))
+                .thenAnswer(invocation -> accept(invocation.getArgument(0)))
+                .thenAnswer(invocation -> accept(invocation.getArgument(0)))
+                .thenThrow(new TransientDataAccessResourceException("database down"));
+
+        assertThrows(TransientDataAccessResourceException.class, () -> importService.importFile("deals.csv", null));
+        assertEquals(List.of("d-1", "d-2", "d-3", "d-4"), written);
+
+        doAnswer(invocation -> accept(invocation.getArgument(0))).when(dealBatchWriter).writeChunk(anyList(), eq(0));
+        DealImportSummary summary = importService.importFile("deals.csv", DealFileFormat.CSV).getData();
+
+        assertEquals(List.of("d-1", "d-2", "d-3", "d-4", "d-5"), written);
+        assertEquals(afterFourRows, summary.getStartOffset());
+        assertEquals(1, summary.getRowsRead());
+        assertEquals(1, summary.getAccepted());
+        assertEquals(Files.size(dir.resolve("deals.csv")), summary.getEndOffset());
+    }
+
+    @Test
+    void startsOverWhenAFileReusesTheNameOfAnImportedOne() throws IOException {
+        when(dealBatchWriter.writeChunk(anyList(), eq(0))).thenAnswer(invocation -> accept(invocation.getArgument(0)));
+        Files.writeString(dir.resolve("deals.csv"), HEADER + rows(1, 2), StandardCharsets.UTF_8);
+        importService.importFile("deals.csv", null);
+
+        Files.writeString(dir.resolve("deals.csv"), HEADER + rows(3, 5), StandardCharsets.UTF_8);
+        DealImportSummary summary = importService.importFile("deals.csv", null).getData();
+
+        assertEquals(HEADER.length(), summary.getStartOffset());
+        assertEquals(3, summary.getAccepted());
+        assertEquals(List.of("d-1", "d-2", "d-3", "d-4", "d-5"), written);
+    }
+
+    private List<DealBatchItem> accept(List<DealRequest> chunk) {
+        List<DealBatchItem> results = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            written.add(chunk.get(i).getUniqueId());
+            results.add(new DealBatchItem(i, chunk.get(i).getUniqueId(), DealBatchItemStatus.ACCEPTED, null));
+        }
+        return results;
+    }
+
+    private static String rows(int first, int last) {
+        StringBuilder rows = new StringBuilder();
+        for (int i = first; i <= last; i++) {
+            rows.append("d-").append(i).append(",USD,EUR,2024-05-10T12:30:00,100.5\n");
+        }
+        return rows.toString();
+    }
+}
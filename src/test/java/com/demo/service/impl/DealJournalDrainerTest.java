@@ -0,0 +1,97 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealBatchItem;
+import com.demo.dto.DealBatchItemStatus;
+import com.demo.dto.DealRequest;
+import com.demo.entity.Checkpoint;
+import com.demo.repository.CheckpointRepository;
+import com.demo.repository.DealShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DealJournalDrainerTest {
+
+    // Outside java.io.tmpdir, which the journal refuses
+    private final Path dir = Paths.get("target", "deal-journal-" + UUID.randomUUID()).toAbsolutePath();
+    private final Map<String, Long> checkpoints = new HashMap<>();
+    private final List<String> written = new ArrayList<>();
+    private DealJournal journal;
+    private DealJournalDrainer drainer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = new DealJournal(dir.toString(), "node-1", 1 << 20, 16, 16);
+        DealBatchWriter dealBatchWriter = mock(DealBatchWriter.class);
+        when(dealBatchWriter.writeChunk(anyList(), eq(0))).thenAnswer(invocation -> {
+            List<DealRequest> chunk = invocation.getArgument(0);
+            chunk.forEach(dealRequest -> written.add(dealRequest.getUniqueId()));
+            return IntStream.range(0, chunk.size()).mapToObj(i -> new DealBatchItem(i, chunk.get(i).getUniqueId(),
+                    DealBatchItemStatus.ACCEPTED, null)).toList();
+        });
+        CheckpointRepository checkpointRepository = mock(CheckpointRepository.class);
+        when(checkpointRepository.findById(anyString())).thenAnswer(invocation -> {
+            String name = invocation.getArgument(0);
+            return Optional.ofNullable(checkpoints.get(name)).map(position -> new Checkpoint(name, position, null));
+        });
+        when(checkpointRepository.save(any(Checkpoint.class))).thenAnswer(invocation -> {
+            Checkpoint checkpoint = invocation.getArgument(0);
+            checkpoints.put(checkpoint.getName(), checkpoint.getPosition());
+            return checkpoint;
+        });
+        drainer = new DealJournalDrainer(journal, dealBatchWriter, checkpointRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new DealShardRouter(false, List.of(), 16, 1),
+                mock(DealIngestionFence.class), new ObjectMapper().findAndRegisterModules(), 10);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.close();
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    @Test
+    void movesAnUnreadableRecordToTheDeadLettersAndDrainsPastIt() throws Exception {
+        journal.append(deal("d-1")).get();
+        long unreadable = journal.append("{\"uniqueId\": ".getBytes(StandardCharsets.UTF_8)).get();
+        journal.append(deal("d-2")).get();
+
+        drainer.drain();
+
+        assertEquals(List.of("d-1", "d-2"), written);
+        assertEquals(journal.durableOffset(), checkpoints.get("journal:node-1"));
+        assertEquals(journal.durableOffset(), drainer.committedOffset());
+        Path deadLetter = dir.resolve("dead-letter").resolve(String.format("%020d.record", unreadable));
+        assertEquals("{\"uniqueId\": ", Files.readString(deadLetter, StandardCharsets.UTF_8));
+    }
+
+    private static byte[] deal(String uniqueId) {
+        return ("{\"uniqueId\": \"" + uniqueId + "\", \"fromCurrencyIsoCode\": \"USD\", \"toCurrencyIsoCode\": \"EUR\","
+                + " \"dealTimestamp\": \"2026-10-17T10:00:00\", \"dealAmount\": 5}").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,56 @@
+package com.demo.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DealJournalTest {
+
+    // Outside java.io.tmpdir, which the journal refuses
+    private final Path dir = Paths.get("target", "deal-journal-" + UUID.randomUUID()).toAbsolutePath();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    @Test
+    void keepsItsDealsAndCheckpointUnderTheSameNodeId() throws Exception {
+        DealJournal journal = open("node-1");
+        long offset = journal.append("deal".getBytes(StandardCharsets.UTF_8)).get();
+        journal.close();
+
+        DealJournal reopened = open("node-1");
+        assertEquals("journal:node-1", reopened.checkpointName());
+        assertEquals("deal", new String(reopened.read(offset, 1).get(0).payload(), StandardCharsets.UTF_8));
+        reopened.close();
+    }
+
+    @Test
+    void refusesToOpenAJournalOfAnotherNode() throws Exception {
+        open("node-1").close();
+
+        assertThrows(IllegalStateException.class, () -> open("node-2"));
+    }
+
+    @Test
+    void refusesTheTemporaryDirectoryAndAMissingNodeId(@TempDir Path temporary) {
+        assertThrows(IllegalStateException.class, () -> new DealJournal(temporary.toString(), "node-1", 1 << 20, 16, 16));
+        assertThrows(IllegalStateException.class, () -> new DealJournal("", "node-1", 1 << 20, 16, 16));
+        assertThrows(IllegalStateException.class, () -> open(""));
+    }
+
+    private DealJournal open(String nodeId) throws IOException {
+        return new DealJournal(dir.toString(), nodeId, 1 << 20, 16, 16);
+    }
+}
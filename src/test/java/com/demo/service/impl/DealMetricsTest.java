@@ -0,0 +1,79 @@
+package com.demo.service.impl;
+
+import com.demo.TestDatabase;
+import com.demo.dto.DealDTO;
+import com.demo.entity.CurrencyCode;
+import com.demo.service.DealsPersistedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DealMetricsTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final DealMetrics dealMetrics = new DealMetrics(registry, 2);
+
+    @Test
+    void countsPairsBeyondTheLimitUnderOther() {
+        dealMetrics.recordOutcome(DealMetrics.Outcome.DUPLICATE, CurrencyCode.USD, CurrencyCode.EUR);
+        dealMetrics.recordOutcome(DealMetrics.Outcome.DUPLICATE, CurrencyCode.GBP, CurrencyCode.JPY);
+        dealMetrics.recordOutcome(DealMetrics.Outcome.DUPLICATE, CurrencyCode.EUR, CurrencyCode.USD);
+        dealMetrics.recordOutcome(DealMetrics.Outcome.INVALID, null, null);
+        // A pair already tagged keeps its tag once the limit is reached
+        dealMetrics.recordOutcome(DealMetrics.Outcome.FAILED, CurrencyCode.USD, CurrencyCode.EUR);
+
+        assertEquals(1, outcomes("duplicate", "USD/EUR"));
+        assertEquals(1, outcomes("duplicate", "GBP/JPY"));
+        assertEquals(1, outcomes("duplicate", "other"));
+        assertEquals(1, outcomes("invalid", "other"));
+        assertEquals(1, outcomes("failed", "USD/EUR"));
+        assertNull(registry.find("deal.ingest.outcomes").tag("pair", "EUR/USD").counter());
+    }
+
+    @Test
+    void countsAcceptedDealsFromThePersistedEvent() {
+        LocalDateTime now = LocalDateTime.now();
+        dealMetrics.onDealsPersisted(new DealsPersistedEvent(List.of(
+                new DealDTO(1L, "a", CurrencyCode.USD, CurrencyCode.EUR, now, BigDecimal.ONE),
+                new DealDTO(2L, "b", CurrencyCode.USD, CurrencyCode.EUR, now, BigDecimal.ONE))));
+
+        assertEquals(2, outcomes("accepted", "USD/EUR"));
+    }
+
+    @Test
+    void timesOnlyCommittedTransactions() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(TestDatabase.migrated()));
+
+        dealMetrics.timeCommit();
+        transactionTemplate.executeWithoutResult(status -> dealMetrics.timeCommit());
+        transactionTemplate.executeWithoutResult(status -> {
+            dealMetrics.timeCommit();
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, registry.get("deal.ingest.stage").tag("stage", "commit").timer().count());
+    }
+
+    @Test
+    void recordsValidationFailuresAndBatchSizes() {
+        dealMetrics.recordValidationFailure("dealAmount");
+        dealMetrics.recordValidationFailure("dealAmount");
+        dealMetrics.recordBatchSize(500);
+
+        assertEquals(2, registry.get("deal.validation.failures").tag("field", "dealAmount").counter().count());
+        assertEquals(500, registry.get("deal.batch.size").summary().totalAmount());
+    }
+
+    private double outcomes(String outcome, String pair) {
+        return registry.get("deal.ingest.outcomes").tag("outcome", outcome).tag("pair", pair).counter().count();
+    }
+}
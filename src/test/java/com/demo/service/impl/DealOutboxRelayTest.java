@@ -0,0 +1,157 @@
+package com.demo.service.impl;
+
+import com.demo.TestDatabase;
+import com.demo.dto.DealOutboxEvent;
+import com.demo.entity.Checkpoint;
+import com.demo.repository.CheckpointRepository;
+import com.demo.repository.DealOutboxRepository;
+import com.demo.repository.DealShardRouter;
+import com.demo.service.DealEventSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DealOutboxRelayTest {
+
+    private final Map<String, Long> checkpoints = new HashMap<>();
+    private final List<String> calls = new ArrayList<>();
+    private final List<List<Long>> published = new ArrayList<>();
+    private final CheckpointRepository checkpointRepository = mock(CheckpointRepository.class);
+    private final DealEventSink dealEventSink = new DealEventSink() {
+        @Override
+        public void publish(List<DealOutboxEvent> events) {
+            calls.add("publish");
+            published.add(events.stream().map(DealOutboxEvent::id).toList());
+        }
+    };
+    private JdbcTemplate jdbcTemplate;
+    private DealOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = TestDatabase.migrated();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        when(checkpointRepository.findWithLockByName(anyString())).thenAnswer(invocation -> {
+            calls.add(TransactionSynchronizationManager.isActualTransactionActive() ? "lock in transaction" : "lock");
+            String name = invocation.getArgument(0);
+            return Optional.ofNullable(checkpoints.get(name)).map(position -> new Checkpoint(name, position, null));
+        });
+        when(checkpointRepository.save(any(Checkpoint.class))).thenAnswer(invocation -> {
+            Checkpoint checkpoint = invocation.getArgument(0);
+            checkpoints.put(checkpoint.getName(), checkpoint.getPosition());
+            return checkpoint;
+        });
+        relay = relay(dealEventSink);
+    }
+
+    @Test
+    void locksTheCheckpointInTheBatchTransactionBeforePublishing() {
+        insert(1);
+
+        relay.relay();
+
+        assertEquals(List.of("lock in transaction", "publish"), calls.subList(0, 2));
+        verify(checkpointRepository).findWithLockByName(DealOutboxRelay.CHECKPOINT_NAME);
+    }
+
+    @Test
+    void takesNoLockWhileTheSinkIsNotReady() {
+        insert(1);
+        DealOutboxRelay waiting = relay(new DealEventSink() {
+            @Override
+            public boolean ready() {
+                return false;
+            }
+
+            @Override
+            public void publish(List<DealOutboxEvent> events) {
+                published.add(events.stream().map(DealOutboxEvent::id).toList());
+            }
+        });
+
+        waiting.relay();
+
+        verify(checkpointRepository, never()).findWithLockByName(anyString());
+        assertEquals(List.of(), published);
+        assertEquals(1, outbox().size());
+    }
+
+    @Test
+    void deletesOnlyThePublishedEventsAndKeepsTheHighWaterMark() {
+        // Event 3 is written by a transaction that commits after 4 was published
+        insert(1);
+        insert(2);
+        insert(4);
+
+        relay.relay();
+
+        assertEquals(List.of(List.of(1L, 2L), List.of(4L)), published);
+        assertEquals(List.of(), outbox());
+        assertEquals(4, relay.highWaterMark());
+
+        insert(3);
+        relay.relay();
+
+        assertEquals(List.of(3L), published.get(2));
+        assertEquals(List.of(), outbox());
+        assertEquals(4, relay.highWaterMark());
+        assertEquals(4L, checkpoints.get(DealOutboxRelay.CHECKPOINT_NAME));
+    }
+
+    @Test
+    void publishesABatchAgainWhenItsTransactionFails() {
+        insert(1);
+        insert(2);
+        when(checkpointRepository.save(any(Checkpoint.class)))
+                .thenThrow(new IllegalStateException("Lost the connection"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        relay.relay();
+
+        assertEquals(List.of(List.of(1L, 2L)), published);
+        assertEquals(List.of(1L, 2L), outbox());
+        assertEquals(0, relay.highWaterMark());
+
+        relay.relay();
+
+        assertEquals(List.of(List.of(1L, 2L), List.of(1L, 2L)), published);
+        assertTrue(outbox().isEmpty());
+        assertEquals(2, relay.highWaterMark());
+    }
+
+    private DealOutboxRelay relay(DealEventSink sink) {
+        return new DealOutboxRelay(new DealOutboxRepository(jdbcTemplate, true), new DealShardRouter(false, List.of(), 16, 1),
+                checkpointRepository, new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource())),
+                sink, new SimpleMeterRegistry(), 2);
+    }
+
+    private void insert(long id) {
+        jdbcTemplate.update("INSERT INTO deal_outbox (id, deal_id, unique_id, from_currency_iso_code, to_currency_iso_code,"
+                + " deal_timestamp, deal_amount, created_at) VALUES (?, ?, ?, 'USD', 'EUR', CURRENT_TIMESTAMP, 1,"
+                + " CURRENT_TIMESTAMP)", id, id, "deal-" + id);
+    }
+
+    private List<Long> outbox() {
+        return jdbcTemplate.queryForList("SELECT id FROM deal_outbox ORDER BY id", Long.class);
+    }
+}
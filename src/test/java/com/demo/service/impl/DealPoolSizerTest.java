@@ -0,0 +1,110 @@
+package com.demo.service.impl;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DealPoolSizerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Connection> held = new ArrayList<>();
+    private HikariDataSource pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new HikariDataSource();
+        pool.setPoolName("deal-pool-" + UUID.randomUUID());
+        pool.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID());
+        pool.setMaximumPoolSize(4);
+        pool.setConnectionTimeout(5_000);
+        pool.setMetricRegistry(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        for (Connection connection : held) {
+            connection.close();
+        }
+        pool.close();
+    }
+
+    @Test
+    void startsWithinItsBounds() {
+        new DealPoolSizer(pool, meterRegistry, 5, 8, Duration.ofMillis(1), Duration.ofSeconds(10));
+        assertEquals(5, pool.getMaximumPoolSize());
+        assertEquals(5, pool.getMinimumIdle());
+
+        assertThrows(IllegalStateException.class,
+                () -> new DealPoolSizer(pool, meterRegistry, 3, 2, Duration.ofMillis(1), Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void growsByAQuarterWhileCallersWait() throws Exception {
+        DealPoolSizer sizer = new DealPoolSizer(pool, meterRegistry, 2, 8, Duration.ofMillis(1), Duration.ofSeconds(10));
+        FutureTask<Connection> waiter = holdAllAndWait();
+
+        sizer.adjust();
+
+        assertEquals(5, pool.getMaximumPoolSize());
+        assertEquals(5, pool.getMinimumIdle());
+        // The connection the pool opens for the new size goes to the caller waiting for one
+        held.add(waiter.get());
+    }
+
+    @Test
+    void doesNotGrowWhileConnectionsAreHeldLongerThanTheMaxLatency() throws Exception {
+        DealPoolSizer sizer = new DealPoolSizer(pool, meterRegistry, 2, 8, Duration.ofMillis(1), Duration.ofMillis(5));
+        try (Connection slow = pool.getConnection()) {
+            Thread.sleep(50);
+        }
+        FutureTask<Connection> waiter = holdAllAndWait();
+
+        sizer.adjust();
+
+        assertEquals(4, pool.getMaximumPoolSize());
+        held.remove(0).close();
+        held.add(waiter.get());
+    }
+
+    @Test
+    void shrinksByOneConnectionAtATimeWhileIdleDownToItsMinimum() throws SQLException {
+        DealPoolSizer sizer = new DealPoolSizer(pool, meterRegistry, 2, 8, Duration.ofMillis(1), Duration.ofSeconds(10));
+        pool.getConnection().close();
+
+        sizer.adjust();
+        assertEquals(3, pool.getMaximumPoolSize());
+        sizer.adjust();
+        sizer.adjust();
+        assertEquals(2, pool.getMaximumPoolSize());
+        assertEquals(2, pool.getMinimumIdle());
+    }
+
+    /**
+     * Takes every connection of the pool and returns a caller that waits for one more.
+     */
+    private FutureTask<Connection> holdAllAndWait() throws InterruptedException, SQLException {
+        for (int i = 0; i < pool.getMaximumPoolSize(); i++) {
+            held.add(pool.getConnection());
+        }
+        FutureTask<Connection> waiter = new FutureTask<>(pool::getConnection);
+        new Thread(waiter).start();
+        while (pool.getHikariPoolMXBean().getThreadsAwaitingConnection() == 0) {
+            Thread.sleep(1);
+        }
+        return waiter;
+    }
+}
@@ -0,0 +1,72 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealDTO;
+import com.demo.entity.CurrencyCode;
+import com.demo.repository.DealJdbcRepository;
+import com.demo.repository.DealRepository;
+import com.demo.repository.DealShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DealQueryServiceImplTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 10);
+
+    @TempDir
+    Path dir;
+
+    private final DealLookupCache dealLookupCache = mock(DealLookupCache.class);
+    private final DealJdbcRepository dealJdbcRepository = mock(DealJdbcRepository.class);
+    private DealQueryServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DealArchive dealArchive = new DealArchive(dir.toString());
+        dealArchive.write(DAY, CurrencyCode.GBP, CurrencyCode.JPY, List.of(deal(7, "archived")));
+        service = new DealQueryServiceImpl(mock(DealRepository.class), new DealShardRouter(false, List.of(), 16, 1),
+                dealLookupCache, dealArchive, dealJdbcRepository, 100, 1000);
+    }
+
+    @Test
+    void findsADealOfTheTableFirst() {
+        DealDTO deal = deal(8, "recent");
+        when(dealLookupCache.get("recent")).thenReturn(deal);
+
+        assertEquals(deal, service.findDeal("recent").getData());
+    }
+
+    @Test
+    void fallsBackToTheArchivedDayOfTheUniqueId() {
+        when(dealJdbcRepository.findArchivedDay("archived")).thenReturn(DAY);
+
+        assertEquals(7L, service.findDeal("archived").getData().getId());
+    }
+
+    @Test
+    void answersNotFoundWhenNeitherTierHasTheDeal() {
+        when(dealJdbcRepository.findArchivedDay("lost")).thenReturn(DAY);
+
+        assertEquals(HttpStatus.NOT_FOUND, assertThrows(ResponseStatusException.class,
+                () -> service.findDeal("unknown")).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, assertThrows(ResponseStatusException.class,
+                () -> service.findDeal("lost")).getStatusCode());
+    }
+
+    private static DealDTO deal(long id, String uniqueId) {
+        return new DealDTO(id, uniqueId, CurrencyCode.GBP, CurrencyCode.JPY, DAY.atTime(12, 0), BigDecimal.TEN);
+    }
+}
@@ -0,0 +1,93 @@
+package com.demo.service.impl;
+
+import com.demo.dto.DealBatchItem;
+import com.demo.dto.DealBatchItemStatus;
+import com.demo.dto.DealBatchResponse;
+import com.demo.dto.DealRequest;
+import com.demo.repository.DealJdbcRepository;
+import com.demo.repository.DealOutboxRepository;
+import com.demo.repository.DealShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DealServiceImplTest {
+
+    private DealBatchWriter dealBatchWriter;
+    private DealServiceImpl dealService;
+
+    @BeforeEach
+    void setUp() {
+        dealBatchWriter = mock(DealBatchWriter.class);
+        dealService = service(2);
+    }
+
+    @Test
+    void reportsTheRowsOfAFailedChunkAndAfterItAsFailed() {
+        List<DealRequest> requests = requests(5);
+        when(dealBatchWriter.writeAcrossShards(anyList(), eq(0))).thenReturn(List.of(
+                item(0, DealBatchItemStatus.ACCEPTED), item(1, DealBatchItemStatus.DUPLICATE)));
+        when(dealBatchWriter.writeAcrossShards(anyList(), eq(2)))
+                .thenThrow(new TransientDataAccessResourceException("connection lost"));
+
+        DealBatchResponse response = dealService.saveDeals(requests);
+
+        assertEquals(List.of(DealBatchItemStatus.ACCEPTED, DealBatchItemStatus.DUPLICATE, DealBatchItemStatus.FAILED,
+                DealBatchItemStatus.FAILED, DealBatchItemStatus.FAILED), statuses(response));
+        assertEquals(List.of(0, 1, 2, 3, 4), response.getData().stream().map(DealBatchItem::getIndex).toList());
+        assertEquals("deal-4", response.getData().get(4).getUniqueId());
+    }
+
+    @Test
+    void keepsTheShardsOfAFailedChunkThatWereCommitted() {
+        List<DealRequest> requests = requests(3);
+        when(dealBatchWriter.writeAcrossShards(anyList(), eq(0))).thenThrow(new DealBatchWriter.PartialWriteException(
+                List.of(item(1, DealBatchItemStatus.ACCEPTED)), new TransientDataAccessResourceException("shard down")));
+
+        DealBatchResponse response = service(3).saveDeals(requests);
+
+        assertEquals(List.of(DealBatchItemStatus.FAILED, DealBatchItemStatus.ACCEPTED, DealBatchItemStatus.FAILED),
+                statuses(response));
+    }
+
+    @Test
+    void rejectsAChunkSizeBelowOne() {
+        assertThrows(IllegalStateException.class, () -> service(0));
+    }
+
+    private DealServiceImpl service(int chunkSize) {
+        return new DealServiceImpl(mock(DealJdbcRepository.class), mock(DealOutboxRepository.class), dealBatchWriter,
+                mock(UniqueIdFilter.class), mock(ClusterDedupIndex.class), mock(DealMetrics.class),
+                mock(ApplicationEventPublisher.class), mock(DealShardRouter.class),
+                mock(DealIngestionFence.class), chunkSize);
+    }
+
+    private static List<DealRequest> requests(int count) {
+        List<DealRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DealRequest request = new DealRequest();
+            request.setUniqueId("deal-" + i);
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    private static DealBatchItem item(int index, DealBatchItemStatus status) {
+        return new DealBatchItem(index, "deal-" + index, status, null);
+    }
+
+    private static List<DealBatchItemStatus> statuses(DealBatchResponse response) {
+        return response.getData().stream().map(DealBatchItem::getStatus).toList();
+    }
+}
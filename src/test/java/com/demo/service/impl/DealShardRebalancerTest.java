@@ -0,0 +1,124 @@
+package com.demo.service.impl;
+
+import com.demo.TestDatabase;
+import com.demo.repository.DealShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DealShardRebalancerTest {
+
+    private DealShardRouter router;
+    private JdbcTemplate jdbcTemplate;
+    private DealIngestionFence fence;
+    private DealShardRebalancer rebalancer;
+
+    @BeforeEach
+    void setUp() {
+        router = new DealShardRouter(true, List.of("shard-1"), 160, 2);
+        AbstractRoutingDataSource dataSource = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return DealShardRouter.currentShard();
+            }
+        };
+        dataSource.setTargetDataSources(Map.of(0, TestDatabase.migrated(), 1, TestDatabase.migrated()));
+        dataSource.afterPropertiesSet();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        fence = mock(DealIngestionFence.class);
+        when(fence.isFenced()).thenReturn(true);
+        rebalancer = new DealShardRebalancer(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), router, fence, 2);
+    }
+
+    @Test
+    void movesMisplacedDealsAndDeletesThemOnlyOnceCopied() {
+        List<String> misplaced = uniqueIdsOf(1, 5);
+        List<String> placed = uniqueIdsOf(0, 2);
+        long id = 1;
+        for (String uniqueId : misplaced) {
+            insert(0, id++, uniqueId);
+        }
+        for (String uniqueId : placed) {
+            insert(0, id++, uniqueId);
+        }
+
+        Map<Integer, Long> moved = rebalancer.rebalance();
+
+        assertEquals(5L, moved.get(0));
+        assertEquals(Map.of(0, 2L, 1, 5L), rebalancer.dealCounts());
+        for (String uniqueId : misplaced) {
+            assertEquals(1, countOn(1, uniqueId));
+        }
+    }
+
+    @Test
+    void keepsADealWhoseUniqueIdIsAlreadyTakenOnItsShard() {
+        String uniqueId = uniqueIdsOf(1, 1).get(0);
+        insert(0, 1, uniqueId);
+        insert(1, 2, uniqueId);
+
+        assertThrows(IllegalStateException.class, rebalancer::rebalance);
+
+        assertEquals(1, countOn(0, uniqueId));
+        assertEquals(1, countOn(1, uniqueId));
+    }
+
+    @Test
+    void keepsADealWhoseIdIsAlreadyTakenOnItsShard() {
+        List<String> uniqueIds = uniqueIdsOf(1, 2);
+        insert(0, 7, uniqueIds.get(0));
+        insert(1, 7, uniqueIds.get(1));
+
+        assertThrows(IllegalStateException.class, rebalancer::rebalance);
+
+        assertEquals(1, countOn(0, uniqueIds.get(0)));
+    }
+
+    @Test
+    void refusesToRunWhileIngestionIsNotPaused() {
+        String uniqueId = uniqueIdsOf(1, 1).get(0);
+        insert(0, 1, uniqueId);
+        when(fence.isFenced()).thenReturn(false);
+
+        assertThrows(IllegalStateException.class, rebalancer::rebalance);
+
+        assertEquals(1, countOn(0, uniqueId));
+        assertTrue(countOn(1, uniqueId) == 0);
+    }
+
+    private List<String> uniqueIdsOf(int shard, int count) {
+        List<String> uniqueIds = new ArrayList<>();
+        for (int i = 0; uniqueIds.size() < count; i++) {
+            String uniqueId = "D" + shard + "-" + i;
+            if (router.shardFor(uniqueId) == shard) {
+                uniqueIds.add(uniqueId);
+            }
+        }
+        return uniqueIds;
+    }
+
+    private void insert(int shard, long id, String uniqueId) {
+        router.inShard(shard, () -> jdbcTemplate.update("INSERT INTO deal (id, unique_id, from_currency_iso_code,"
+                + " to_currency_iso_code, deal_timestamp, deal_amount) VALUES (?, ?, 'USD', 'EUR', CURRENT_TIMESTAMP, 5)",
+                id, uniqueId));
+    }
+
+    private int countOn(int shard, String uniqueId) {
+        return router.inShard(shard, () -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM deal WHERE unique_id = ?", Integer.class, uniqueId));
+    }
+}
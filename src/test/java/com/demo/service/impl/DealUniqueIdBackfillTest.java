@@ -0,0 +1,42 @@
+package com.demo.service.impl;
+
+import com.demo.TestDatabase;
+import com.demo.repository.DealDedupMode;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DealUniqueIdBackfillTest {
+
+    @Test
+    void claimsEveryUniqueIdWhateverTheOrderOfTheIds() {
+        DataSource dataSource = TestDatabase.migrated();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        DealUniqueIdBackfill backfill = new DealUniqueIdBackfill(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), DealDedupMode.TABLE, 2);
+        insert(jdbcTemplate, 100, "e");
+        insert(jdbcTemplate, 101, "b");
+        jdbcTemplate.update("INSERT INTO deal_unique_id (unique_id) VALUES ('b')");
+        backfill.backfill();
+
+        // Written later by an instance still in index mode, from a block of lower ids
+        insert(jdbcTemplate, 5, "a");
+        insert(jdbcTemplate, 6, "d");
+        insert(jdbcTemplate, 7, "c");
+        backfill.backfill();
+
+        assertEquals(List.of("a", "b", "c", "d", "e"),
+                jdbcTemplate.queryForList("SELECT unique_id FROM deal_unique_id ORDER BY unique_id", String.class));
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, long id, String uniqueId) {
+        jdbcTemplate.update("INSERT INTO deal (id, unique_id, from_currency_iso_code, to_currency_iso_code,"
+                + " deal_timestamp, deal_amount) VALUES (?, ?, 'USD', 'EUR', CURRENT_TIMESTAMP, 1)", id, uniqueId);
+    }
+}
@@ -0,0 +1,108 @@
+package com.demo.service.impl;
+
+import com.demo.TestDatabase;
+import com.demo.repository.DealDedupMode;
+import com.demo.repository.DealShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UniqueIdFilterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private Runnable duringCount = () -> {
+    };
+    private UniqueIdFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = TestDatabase.migrated();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        JdbcTemplate counting = new JdbcTemplate(dataSource) {
+            @Override
+            public <T> T queryForObject(String sql, Class<T> requiredType) {
+                T result = super.queryForObject(sql, requiredType);
+                duringCount.run();
+                return result;
+            }
+        };
+        insert(1, "persisted");
+        filter = new UniqueIdFilter(counting, new DealShardRouter(false, List.of(), 16, 1),
+                new SimpleMeterRegistry(), DealDedupMode.INDEX, true, 0.01, 1000, 2.0, 100);
+    }
+
+    @Test
+    void keepsIdsPutWhileRowsAreCounted() {
+        duringCount = () -> filter.put("during-count");
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain("persisted"));
+        assertTrue(filter.mightContain("during-count"));
+        assertFalse(filter.mightContain("never-put"));
+    }
+
+    @Test
+    void skipsDealsWithoutAUniqueId() {
+        insert(2, null);
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain("persisted"));
+        assertFalse(filter.mightContain("never-put"));
+    }
+
+    @Test
+    void keepsIdsPutConcurrentlyWithRebuilds() throws Exception {
+        int writers = 4;
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(writers);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<List<String>>> written = new ArrayList<>();
+        for (int writer = 0; writer < writers; writer++) {
+            int w = writer;
+            written.add(executor.submit(() -> {
+                List<String> ids = new ArrayList<>();
+                started.countDown();
+                while (running.get() || ids.size() < 100) {
+                    // As the application does: a rebuild either streams the row or gets the put
+                    String id = "writer-" + w + "-" + ids.size();
+                    insert(w * 1_000_000L + ids.size() + 2, id);
+                    filter.put(id);
+                    ids.add(id);
+                }
+                return ids;
+            }));
+        }
+        started.await();
+        for (int i = 0; i < 20; i++) {
+            filter.rebuild();
+        }
+        running.set(false);
+
+        for (Future<List<String>> ids : written) {
+            for (String id : ids.get()) {
+                assertTrue(filter.mightContain(id), id);
+            }
+        }
+        executor.shutdown();
+    }
+
+    private void insert(long id, String uniqueId) {
+        jdbcTemplate.update("INSERT INTO deal (id, unique_id, from_currency_iso_code, to_currency_iso_code,"
+                + " deal_timestamp, deal_amount) VALUES (?, ?, 'USD', 'EUR', CURRENT_TIMESTAMP, 1)", id, uniqueId);
+    }
+}
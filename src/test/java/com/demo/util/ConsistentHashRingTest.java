@@ -0,0 +1,60 @@
+package com.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 20_000;
+
+    @Test
+    void routesEveryKeyTheSameWayOnEveryNode() {
+        ConsistentHashRing ring = new ConsistentHashRing(4, 160);
+        ConsistentHashRing other = new ConsistentHashRing(4, 160);
+
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals(ring.shardFor("deal-" + i), other.shardFor("deal-" + i));
+        }
+    }
+
+    @Test
+    void spreadsKeysEvenlyOverTheShards() {
+        ConsistentHashRing ring = new ConsistentHashRing(4, 160);
+        int[] keys = new int[4];
+        for (int i = 0; i < KEYS; i++) {
+            keys[ring.shardFor("deal-" + i)]++;
+        }
+
+        for (int shard = 0; shard < 4; shard++) {
+            assertTrue(Math.abs(keys[shard] - KEYS / 4) < KEYS / 4 / 5, "shard " + shard + " has " + keys[shard]);
+        }
+    }
+
+    @Test
+    void addingAShardOnlyMovesKeysToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(3, 160);
+        ConsistentHashRing after = new ConsistentHashRing(4, 160);
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            int shard = after.shardFor("deal-" + i);
+            if (shard != before.shardFor("deal-" + i)) {
+                assertEquals(3, shard);
+                moved++;
+            }
+        }
+
+        assertTrue(Math.abs(moved - KEYS / 4) < KEYS / 4 / 5, moved + " keys moved");
+    }
+
+    @Test
+    void sendsEverythingToTheOnlyShard() {
+        ConsistentHashRing ring = new ConsistentHashRing(1, 160);
+
+        assertEquals(0, ring.shardFor("deal-1"));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(0, 160));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(2, 0));
+    }
+}
@@ -0,0 +1,44 @@
+package com.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DealCursorTest {
+
+    @Test
+    void decodesTheTokenItEncodes() {
+        DealCursor cursor = new DealCursor(LocalDateTime.of(2024, 5, 10, 12, 30, 0, 123_456_000), Long.MAX_VALUE);
+
+        String token = cursor.encode();
+
+        assertEquals(cursor, DealCursor.decode(token));
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void keepsTimestampsThatToStringShortens() {
+        // LocalDateTime.toString leaves out zero seconds and nanoseconds
+        DealCursor cursor = new DealCursor(LocalDateTime.of(2024, 5, 10, 12, 30), 1);
+
+        assertEquals(cursor, DealCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void rejectsTokensItDidNotProduce() {
+        assertThrows(IllegalArgumentException.class, () -> DealCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> DealCursor.decode(token("2024-05-10T12:30")));
+        assertThrows(IllegalArgumentException.class, () -> DealCursor.decode(token("2024-05-10T12:30|x")));
+        assertThrows(IllegalArgumentException.class, () -> DealCursor.decode(token("yesterday|1")));
+    }
+
+    private static String token(String plain) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+}
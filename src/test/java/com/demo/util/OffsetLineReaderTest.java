@@ -0,0 +1,46 @@
+package com.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OffsetLineReaderTest {
+
+    private static final byte[] FILE = "a,1\r\nbé,2\n\nlast".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void countsTheBytesOfEveryLineAndItsTerminator() throws IOException {
+        // A buffer smaller than a line, so that lines and a multi-byte character span several reads
+        OffsetLineReader reader = new OffsetLineReader(new ByteArrayInputStream(FILE), 0, 2);
+
+        assertEquals("a,1", reader.readLine());
+        assertEquals(5, reader.offset());
+        assertEquals("bé,2", reader.readLine());
+        assertEquals(11, reader.offset());
+        assertEquals("", reader.readLine());
+        assertEquals(12, reader.offset());
+        assertEquals("last", reader.readLine());
+        assertEquals(FILE.length, reader.offset());
+        assertNull(reader.readLine());
+        assertEquals(FILE.length, reader.offset());
+    }
+
+    @Test
+    void resumesAtAnOffsetItReported() throws IOException {
+        OffsetLineReader first = new OffsetLineReader(new ByteArrayInputStream(FILE), 0);
+        first.readLine();
+        long offset = first.offset();
+
+        byte[] rest = Arrays.copyOfRange(FILE, (int) offset, FILE.length);
+        OffsetLineReader resumed = new OffsetLineReader(new ByteArrayInputStream(rest), offset);
+
+        assertEquals("bé,2", resumed.readLine());
+        assertEquals(11, resumed.offset());
+    }
+}
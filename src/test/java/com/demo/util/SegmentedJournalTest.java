@@ -0,0 +1,291 @@
+package com.demo.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SegmentedJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysDurableRecordsAfterReopening() throws IOException {
+        long[] offsets;
+        try (SegmentedJournal journal = new SegmentedJournal(dir, 1 << 20)) {
+            offsets = journal.append(payloads("a", "bb", "ccc"));
+            journal.force();
+        }
+
+        try (SegmentedJournal journal = new SegmentedJournal(dir, 1 << 20)) {
+            List<SegmentedJournal.Record> records = journal.read(0, 10);
+            assertEquals(List.of("a", "bb", "ccc"), strings(records));
+            assertArrayEquals(offsets, records.stream().mapToLong(SegmentedJournal.Record::offset).toArray());
+            assertEquals(records.get(2).nextOffset(), journal.durableOffset());
+        }
+    }
+
+    @Test
+    void cutsOffATornRecordAndAppendsAfterTheLastValidOne() throws IOException {
+        long end;
+        try (SegmentedJournal journal = new SegmentedJournal(dir, 1 << 20)) {
+            journal.append(payloads("a", "bb"));
+            journal.force();
+            end = journal.durableOffset();
+        }
+        // The header of a record whose payload never made it to disk
+        Files.write(segments().get(0), new byte[]{0, 0, 0, 100, 1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        try (SegmentedJournal journal = new SegmentedJournal(dir, 1 << 20)) {
+            assertEquals(end, journal.durableOffset());
+            assertEquals(end, journal.append(payloads("ddd"))[0]);
+            journal.force();
+            assertEquals(List.of("a", "bb", "ddd"), strings(journal.read(0, 10)));
+        }
+    }
+
+    @Test
+    void resumesFromACheckpointAcrossSegmentsAndDeletesDrainedOnes() throws IOException {
+        try (SegmentedJournal journal = new SegmentedJournal(dir, 16)) {
+            for (int i = 0; i < 6; i++) {
+                journal.append(payloads("record-" + i));
+                journal.force();
+            }
+            assertEquals(6, journal.segmentCount());
+
+            List<SegmentedJournal.Record> drained = journal.read(0, 4);
+            long checkpoint = drained.get(3).nextOffset();
+            journal.deleteBefore(checkpoint);
+
+            assertEquals(2, segments().size());
+            assertEquals(List.of("record-4", "record-5"), strings(journal.read(checkpoint, 10)));
+            assertThrows(IOException.class, () -> journal.read(0, 1));
+        }
+    }
+
+    @Test
+    void cutsOffAPartialWriteAndAppendsTheNextRecordsInItsPlace() throws IOException {
+        FailingChannel[] channel = new FailingChannel[1];
+        try (SegmentedJournal journal = failing(channel)) {
+            journal.append(payloads("a", "bb"));
+            journal.force();
+            long end = journal.durableOffset();
+
+            channel[0].failWriteAfter = 5;
+            assertThrows(IOException.class, () -> journal.append(payloads("lost")));
+            channel[0].failWriteAfter = -1;
+            assertEquals(end, journal.append(payloads("ccc"))[0]);
+            journal.force();
+            assertEquals(List.of("a", "bb", "ccc"), strings(journal.read(0, 10)));
+        }
+
+        try (SegmentedJournal journal = new SegmentedJournal(dir, 1 << 20)) {
+            assertEquals(List.of("a", "bb", "ccc"), strings(journal.read(0, 10)));
+        }
+    }
+
+    @Test
+    void dropsTheRecordsOfAFailedSync() throws IOException {
+        FailingChannel[] channel = new FailingChannel[1];
+        try (SegmentedJournal journal = failing(channel)) {
+            journal.append(payloads("a"));
+            journal.force();
+            long end = journal.durableOffset();
+
+            journal.append(payloads("failed"));
+            channel[0].failForce = true;
+            assertThrows(IOException.class, journal::force);
+            channel[0].failForce = false;
+
+            assertEquals(end, journal.durableOffset());
+            assertEquals(end, journal.append(payloads("b"))[0]);
+            journal.force();
+        }
+
+        try (SegmentedJournal journal = new SegmentedJournal(dir, 1 << 20)) {
+            assertEquals(List.of("a", "b"), strings(journal.read(0, 10)));
+        }
+    }
+
+    @Test
+    void refusesAppendsOnceAFailedWriteCannotBeCutOff() throws IOException {
+        FailingChannel[] channel = new FailingChannel[1];
+        try (SegmentedJournal journal = failing(channel)) {
+            journal.append(payloads("a"));
+            journal.force();
+
+            channel[0].failWriteAfter = 3;
+            channel[0].failTruncate = true;
+            assertThrows(IOException.class, () -> journal.append(payloads("torn")));
+            channel[0].failWriteAfter = -1;
+            channel[0].failTruncate = false;
+
+            assertThrows(IOException.class, () -> journal.append(payloads("b")));
+            assertThrows(IOException.class, journal::force);
+        }
+
+        try (SegmentedJournal journal = new SegmentedJournal(dir, 1 << 20)) {
+            assertEquals(List.of("a"), strings(journal.read(0, 10)));
+        }
+    }
+
+    /**
+     * A journal writing through a {@link FailingChannel}, handed out in {@code channel} once the journal is open.
+     */
+    private SegmentedJournal failing(FailingChannel[] channel) throws IOException {
+        return new SegmentedJournal(dir, 1 << 20) {
+            @Override
+            FileChannel open(Path file, OpenOption... options) throws IOException {
+                channel[0] = new FailingChannel(FileChannel.open(file, options));
+                return channel[0];
+            }
+        };
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.toString().endsWith(".journal")).sorted().toList();
+        }
+    }
+
+    private static List<byte[]> payloads(String... values) {
+        return Stream.of(values).map(value -> value.getBytes(StandardCharsets.UTF_8)).toList();
+    }
+
+    private static List<String> strings(List<SegmentedJournal.Record> records) {
+        return records.stream().map(record -> new String(record.payload(), StandardCharsets.UTF_8)).toList();
+    }
+
+    /**
+     * Delegates to a file channel, except that a write can be cut short with an error after {@code failWriteAfter}
+     * bytes, as when the disk fills up, and that {@code force} and {@code truncate} can be made to fail.
+     */
+    private static class FailingChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        int failWriteAfter = -1;
+        boolean failForce;
+        boolean failTruncate;
+
+        FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failWriteAfter < 0) {
+                return delegate.write(src);
+            }
+            ByteBuffer head = src.duplicate();
+            head.limit(head.position() + Math.min(failWriteAfter, head.remaining()));
+            delegate.write(head);
+            throw new IOException("No space left on device");
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failForce) {
+                throw new IOException("Input/output error");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (failTruncate) {
+                throw new IOException("Input/output error");
+            }
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}